@@ -0,0 +1,23 @@
+package com.inventorypulse.inventorypulse_backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class AlertExecutorConfig {
+
+    // Drains the stock alert queue; one thread, and at most one drain is ever pending at a time.
+    // A drain not yet due at shutdown is dropped: the startup sweep covers what it would have read.
+    @Bean
+    public ThreadPoolTaskScheduler alertScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("stock-alerts-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduler.setAwaitTerminationSeconds(10);
+        scheduler.initialize();
+        return scheduler;
+    }
+}
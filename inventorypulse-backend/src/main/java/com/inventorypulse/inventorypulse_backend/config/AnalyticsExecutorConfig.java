@@ -0,0 +1,41 @@
+package com.inventorypulse.inventorypulse_backend.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@RequiredArgsConstructor
+public class AnalyticsExecutorConfig {
+
+    private final InventoryPulseProperties properties;
+
+    // Runs the rollup catch-up and the stock snapshots; one thread, so runs in this instance never overlap
+    @Bean
+    public ThreadPoolTaskScheduler analyticsScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("analytics-");
+        // A run in progress finishes on shutdown; the next scheduled snapshot is not waited for
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduler.setAwaitTerminationSeconds(30);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    // Aggregates product-id ranges of the ledger side by side during a full rollup rebuild
+    @Bean
+    public ThreadPoolTaskExecutor rollupRebuildExecutor() {
+        int workers = Math.max(1, properties.getAnalytics().getRebuildWorkers());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("rollup-rebuild-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,48 @@
+package com.inventorypulse.inventorypulse_backend.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+@RequiredArgsConstructor
+public class ImportExecutorConfig {
+
+    private final InventoryPulseProperties properties;
+
+    // Bounded pool for background CSV imports; a full queue rejects new jobs instead of piling up uploads
+    @Bean
+    public ThreadPoolTaskExecutor importTaskExecutor() {
+        InventoryPulseProperties.Imports imports = properties.getImports();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imports.getWorkerThreads());
+        executor.setMaxPoolSize(imports.getWorkerThreads());
+        executor.setQueueCapacity(imports.getQueueCapacity());
+        executor.setThreadNamePrefix("product-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // Marks this instance's import jobs alive and fails jobs whose instance has gone away
+    @Bean
+    public ThreadPoolTaskScheduler importHeartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("import-heartbeat-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    // Tokenizes record-aligned CSV blocks in parallel; shared by all running imports
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool csvParserPool() {
+        return new ForkJoinPool(Math.max(1, properties.getImports().getParserThreads()));
+    }
+}
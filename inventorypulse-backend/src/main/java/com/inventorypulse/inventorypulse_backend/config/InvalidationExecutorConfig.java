@@ -0,0 +1,33 @@
+package com.inventorypulse.inventorypulse_backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class InvalidationExecutorConfig {
+
+    // Sends coalesced change notifications to the other instances. Nothing pending matters at
+    // shutdown: the changes are committed, and other instances' caches expire on their own.
+    @Bean
+    public ThreadPoolTaskScheduler invalidationScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("invalidation-send-");
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    // Holds the listening connection; the listen loop occupies its one thread until the
+    // connection drops, and is started again after the reconnect delay.
+    @Bean
+    public ThreadPoolTaskScheduler invalidationListener() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("invalidation-listen-");
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduler.initialize();
+        return scheduler;
+    }
+}
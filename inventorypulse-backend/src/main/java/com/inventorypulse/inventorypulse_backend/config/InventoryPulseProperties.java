@@ -0,0 +1,256 @@
+package com.inventorypulse.inventorypulse_backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Application-specific tuning knobs, bound from `inventorypulse.*` properties.
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "inventorypulse")
+public class InventoryPulseProperties {
+
+    private final Imports imports = new Imports();
+    private final Inventory inventory = new Inventory();
+    private final Products products = new Products();
+    private final Analytics analytics = new Analytics();
+    private final Alerts alerts = new Alerts();
+    private final Stream stream = new Stream();
+    private final Outbox outbox = new Outbox();
+    private final Invalidation invalidation = new Invalidation();
+
+    @Getter
+    @Setter
+    public static class Imports {
+        // Number of CSV rows validated, SKU-checked and written per database round trip.
+        private int chunkSize = 1000;
+
+        // Background import jobs: worker threads and how many uploads may wait for one
+        private int workerThreads = 2;
+        private int queueCapacity = 20;
+
+        // How many rejected-row messages are kept on an import job
+        private int maxErrorSamples = 20;
+
+        // Queued and running jobs are marked alive this often; one not marked for stale-after was
+        // lost with its instance and is failed, so its file can be uploaded again
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+        private Duration staleAfter = Duration.ofMinutes(5);
+
+        // CSV parsing: fork-join parallelism and characters per record-aligned block
+        private int parserThreads = Runtime.getRuntime().availableProcessors();
+        private int parseBlockSize = 1 << 20;
+    }
+
+    @Getter
+    @Setter
+    public static class Inventory {
+        // Upper bound on entries in one bulk transaction request (all rows are locked together)
+        private int maxBatchSize = 1000;
+
+        // Largest page of a product's transaction history a single request may ask for
+        private int maxHistoryPageSize = 500;
+
+        private final Coalescing coalescing = new Coalescing();
+        private final Idempotency idempotency = new Idempotency();
+    }
+
+    @Getter
+    @Setter
+    public static class Coalescing {
+        // Opt-in: group concurrent single movements on the same product into one write
+        private boolean enabled = false;
+
+        // How long the first movement waits for others to join, and how many may join at most
+        private Duration window = Duration.ofMillis(2);
+        private int maxBatchSize = 64;
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        // Recently seen external references whose transaction is answered from memory
+        private int cacheSize = 10_000;
+
+        // Bloom filter sizing; past the expected count the false-positive rate slowly degrades
+        private int expectedReferences = 1_000_000;
+        private double falsePositiveRate = 0.01;
+    }
+
+    @Getter
+    @Setter
+    public static class Products {
+        // Cursor-paginated listing: page size when none is requested, and the largest allowed
+        private int defaultPageSize = 50;
+        private int maxPageSize = 500;
+
+        // Unpaginated GET /api/products returns at most this many rows (plus a next-page cursor header)
+        private int legacyListLimit = 1000;
+
+        // How long a catalog export may stream before the container gives up on it
+        private Duration exportTimeout = Duration.ofMinutes(30);
+
+        private final Search search = new Search();
+        private final Cache cache = new Cache();
+        private final Facets facets = new Facets();
+    }
+
+    @Getter
+    @Setter
+    public static class Search {
+        // Answer search and autocomplete from an in-process n-gram index instead of the database
+        private boolean inMemoryIndex = false;
+
+        // Autocomplete suggestions returned when no limit is requested
+        private int autocompleteLimit = 10;
+
+        // Deepest offset search accepts; every skipped row is still read, so deeper pages get 400
+        private int maxOffset = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        // Read-through cache of single products by id; invalidated on every committed change
+        private boolean enabled = true;
+
+        // Bounds on what it keeps: entry count, and how long an entry lives after it was loaded
+        private long maximumSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Facets {
+        // Facet counts for a search query are cached per query and served up to ttl old, whatever
+        // changed since; whole-catalog counts are kept current by the database and not cached
+        private long cacheSize = 1_000;
+        private Duration ttl = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Analytics {
+        // Hourly/daily movement rollups, caught up from the ledger in the background
+        private boolean rollupsEnabled = true;
+
+        // Pause between catch-up runs; charts lag the ledger by about this much
+        private Duration catchUpInterval = Duration.ofSeconds(10);
+
+        // Concurrent product-id ranges (each its own connection) during a full rebuild
+        private int rebuildWorkers = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+        // Stock snapshots for point-in-time queries: when they are taken (cron, UTC; "-" disables)
+        // and how long they are kept. As-of queries older than the retention fall back to the ledger.
+        private String snapshotCron = "0 0 0 * * *";
+        private Duration snapshotRetention = Duration.ofDays(400);
+
+        // Most SKUs a single as-of request may ask for; larger audits use the streaming export
+        private int maxAsOfSkus = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Alerts {
+        // Low-stock, stockout and recovery alerts, evaluated off the request thread after each change
+        private boolean enabled = true;
+
+        // Products waiting to be evaluated; past this, changes are dropped and a full sweep runs instead
+        private int queueCapacity = 10_000;
+
+        // Products evaluated (and alerts inserted) per statement
+        private int batchSize = 500;
+
+        // How long changes collect before they are evaluated; a burst on one product is evaluated once
+        private Duration batchDelay = Duration.ofMillis(200);
+
+        // Largest inbox page, and the most ids one mark-seen request may name
+        private int maxPageSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Stream {
+        // Open /api/stream connections per instance; further subscribers get 503
+        private int maxSubscribers = 10_000;
+
+        // Events buffered per subscriber while its connection is busy writing
+        private int bufferSize = 256;
+
+        // What happens to a subscriber whose buffer is full
+        private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.DROP;
+
+        // Threads writing to subscriber connections; no thread is held by an idle connection
+        private int writerThreads = 4;
+
+        // How long product changes collect before they are read and pushed; a burst on one product is pushed once
+        private Duration coalesceWindow = Duration.ofMillis(100);
+
+        // Comment line sent to every subscriber, keeps proxies from closing idle connections and finds dead ones
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        // Connections are closed after this; EventSource clients reconnect by themselves
+        private Duration timeout = Duration.ofMinutes(30);
+
+        public enum SlowConsumerPolicy {
+            // Drop the oldest buffered event and tell the subscriber to resync once it catches up
+            DROP,
+            // Close the connection
+            DISCONNECT
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+        // Relay committed outbox events to the sink in the background; when off, they accumulate in outbox_events
+        private boolean enabled = true;
+
+        // Where relayed events go
+        private Sink sink = Sink.LOG;
+
+        // JSON-lines file appended to by the FILE sink
+        private String file = "outbox-events.jsonl";
+
+        // Events handed to the sink at once; the relay keeps claiming batches while they come back full
+        private int batchSize = 500;
+
+        // Fallback poll, for events committed by other instances; a change made here wakes the relay at once
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        // Wait after a failed publish, doubled on every further failure up to max-retry-delay
+        private Duration retryDelay = Duration.ofSeconds(1);
+        private Duration maxRetryDelay = Duration.ofMinutes(1);
+
+        public enum Sink {
+            // One log line per event, on the inventorypulse.outbox logger
+            LOG,
+            // Appended to a JSON-lines file, synced to disk before the batch counts as delivered
+            FILE
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Invalidation {
+        // Tell other instances which products changed here, and listen for their changes
+        private boolean enabled = true;
+
+        // LISTEN/NOTIFY channel shared by all instances on the same database
+        private String channel = "inventorypulse_invalidation";
+
+        // How long changes collect before they are sent; a burst on one product is sent once
+        private Duration coalesceWindow = Duration.ofMillis(50);
+
+        // A flush naming more products than this sends a full resync instead of the ids
+        private int maxIdsPerFlush = 10_000;
+
+        // How often an idle listening connection is checked, so a dead one is noticed
+        private Duration pingInterval = Duration.ofSeconds(10);
+
+        // Wait before reconnecting, and before retrying a failed send
+        private Duration reconnectDelay = Duration.ofSeconds(1);
+    }
+}
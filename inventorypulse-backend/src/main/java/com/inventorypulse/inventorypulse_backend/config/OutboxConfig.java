@@ -0,0 +1,43 @@
+package com.inventorypulse.inventorypulse_backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorypulse.inventorypulse_backend.service.outbox.FileOutboxSink;
+import com.inventorypulse.inventorypulse_backend.service.outbox.LogOutboxSink;
+import com.inventorypulse.inventorypulse_backend.service.outbox.OutboxSink;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+@RequiredArgsConstructor
+public class OutboxConfig {
+
+    private final InventoryPulseProperties properties;
+
+    // Runs the outbox relay; one thread, so batches from this instance are delivered one at a time.
+    // A batch in flight at shutdown is finished (or rolled back and retried by the next start).
+    @Bean
+    public ThreadPoolTaskScheduler outboxScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("outbox-relay-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduler.setAwaitTerminationSeconds(10);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    @Bean
+    public OutboxSink outboxSink(ObjectMapper objectMapper) throws IOException {
+        InventoryPulseProperties.Outbox settings = properties.getOutbox();
+        return switch (settings.getSink()) {
+            case LOG -> new LogOutboxSink(objectMapper);
+            case FILE -> new FileOutboxSink(objectMapper, Path.of(settings.getFile()));
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventorypulse.inventorypulse_backend.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@RequiredArgsConstructor
+public class StreamExecutorConfig {
+
+    private final InventoryPulseProperties properties;
+
+    // Reads changed products, fans events out to subscriber buffers and sends heartbeats.
+    // Nothing pending matters at shutdown: every connection is closed anyway.
+    @Bean
+    public ThreadPoolTaskScheduler streamScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("stream-dispatch-");
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    // Writes subscriber buffers to their connections without blocking. A subscriber has at most one
+    // write task queued or running, so the queue never holds more than one task per subscriber.
+    @Bean
+    public ThreadPoolTaskExecutor streamWriterExecutor() {
+        int threads = Math.max(1, properties.getStream().getWriterThreads());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("stream-writer-");
+        executor.initialize();
+        return executor;
+    }
+}
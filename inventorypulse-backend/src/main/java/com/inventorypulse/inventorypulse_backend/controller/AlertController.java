@@ -0,0 +1,44 @@
+package com.inventorypulse.inventorypulse_backend.controller;
+
+import com.inventorypulse.inventorypulse_backend.dto.alert.AlertPageResponse;
+import com.inventorypulse.inventorypulse_backend.dto.alert.MarkAlertsSeenRequest;
+import com.inventorypulse.inventorypulse_backend.dto.alert.MarkAlertsSeenResponse;
+import com.inventorypulse.inventorypulse_backend.dto.alert.UnseenAlertCountResponse;
+import com.inventorypulse.inventorypulse_backend.service.alerts.AlertInboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/alerts")
+@RequiredArgsConstructor
+public class AlertController {
+
+    private final AlertInboxService alertInboxService;
+
+    // GET /api/alerts?limit=50&cursor=...&unseenOnly=false&productId= -> any authenticated user
+    // Newest first
+    @GetMapping
+    public AlertPageResponse getAlerts(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "50") int limit,
+            @RequestParam(name = "unseenOnly", defaultValue = "false") boolean unseenOnly,
+            @RequestParam(name = "productId", required = false) Long productId
+    ) {
+        return alertInboxService.getAlertPage(cursor, limit, unseenOnly, productId);
+    }
+
+    // GET /api/alerts/unseen-count -> any authenticated user
+    @GetMapping("/unseen-count")
+    public UnseenAlertCountResponse getUnseenCount() {
+        return alertInboxService.getUnseenCount();
+    }
+
+    // POST /api/alerts/seen -> ADMIN or MANAGER only
+    // Body names ids, a productId, or a page cursor as "before"; alerts are shared, so this marks them for everyone
+    @PostMapping("/seen")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public MarkAlertsSeenResponse markSeen(@RequestBody MarkAlertsSeenRequest request) {
+        return alertInboxService.markSeen(request);
+    }
+}
@@ -0,0 +1,110 @@
+package com.inventorypulse.inventorypulse_backend.controller;
+
+import com.inventorypulse.inventorypulse_backend.dto.analytics.MovementBucket;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.RollupStatusResponse;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.StockAsOf;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.StockAsOfRequest;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.StockSnapshotResponse;
+import com.inventorypulse.inventorypulse_backend.service.analytics.StockAsOfService;
+import com.inventorypulse.inventorypulse_backend.service.analytics.StockRollupService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final StockRollupService stockRollupService;
+    private final StockAsOfService stockAsOfService;
+
+    // GET /api/analytics/products/{productId}/movements?granularity=hour|day&from=...&to=...
+    // any authenticated user
+    // Units in/out per bucket over [from, to), oldest first; buckets without movements are omitted.
+    // Defaults to the last 30 buckets; served from the rollups, so up to one catch-up interval behind
+    @GetMapping("/products/{productId}/movements")
+    public List<MovementBucket> getProductMovements(
+            @PathVariable Long productId,
+            @RequestParam(name = "granularity", defaultValue = "day") String granularity,
+            @RequestParam(name = "from", required = false) String from,
+            @RequestParam(name = "to", required = false) String to
+    ) {
+        return stockRollupService.getProductMovements(productId, granularity, from, to);
+    }
+
+    // GET /api/analytics/categories/movements?category=...&granularity=hour|day&from=...&to=...
+    // any authenticated user; no category selects uncategorized products
+    @GetMapping("/categories/movements")
+    public List<MovementBucket> getCategoryMovements(
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "granularity", defaultValue = "day") String granularity,
+            @RequestParam(name = "from", required = false) String from,
+            @RequestParam(name = "to", required = false) String to
+    ) {
+        return stockRollupService.getCategoryMovements(category, granularity, from, to);
+    }
+
+    // GET /api/analytics/rollups -> any authenticated user
+    @GetMapping("/rollups")
+    public RollupStatusResponse getRollupStatus() {
+        return stockRollupService.getStatus();
+    }
+
+    // POST /api/analytics/rollups/rebuild -> ADMIN only
+    // Rebuilds the rollups from the whole ledger and returns once done; 409 while another run is in progress
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public RollupStatusResponse rebuildRollups() {
+        stockRollupService.rebuild();
+        return stockRollupService.getStatus();
+    }
+
+    // POST /api/analytics/stock-as-of -> any authenticated user
+    // Stock of the given SKUs at a point in time, from the ledger and the stock snapshots
+    @PostMapping("/stock-as-of")
+    public List<StockAsOf> getStockAsOf(@Valid @RequestBody StockAsOfRequest request) {
+        return stockAsOfService.getStockAsOf(request);
+    }
+
+    // GET /api/analytics/stock-as-of/export?at=...&gzip=true -> any authenticated user
+    // The same for the whole catalog as CSV, streamed from a database cursor
+    @GetMapping("/stock-as-of/export")
+    public ResponseEntity<StreamingResponseBody> exportStockAsOf(
+            @RequestParam(name = "at") String at,
+            @RequestParam(name = "gzip", defaultValue = "false") boolean gzip
+    ) {
+        Instant asOf = stockAsOfService.parseAsOf(at);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"stock-as-of.csv\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(out -> stockAsOfService.exportStockAsOf(asOf, gzip, out));
+    }
+
+    // GET /api/analytics/stock-snapshots -> any authenticated user
+    @GetMapping("/stock-snapshots")
+    public List<StockSnapshotResponse> getStockSnapshots() {
+        return stockAsOfService.getSnapshots();
+    }
+
+    // POST /api/analytics/stock-snapshots -> ADMIN only
+    // Takes a snapshot now, e.g. right before a period closes, in addition to the scheduled ones
+    @PostMapping("/stock-snapshots")
+    @PreAuthorize("hasRole('ADMIN')")
+    public StockSnapshotResponse takeStockSnapshot() {
+        return stockAsOfService.takeSnapshot();
+    }
+}
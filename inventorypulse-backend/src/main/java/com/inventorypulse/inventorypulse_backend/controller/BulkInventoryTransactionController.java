@@ -0,0 +1,40 @@
+package com.inventorypulse.inventorypulse_backend.controller;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkInventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkInventoryTransactionResponse;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkTransactionMode;
+import com.inventorypulse.inventorypulse_backend.service.BulkInventoryTransactionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/products/transactions")
+@RequiredArgsConstructor
+public class BulkInventoryTransactionController {
+
+    private final BulkInventoryTransactionService bulkInventoryTransactionService;
+
+    // POST /api/products/transactions/batch
+    // ADMIN or MANAGER only; 422 when an ALL_OR_NOTHING batch was rejected
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<BulkInventoryTransactionResponse> applyBatch(
+            @Valid @RequestBody BulkInventoryTransactionRequest request
+    ) {
+        String currentUserEmail = SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getName();
+
+        BulkInventoryTransactionResponse response = bulkInventoryTransactionService.applyBatch(request, currentUserEmail);
+
+        HttpStatus status = response.mode() == BulkTransactionMode.ALL_OR_NOTHING && response.rejectedCount() > 0
+                ? HttpStatus.UNPROCESSABLE_ENTITY
+                : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,42 @@
+package com.inventorypulse.inventorypulse_backend.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for the endpoints dashboards poll. The caller computes a strong ETag from a
+ * version it reads before the data; a matching If-None-Match gets a 304 and the body is never
+ * loaded or serialized.
+ *
+ * Responses are marked {@code private, no-cache} (rather than Spring Security's default
+ * {@code no-store}) so browsers keep them and revalidate with If-None-Match on their own.
+ */
+final class ConditionalGet {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    static <T> ResponseEntity<T> respond(WebRequest request, String etag, Supplier<T> body) {
+        return respondWith(request, etag, builder -> builder.body(body.get()));
+    }
+
+    // For responses that need more than a body, e.g. extra headers
+    static <T> ResponseEntity<T> respondWith(
+            WebRequest request,
+            String etag,
+            Function<ResponseEntity.BodyBuilder, ResponseEntity<T>> ok
+    ) {
+        // checkNotModified has already set the status and the ETag header
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ok.apply(ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE));
+    }
+}
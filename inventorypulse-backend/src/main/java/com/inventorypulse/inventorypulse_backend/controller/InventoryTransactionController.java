@@ -2,12 +2,15 @@ package com.inventorypulse.inventorypulse_backend.controller;
 
 import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
 import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionResponse;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.TransactionPageResponse;
 import com.inventorypulse.inventorypulse_backend.service.InventoryTransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,14 +21,27 @@ public class InventoryTransactionController {
 
     private final InventoryTransactionService inventoryTransactionService;
 
-    // GET /api/products/{productId}/transactions?limit=50
+    // GET /api/products/{productId}/transactions?limit=50&cursor=...&from=...&to=...
     // any authenticated user
+    // Newest first; X-Next-Cursor is set when older rows remain. from/to bound createdAt ([from, to))
+    // ETag follows the product's version, which every movement bumps; If-None-Match can answer 304
     @GetMapping
-    public List<InventoryTransactionResponse> getTransactionsForProduct(
+    public ResponseEntity<List<InventoryTransactionResponse>> getTransactionsForProduct(
             @PathVariable Long productId,
-            @RequestParam(name = "limit", defaultValue = "50") int limit
+            @RequestParam(name = "limit", defaultValue = "50") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "from", required = false) String from,
+            @RequestParam(name = "to", required = false) String to,
+            WebRequest request
     ) {
-        return inventoryTransactionService.getRecentTransactionsForProduct(productId, limit);
+        long version = inventoryTransactionService.getHistoryVersion(productId);
+        return ConditionalGet.respondWith(request, "transactions-" + productId + "-" + version, response -> {
+            TransactionPageResponse page = inventoryTransactionService.getTransactionPage(productId, cursor, from, to, limit);
+            if (page.nextCursor() != null) {
+                response.header("X-Next-Cursor", page.nextCursor());
+            }
+            return response.body(page.items());
+        });
     }
 
     // POST /api/products/{productId}/transactions
@@ -1,17 +1,34 @@
 package com.inventorypulse.inventorypulse_backend.controller;
 
 import com.inventorypulse.inventorypulse_backend.dto.product.CreateProductRequest;
+import com.inventorypulse.inventorypulse_backend.dto.product.ExportFormat;
+import com.inventorypulse.inventorypulse_backend.dto.product.ImportJobResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ImportMode;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductFacetsResponse;
 import com.inventorypulse.inventorypulse_backend.dto.product.ProductImportResult;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductPageResponse;
 import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductSort;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductSuggestion;
 import com.inventorypulse.inventorypulse_backend.dto.product.UpdateProductRequest;
+import com.inventorypulse.inventorypulse_backend.repository.ProductReadRepository.VersionedProduct;
+import com.inventorypulse.inventorypulse_backend.service.ProductExportService;
+import com.inventorypulse.inventorypulse_backend.service.ProductImportJobService;
 import com.inventorypulse.inventorypulse_backend.service.ProductService;
+import com.inventorypulse.inventorypulse_backend.service.facets.ProductFacetService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.InputStreamReader;
 import java.net.URI;
@@ -24,30 +41,106 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportJobService productImportJobService;
+    private final ProductExportService productExportService;
 
-    // POST /api/products/import -> ADMIN or MANAGER only
+    // POST /api/products/import?mode=insert|upsert -> ADMIN or MANAGER only
     @PostMapping("/import")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    public ProductImportResult importProductsFromCsv(@RequestParam("file") MultipartFile file) {
+    public ProductImportResult importProductsFromCsv(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(name = "mode", defaultValue = "insert") String mode
+    ) {
+        ImportMode importMode = ImportMode.fromParam(mode);
         try {
             return productService.importFromCsv(
-                    new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)
+                    new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8),
+                    importMode
             );
         } catch (Exception e) {
             throw new RuntimeException("Failed to import CSV", e);
         }
     }
 
+    // POST /api/products/import/jobs?mode=insert|upsert -> ADMIN or MANAGER only
+    // Queues the import and returns 202 right away; poll the Location for progress
+    @PostMapping("/import/jobs")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ImportJobResponse> submitImportJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(name = "mode", defaultValue = "insert") String mode
+    ) {
+        ImportMode importMode = ImportMode.fromParam(mode);
+        String currentUserEmail = SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getName();
+
+        ImportJobResponse job = productImportJobService.submit(file, importMode, currentUserEmail);
+        URI location = URI.create("/api/products/import/jobs/" + job.id());
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    // GET /api/products/import/jobs/{jobId} -> ADMIN or MANAGER only
+    @GetMapping("/import/jobs/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ImportJobResponse getImportJob(@PathVariable Long jobId) {
+        return productImportJobService.getJob(jobId);
+    }
+
     // GET /api/products  -> authenticated only
+    // Legacy unpaginated list, capped; X-Next-Cursor is set when rows were left out
+    // Listings carry the catalog ETag; If-None-Match answers 304 while no product has changed
     @GetMapping
-    public List<ProductResponse> getAllProducts() {
-        return productService.getAllProducts();
+    public ResponseEntity<List<ProductResponse>> getAllProducts(WebRequest request) {
+        return ConditionalGet.respondWith(request, productService.getCatalogEtag(), response -> {
+            ProductPageResponse page = productService.getAllProducts();
+            if (page.nextCursor() != null) {
+                response.header("X-Next-Cursor", page.nextCursor());
+            }
+            return response.body(page.items());
+        });
+    }
+
+    // GET /api/products/page?limit=50&sort=id|title&cursor=... -> any authenticated user
+    @GetMapping("/page")
+    public ResponseEntity<ProductPageResponse> getProductPage(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "sort", defaultValue = "id") String sort,
+            WebRequest request
+    ) {
+        ProductSort productSort = ProductSort.fromParam(sort);
+        return ConditionalGet.respond(request, productService.getCatalogEtag(),
+                () -> productService.getProductPage(cursor, limit, productSort));
+    }
+
+    // GET /api/products/export?format=ndjson|csv&gzip=true -> any authenticated user
+    // Streams the whole catalog from a database cursor; memory use does not depend on catalog size
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "gzip", defaultValue = "false") boolean gzip,
+            WebRequest request
+    ) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(productExportService.timeout().toMillis());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + exportFormat.fileExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(out -> productExportService.export(exportFormat, gzip, out));
     }
 
     // GET /api/products/{id}  -> any authenticated user
     @GetMapping("/{id}")
-    public ProductResponse getProductById(@PathVariable Long id) {
-        return productService.getProductById(id);
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id, WebRequest request) {
+        VersionedProduct product = productService.getVersionedProduct(id);
+        return ConditionalGet.respond(request, "product-" + id + "-" + product.version(), product::product);
     }
 
     // POST /api/products -> ADMIN or MANAGER only
@@ -81,14 +174,51 @@ public class ProductController {
 
     // GET /api/products/low-stock -> any authenticated user
     @GetMapping("/low-stock")
-    public List<ProductResponse> getLowStockProducts() {
-        return productService.getLowStockProducts();
+    public ResponseEntity<List<ProductResponse>> getLowStockProducts(WebRequest request) {
+        return ConditionalGet.respond(request, productService.getCatalogEtag(), productService::getLowStockProducts);
+    }
+
+    // GET /api/products/low-stock/page?limit=50&cursor=... -> any authenticated user
+    // Keyset pages ordered by shortfall (reorderThreshold - stock), biggest first
+    @GetMapping("/low-stock/page")
+    public ResponseEntity<ProductPageResponse> getLowStockPage(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            WebRequest request
+    ) {
+        return ConditionalGet.respond(request, productService.getCatalogEtag(),
+                () -> productService.getLowStockPage(cursor, limit));
     }
 
-    // GET /api/products/search?q=... -> any authenticated user
+    // GET /api/products/autocomplete?q=...&limit=10 -> any authenticated user
+    @GetMapping("/autocomplete")
+    public List<ProductSuggestion> autocomplete(
+            @RequestParam("q") String query,
+            @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        return productService.autocomplete(query, limit);
+    }
+
+    // GET /api/products/facets?q=... -> any authenticated user
+    // Category and brand counts for filter UIs, over the products the search query matches
+    // Tagged with the version the cached counts were computed under, not the current one
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsResponse> getFacets(
+            @RequestParam(name = "q", required = false) String query,
+            WebRequest request
+    ) {
+        ProductFacetService.Snapshot facets = productService.getFacets(query);
+        return ConditionalGet.respond(request, facets.etag(), facets::facets);
+    }
+
+    // GET /api/products/search?q=...&limit=50&offset=0 -> any authenticated user
     @GetMapping("/search")
-    public List<ProductResponse> searchProducts(@RequestParam("q") String query) {
-        return productService.searchProducts(query);
+    public List<ProductResponse> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "offset", required = false) Integer offset
+    ) {
+        return productService.searchProducts(query, limit, offset);
     }
 
 }
@@ -0,0 +1,36 @@
+package com.inventorypulse.inventorypulse_backend.controller;
+
+import com.inventorypulse.inventorypulse_backend.service.stream.StockStreamService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+public class StreamController {
+
+    private final StockStreamService stockStreamService;
+
+    // GET /api/stream?productId=1&productId=2&category=...&alertsOnly=true -> any authenticated user
+    // Server-sent events: product, product-deleted, alert and resync (refetch what you show).
+    // productId and category may repeat; without either, the whole catalog is streamed
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void stream(
+            @RequestParam(name = "productId", required = false) List<Long> productIds,
+            @RequestParam(name = "category", required = false) List<String> categories,
+            @RequestParam(name = "alertsOnly", defaultValue = "false") boolean alertsOnly,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        stockStreamService.subscribe(request, response, productIds, categories, alertsOnly);
+    }
+}
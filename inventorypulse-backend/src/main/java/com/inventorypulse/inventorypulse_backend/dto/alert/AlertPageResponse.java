@@ -0,0 +1,9 @@
+package com.inventorypulse.inventorypulse_backend.dto.alert;
+
+import java.util.List;
+
+public record AlertPageResponse(
+        List<AlertResponse> items,
+        // Opaque; pass back as ?cursor= to get the next page, or as "before" to mark the rest seen. Null on the last page.
+        String nextCursor
+) { }
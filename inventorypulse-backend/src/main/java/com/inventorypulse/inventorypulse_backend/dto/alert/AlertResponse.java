@@ -0,0 +1,14 @@
+package com.inventorypulse.inventorypulse_backend.dto.alert;
+
+import java.time.Instant;
+
+public record AlertResponse(
+        Long id,
+        Long productId,
+        String sku,
+        // An AlertType name for alerts raised by the stock alert engine
+        String type,
+        String message,
+        boolean seen,
+        Instant createdAt
+) { }
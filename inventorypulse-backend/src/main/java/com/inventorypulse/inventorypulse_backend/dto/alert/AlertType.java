@@ -0,0 +1,11 @@
+package com.inventorypulse.inventorypulse_backend.dto.alert;
+
+// Values stored in alerts.type by the stock alert engine
+public enum AlertType {
+    // Stock fell to or below the reorder threshold (but not to zero)
+    LOW_STOCK,
+    // Stock reached zero
+    OUT_OF_STOCK,
+    // Stock rose back above the reorder threshold after a LOW_STOCK or OUT_OF_STOCK alert
+    RECOVERED
+}
@@ -0,0 +1,11 @@
+package com.inventorypulse.inventorypulse_backend.dto.alert;
+
+import java.util.List;
+
+// Exactly one of the three selects the alerts to mark
+public record MarkAlertsSeenRequest(
+        List<Long> ids,
+        Long productId,
+        // A cursor from an inbox page: every alert older than the last one on that page
+        String before
+) { }
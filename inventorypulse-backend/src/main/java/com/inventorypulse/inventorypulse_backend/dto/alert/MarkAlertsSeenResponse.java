@@ -0,0 +1,7 @@
+package com.inventorypulse.inventorypulse_backend.dto.alert;
+
+public record MarkAlertsSeenResponse(
+        // Alerts that were unseen until this request; already seen ones are not counted
+        int marked,
+        long unseen
+) { }
@@ -0,0 +1,3 @@
+package com.inventorypulse.inventorypulse_backend.dto.alert;
+
+public record UnseenAlertCountResponse(long unseen) { }
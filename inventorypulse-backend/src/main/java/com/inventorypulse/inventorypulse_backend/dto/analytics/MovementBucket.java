@@ -0,0 +1,12 @@
+package com.inventorypulse.inventorypulse_backend.dto.analytics;
+
+import java.time.Instant;
+
+public record MovementBucket(
+        // Start of the hour or day (UTC)
+        Instant bucket,
+        // Sum of positive deltas, and of negative deltas as a positive number
+        long unitsIn,
+        long unitsOut,
+        long movements
+) { }
@@ -0,0 +1,44 @@
+package com.inventorypulse.inventorypulse_backend.dto.analytics;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Locale;
+
+public enum RollupGranularity {
+    // UTC hours; the name doubles as the date_trunc unit and the stored granularity
+    HOUR("hour", Duration.ofHours(1)),
+    // UTC days
+    DAY("day", Duration.ofDays(1));
+
+    private final String unit;
+    private final Duration bucketSize;
+
+    RollupGranularity(String unit, Duration bucketSize) {
+        this.unit = unit;
+        this.bucketSize = bucketSize;
+    }
+
+    public String unit() {
+        return unit;
+    }
+
+    public Duration bucketSize() {
+        return bucketSize;
+    }
+
+    public static RollupGranularity fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return DAY;
+        }
+        try {
+            return RollupGranularity.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Unknown granularity '" + value + "' (expected hour or day)"
+            );
+        }
+    }
+}
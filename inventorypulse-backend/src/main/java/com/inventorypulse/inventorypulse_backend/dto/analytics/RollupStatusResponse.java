@@ -0,0 +1,11 @@
+package com.inventorypulse.inventorypulse_backend.dto.analytics;
+
+import java.time.Instant;
+
+public record RollupStatusResponse(
+        // False until the first full build has finished (or while a rebuild runs)
+        boolean built,
+        // Last time the rollups took in new ledger rows; charts can lag the ledger by about the catch-up interval
+        Instant caughtUpAt,
+        Instant rebuiltAt
+) { }
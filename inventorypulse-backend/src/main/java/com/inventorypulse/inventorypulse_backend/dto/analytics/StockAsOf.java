@@ -0,0 +1,13 @@
+package com.inventorypulse.inventorypulse_backend.dto.analytics;
+
+import java.time.Instant;
+
+public record StockAsOf(
+        long productId,
+        String sku,
+        // Null when source is UNKNOWN
+        Integer stock,
+        StockAsOfSource source,
+        // Time of the movement or snapshot the figure was read from
+        Instant sourceAt
+) { }
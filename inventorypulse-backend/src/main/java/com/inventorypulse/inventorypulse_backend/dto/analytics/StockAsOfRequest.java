@@ -0,0 +1,13 @@
+package com.inventorypulse.inventorypulse_backend.dto.analytics;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+import java.util.List;
+
+public record StockAsOfRequest(
+        @NotNull Instant at,
+        // Unknown SKUs are left out of the response
+        @NotEmpty List<String> skus
+) { }
@@ -0,0 +1,11 @@
+package com.inventorypulse.inventorypulse_backend.dto.analytics;
+
+// Where a point-in-time stock figure came from
+public enum StockAsOfSource {
+    // resulting_stock of the product's last movement at or before the requested time
+    MOVEMENT,
+    // The last stock snapshot before that time, taken after the product's last movement
+    SNAPSHOT,
+    // Neither exists: no movement and no snapshot covers the product at that time
+    UNKNOWN
+}
@@ -0,0 +1,9 @@
+package com.inventorypulse.inventorypulse_backend.dto.analytics;
+
+import java.time.Instant;
+
+public record StockSnapshotResponse(
+        long id,
+        Instant takenAt,
+        long products
+) { }
@@ -0,0 +1,12 @@
+package com.inventorypulse.inventorypulse_backend.dto.inventory;
+
+import jakarta.validation.constraints.NotNull;
+
+public record BulkInventoryTransactionEntry(
+        // Identify the product by id or by SKU (id wins if both are given)
+        Long productId,
+        String sku,
+        @NotNull Integer delta,
+        String reason,
+        String externalReference
+) { }
@@ -0,0 +1,12 @@
+package com.inventorypulse.inventorypulse_backend.dto.inventory;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record BulkInventoryTransactionRequest(
+        // Defaults to ALL_OR_NOTHING when omitted
+        BulkTransactionMode mode,
+        @NotEmpty List<@Valid BulkInventoryTransactionEntry> entries
+) { }
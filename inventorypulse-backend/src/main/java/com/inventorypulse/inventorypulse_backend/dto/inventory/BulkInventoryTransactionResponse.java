@@ -0,0 +1,11 @@
+package com.inventorypulse.inventorypulse_backend.dto.inventory;
+
+import java.util.List;
+
+public record BulkInventoryTransactionResponse(
+        BulkTransactionMode mode,
+        boolean applied,
+        int appliedCount,
+        int rejectedCount,
+        List<BulkInventoryTransactionResult> results
+) { }
@@ -0,0 +1,10 @@
+package com.inventorypulse.inventorypulse_backend.dto.inventory;
+
+public record BulkInventoryTransactionResult(
+        int index,
+        // APPLIED (also for a retry, answered with the original transaction), REJECTED, or
+        // NOT_APPLIED when an all-or-nothing batch was rolled back
+        String status,
+        String message,
+        InventoryTransactionResponse transaction
+) { }
@@ -0,0 +1,8 @@
+package com.inventorypulse.inventorypulse_backend.dto.inventory;
+
+public enum BulkTransactionMode {
+    // Any rejected entry rolls back the whole batch
+    ALL_OR_NOTHING,
+    // Valid entries are applied, rejected ones are reported individually
+    BEST_EFFORT
+}
@@ -0,0 +1,15 @@
+package com.inventorypulse.inventorypulse_backend.dto.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+public record OutboxEvent(
+        // Increasing per product; consumers can drop an id they have already applied
+        long id,
+        long productId,
+        OutboxEventType type,
+        // JSON object, written as is
+        @JsonRawValue String payload,
+        Instant createdAt
+) { }
@@ -0,0 +1,12 @@
+package com.inventorypulse.inventorypulse_backend.dto.outbox;
+
+// Values stored in outbox_events.type
+public enum OutboxEventType {
+    // Payload: the product, as returned by GET /api/products/{id}
+    PRODUCT_CREATED,
+    PRODUCT_UPDATED,
+    // Payload: id and sku of the product that was deleted
+    PRODUCT_DELETED,
+    // Payload: the ledger row (transactionId, delta, resultingStock, ...) and the product's sku
+    STOCK_CHANGED
+}
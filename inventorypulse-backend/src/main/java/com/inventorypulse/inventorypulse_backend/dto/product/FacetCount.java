@@ -0,0 +1,10 @@
+package com.inventorypulse.inventorypulse_backend.dto.product;
+
+public record FacetCount(
+        // Category or brand; null groups the products that have none
+        String value,
+        long products,
+        long unitsInStock,
+        // Products at or below their reorder threshold
+        long lowStock
+) { }
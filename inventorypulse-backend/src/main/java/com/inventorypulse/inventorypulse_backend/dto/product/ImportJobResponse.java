@@ -0,0 +1,22 @@
+package com.inventorypulse.inventorypulse_backend.dto.product;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ImportJobResponse(
+        Long id,
+        String fileName,
+        String status,
+        String mode,
+        int totalRows,
+        int imported,
+        int skipped,
+        int updated,
+        int unchanged,
+        Double rowsPerSecond,
+        List<String> errorSamples,
+        String errorMessage,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt
+) { }
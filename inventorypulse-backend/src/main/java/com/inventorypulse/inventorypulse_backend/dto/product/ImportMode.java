@@ -0,0 +1,27 @@
+package com.inventorypulse.inventorypulse_backend.dto.product;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+public enum ImportMode {
+    // Only new SKUs are inserted; rows for existing SKUs are skipped
+    INSERT,
+    // New SKUs are inserted and existing SKUs are updated in place
+    UPSERT;
+
+    public static ImportMode fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return INSERT;
+        }
+        try {
+            return ImportMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Unknown import mode '" + value + "' (expected insert or upsert)"
+            );
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.inventorypulse.inventorypulse_backend.dto.product;
+
+import java.util.List;
+
+public record ProductFacetsResponse(
+        // Totals over every product the query matches (the whole catalog without one)
+        long products,
+        long unitsInStock,
+        long lowStock,
+        // Most products first, then by value
+        List<FacetCount> categories,
+        List<FacetCount> brands
+) { }
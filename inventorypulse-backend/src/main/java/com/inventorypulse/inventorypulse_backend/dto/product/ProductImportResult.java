@@ -1,7 +1,17 @@
 package com.inventorypulse.inventorypulse_backend.dto.product;
 
+/**
+ * Outcome of a CSV import. {@code imported} counts newly inserted products;
+ * {@code updated} and {@code unchanged} are only non-zero for upsert imports.
+ */
 public record ProductImportResult(
         int totalRows,
         int imported,
-        int skipped
-) { }
+        int skipped,
+        int updated,
+        int unchanged
+) {
+    public ProductImportResult(int totalRows, int imported, int skipped) {
+        this(totalRows, imported, skipped, 0, 0);
+    }
+}
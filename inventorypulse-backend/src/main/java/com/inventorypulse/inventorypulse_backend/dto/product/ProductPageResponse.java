@@ -0,0 +1,9 @@
+package com.inventorypulse.inventorypulse_backend.dto.product;
+
+import java.util.List;
+
+public record ProductPageResponse(
+        List<ProductResponse> items,
+        // Opaque; pass back as ?cursor= to get the next page. Null on the last page.
+        String nextCursor
+) { }
@@ -0,0 +1,27 @@
+package com.inventorypulse.inventorypulse_backend.dto.product;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+public enum ProductSort {
+    // Insertion order; the primary key is the keyset
+    ID,
+    // Alphabetical, ties broken by id so the order is total and stable
+    TITLE;
+
+    public static ProductSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        try {
+            return ProductSort.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Unknown sort '" + value + "' (expected id or title)"
+            );
+        }
+    }
+}
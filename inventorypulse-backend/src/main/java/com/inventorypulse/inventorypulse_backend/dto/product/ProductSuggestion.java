@@ -0,0 +1,8 @@
+package com.inventorypulse.inventorypulse_backend.dto.product;
+
+// One autocomplete entry: just enough to show the product and link to it
+public record ProductSuggestion(
+        Long id,
+        String sku,
+        String title
+) { }
@@ -0,0 +1,15 @@
+package com.inventorypulse.inventorypulse_backend.event;
+
+import com.inventorypulse.inventorypulse_backend.dto.alert.AlertResponse;
+
+import java.util.List;
+
+/**
+ * Published by the stock alert engine, on its own thread, once the alerts it raised in one batch
+ * have been committed. Alerts are in insertion (id) order.
+ */
+public record AlertsRaisedEvent(List<RaisedAlert> alerts) {
+
+    // The product's category at evaluation time rides along, so listeners can filter without a lookup
+    public record RaisedAlert(AlertResponse alert, String category) { }
+}
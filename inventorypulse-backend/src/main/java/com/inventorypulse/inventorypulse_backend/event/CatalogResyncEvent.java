@@ -0,0 +1,9 @@
+package com.inventorypulse.inventorypulse_backend.event;
+
+/**
+ * Published by the invalidation bus when this instance may have missed changes made by other
+ * instances, after its connection to the database dropped or when a burst was too large to
+ * name every product. State held in this instance that is derived from products must be
+ * rebuilt or dropped. Listeners run on the bus's thread.
+ */
+public record CatalogResyncEvent() { }
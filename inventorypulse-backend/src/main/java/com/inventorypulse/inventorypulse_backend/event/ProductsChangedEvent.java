@@ -0,0 +1,32 @@
+package com.inventorypulse.inventorypulse_backend.event;
+
+import java.util.Collection;
+
+/**
+ * Published whenever products are created, updated, deleted or imported, and whenever stock
+ * movements change their stock. Carries only ids: listeners re-read whatever they need, and an
+ * id that no longer exists means it was deleted. Listeners use
+ * {@code @TransactionalEventListener(fallbackExecution = true)}, so they only ever see committed
+ * state, and run on the committing thread before the write returns to its caller.
+ *
+ * Changes committed by other instances are republished here by the invalidation bus, with
+ * {@code remote} set, on the bus's own thread.
+ *
+ * @param stockOnly true when nothing but stock changed, so listeners that ignore stock can skip it
+ * @param remote true when another instance made the change; only state held in this instance
+ *               needs refreshing, everything else was done where the change was made
+ */
+public record ProductsChangedEvent(Collection<Long> productIds, boolean stockOnly, boolean remote) {
+
+    public ProductsChangedEvent(Collection<Long> productIds) {
+        this(productIds, false, false);
+    }
+
+    public static ProductsChangedEvent stockChanged(Collection<Long> productIds) {
+        return new ProductsChangedEvent(productIds, true, false);
+    }
+
+    public static ProductsChangedEvent fromOtherInstance(Collection<Long> productIds, boolean stockOnly) {
+        return new ProductsChangedEvent(productIds, stockOnly, true);
+    }
+}
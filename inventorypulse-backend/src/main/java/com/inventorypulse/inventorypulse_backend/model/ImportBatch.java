@@ -1,7 +1,10 @@
 package com.inventorypulse.inventorypulse_backend.model;
 
+import com.inventorypulse.inventorypulse_backend.dto.product.ImportMode;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -15,8 +18,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "import_batches")
@@ -27,7 +34,15 @@ import java.time.Instant;
 @Builder
 @ToString(exclude = "uploader")
 public class ImportBatch {
- @Id
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -43,4 +58,51 @@ public class ImportBatch {
 
     @Column(name = "created_at", insertable = false, updatable = false)
     private Instant createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.QUEUED;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private ImportMode mode = ImportMode.INSERT;
+
+    @Column(name = "total_rows", nullable = false)
+    private int totalRows;
+
+    @Column(nullable = false)
+    private int imported;
+
+    @Column(nullable = false)
+    private int skipped;
+
+    @Column(nullable = false)
+    private int updated;
+
+    @Column(nullable = false)
+    private int unchanged;
+
+    @Column(name = "rows_per_second")
+    private Double rowsPerSecond;
+
+    // First few rejected rows, e.g. "line 12: sku is required"
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "error_samples", columnDefinition = "jsonb")
+    @Builder.Default
+    private List<String> errorSamples = new ArrayList<>();
+
+    @Column(name = "error_message", columnDefinition = "text")
+    private String errorMessage;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    // Refreshed by the instance running the batch while it is QUEUED or RUNNING
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
 }
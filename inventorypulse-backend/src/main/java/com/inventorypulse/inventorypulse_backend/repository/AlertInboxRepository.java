@@ -0,0 +1,103 @@
+package com.inventorypulse.inventorypulse_backend.repository;
+
+import com.inventorypulse.inventorypulse_backend.dto.alert.AlertResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Alert inbox reads and acknowledgements, mapped straight into {@link AlertResponse}.
+ *
+ * Pages are ordered by id descending and seek with {@code id < ?}: unseen-only pages walk the
+ * partial {@code WHERE NOT seen} index, a product's pages the {@code (product_id, id DESC)} index
+ * (V14). Marking seen is one UPDATE per request whatever it selects, and skips alerts already
+ * seen, so repeating it rewrites nothing. The unseen count is read from {@code alert_counters},
+ * which triggers keep in step with every insert, update and delete on {@code alerts}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AlertInboxRepository {
+
+    // %s is the WHERE clause, possibly empty
+    private static final String PAGE_SQL = """
+            SELECT a.id, a.product_id, p.sku, a.type, a.message, a.seen, a.created_at
+            FROM alerts a JOIN products p ON p.id = a.product_id
+            %s
+            ORDER BY a.id DESC
+            LIMIT ?
+            """;
+
+    private static final String UNSEEN_COUNT_SQL = "SELECT unseen FROM alert_counters";
+
+    private static final String MARK_IDS_SQL = "UPDATE alerts SET seen = TRUE WHERE id = ANY(?) AND NOT seen";
+
+    private static final String MARK_PRODUCT_SQL = "UPDATE alerts SET seen = TRUE WHERE product_id = ? AND NOT seen";
+
+    private static final String MARK_BEFORE_SQL = "UPDATE alerts SET seen = TRUE WHERE id < ? AND NOT seen";
+
+    private static final RowMapper<AlertResponse> ALERT_ROW_MAPPER = (rs, rowNum) -> new AlertResponse(
+            rs.getLong("id"),
+            rs.getLong("product_id"),
+            rs.getString("sku"),
+            rs.getString("type"),
+            rs.getString("message"),
+            rs.getBoolean("seen"),
+            rs.getTimestamp("created_at").toInstant()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Newest-first alerts, optionally only unseen ones and only one product's. {@code afterId} is
+     * the last alert of the previous page, or null for the first page.
+     */
+    public List<AlertResponse> findPage(Long productId, boolean unseenOnly, Long afterId, int limit) {
+        List<String> predicates = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (productId != null) {
+            predicates.add("a.product_id = ?");
+            args.add(productId);
+        }
+        if (unseenOnly) {
+            predicates.add("NOT a.seen");
+        }
+        if (afterId != null) {
+            predicates.add("a.id < ?");
+            args.add(afterId);
+        }
+        args.add(limit);
+
+        String where = predicates.isEmpty() ? "" : "WHERE " + String.join(" AND ", predicates);
+        return jdbcTemplate.query(PAGE_SQL.formatted(where), ALERT_ROW_MAPPER, args.toArray());
+    }
+
+    public long countUnseen() {
+        Long unseen = jdbcTemplate.queryForObject(UNSEEN_COUNT_SQL, Long.class);
+        return unseen != null ? unseen : 0;
+    }
+
+    /** Marks the given alerts seen; returns how many were unseen. Missing ids are ignored. */
+    public int markSeen(Collection<Long> ids) {
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(MARK_IDS_SQL);
+            ps.setArray(1, con.createArrayOf("int8", ids.toArray()));
+            return ps;
+        });
+    }
+
+    // Every alert of one product
+    public int markSeenForProduct(long productId) {
+        return jdbcTemplate.update(MARK_PRODUCT_SQL, productId);
+    }
+
+    // Every alert raised before the given one
+    public int markSeenBefore(long id) {
+        return jdbcTemplate.update(MARK_BEFORE_SQL, id);
+    }
+}
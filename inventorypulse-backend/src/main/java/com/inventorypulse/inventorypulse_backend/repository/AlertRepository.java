@@ -8,10 +8,7 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface AlertRepository extends JpaRepository<Alert, Long> {
 
-    List<Alert> findBySeenFalseOrderByCreatedAtDesc();
-
-
-    List<Alert> findByProductIdAndSeenFalseOrderByCreatedAtDesc(Long productId);
+    List<Alert> findByProductIdAndSeenFalseOrderByIdDesc(Long productId);
 
 
     List<Alert> findByTypeOrderByCreatedAtDesc(String type);
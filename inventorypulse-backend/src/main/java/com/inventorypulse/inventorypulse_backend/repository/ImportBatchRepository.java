@@ -1,12 +1,84 @@
 package com.inventorypulse.inventorypulse_backend.repository;
 
 import com.inventorypulse.inventorypulse_backend.model.ImportBatch;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
  //Tracks CSV import batches. Useful for audit and preventing duplicate re-imports.
 @Repository
 public interface ImportBatchRepository extends JpaRepository<ImportBatch, Long> {
     Optional<ImportBatch> findByFileHash(String fileHash);
+
+    // Moves a queued batch to RUNNING; 0 if it is no longer queued (e.g. failed as stale meanwhile)
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE import_batches SET status = 'RUNNING', started_at = :now, heartbeat_at = :now
+            WHERE id = :id AND status = 'QUEUED'
+            """, nativeQuery = true)
+    int start(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Writes a running batch's progress, or its outcome when {@code status} is final. Returns 0
+     * once the batch is no longer RUNNING: {@link #failStale} may have failed it, and the same
+     * file may then be uploaded again, so its job must not bring it back.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE ImportBatch b SET
+                b.status = :status,
+                b.totalRows = :totalRows,
+                b.imported = :imported,
+                b.skipped = :skipped,
+                b.updated = :updated,
+                b.unchanged = :unchanged,
+                b.rowsPerSecond = :rowsPerSecond,
+                b.errorSamples = :errorSamples,
+                b.errorMessage = :errorMessage,
+                b.heartbeatAt = :now,
+                b.finishedAt = :finishedAt
+            WHERE b.id = :id
+              AND b.status = com.inventorypulse.inventorypulse_backend.model.ImportBatch.Status.RUNNING
+            """)
+    int updateRunning(
+            @Param("id") Long id,
+            @Param("status") ImportBatch.Status status,
+            @Param("totalRows") int totalRows,
+            @Param("imported") int imported,
+            @Param("skipped") int skipped,
+            @Param("updated") int updated,
+            @Param("unchanged") int unchanged,
+            @Param("rowsPerSecond") Double rowsPerSecond,
+            @Param("errorSamples") List<String> errorSamples,
+            @Param("errorMessage") String errorMessage,
+            @Param("now") Instant now,
+            @Param("finishedAt") Instant finishedAt
+    );
+
+    // Marks the given batches alive, as long as they are still queued or running
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE import_batches SET heartbeat_at = :now
+            WHERE id IN (:ids) AND status IN ('QUEUED', 'RUNNING')
+            """, nativeQuery = true)
+    int heartbeat(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    // Fails queued or running batches nobody has marked alive since the cutoff
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE import_batches SET status = 'FAILED', error_message = :message, finished_at = :now
+            WHERE status IN ('QUEUED', 'RUNNING') AND (heartbeat_at IS NULL OR heartbeat_at < :cutoff)
+            """, nativeQuery = true)
+    int failStale(@Param("cutoff") Instant cutoff, @Param("now") Instant now, @Param("message") String message);
 }
@@ -0,0 +1,261 @@
+package com.inventorypulse.inventorypulse_backend.repository;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Stock movements written with plain SQL instead of read-modify-write through JPA.
+ * Every method is one statement, so a batch costs a fixed number of round trips
+ * no matter how many entries it contains.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryBulkRepository {
+
+    // The guard is evaluated on the latest row version, so concurrent deltas can never drive stock below zero
+    private static final String ADJUST_STOCK_SQL = """
+            UPDATE products
+            SET stock = stock + ?
+            WHERE id = ? AND stock + ? >= 0
+            RETURNING stock
+            """;
+
+    private static final String CURRENT_STOCK_SQL = """
+            SELECT stock FROM products WHERE id = ?
+            """;
+
+    private static final String IDS_BY_SKU_SQL = """
+            SELECT id, sku FROM products WHERE sku = ANY(?)
+            """;
+
+    private static final String LOCK_STOCK_SQL = """
+            SELECT id, stock
+            FROM products
+            WHERE id = ANY(?)
+            ORDER BY id
+            FOR UPDATE
+            """;
+
+    private static final String TRANSACTIONS_BY_REFERENCE_SQL = """
+            SELECT id, product_id, delta, reason, external_reference, actor, created_at, resulting_stock
+            FROM inventory_transactions
+            WHERE external_reference = ANY(?)
+            """;
+
+    private static final String ALL_REFERENCES_SQL = """
+            SELECT external_reference FROM inventory_transactions WHERE external_reference IS NOT NULL
+            """;
+
+    private static final String SET_STOCK_SQL = """
+            UPDATE products p
+            SET stock = v.stock
+            FROM unnest(?::bigint[], ?::int[]) AS v(id, stock)
+            WHERE p.id = v.id
+            """;
+
+    // Rows are fed in input order, so the sequence hands out ascending ids in that same order
+    private static final String INSERT_TRANSACTIONS_SQL = """
+            INSERT INTO inventory_transactions (product_id, delta, reason, external_reference, actor, resulting_stock)
+            SELECT product_id, delta, reason, external_reference, actor, resulting_stock
+            FROM unnest(?::bigint[], ?::int[], ?::text[], ?::text[], ?::text[], ?::int[])
+                 WITH ORDINALITY AS t(product_id, delta, reason, external_reference, actor, resulting_stock, ord)
+            ORDER BY ord
+            RETURNING id, created_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record LedgerRow(
+            long productId,
+            int delta,
+            String reason,
+            String externalReference,
+            String actor,
+            int resultingStock
+    ) { }
+
+    public record InsertedTransaction(long id, Instant createdAt) { }
+
+    /**
+     * Applies {@code delta} to one product in a single conditional UPDATE. The row lock is held
+     * only for the rest of the surrounding transaction, with no read-modify-write in between.
+     *
+     * @return the new stock, or empty if the product does not exist or the stock would go negative
+     */
+    public Optional<Integer> adjustStock(long productId, int delta) {
+        List<Integer> stock = jdbcTemplate.queryForList(ADJUST_STOCK_SQL, Integer.class, delta, productId, delta);
+        return stock.stream().findFirst();
+    }
+
+    public Optional<Integer> findStock(long productId) {
+        return jdbcTemplate.queryForList(CURRENT_STOCK_SQL, Integer.class, productId).stream().findFirst();
+    }
+
+    public Map<String, Long> findIdsBySku(Collection<String> skus) {
+        Map<String, Long> ids = new HashMap<>();
+        if (skus.isEmpty()) {
+            return ids;
+        }
+
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(IDS_BY_SKU_SQL);
+                    ps.setArray(1, con.createArrayOf("text", skus.toArray(String[]::new)));
+                    return ps;
+                },
+                rs -> {
+                    ids.put(rs.getString("sku"), rs.getLong("id"));
+                }
+        );
+        return ids;
+    }
+
+    /**
+     * Reads the stock of the given products and row-locks them until the surrounding transaction
+     * ends. Rows are locked in id order so concurrent batches cannot deadlock each other.
+     *
+     * @return current stock by product id; ids that do not exist are absent
+     */
+    public Map<Long, Integer> lockStock(Collection<Long> productIds) {
+        Map<Long, Integer> stock = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return stock;
+        }
+
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(LOCK_STOCK_SQL);
+                    ps.setArray(1, con.createArrayOf("int8", productIds.toArray(Long[]::new)));
+                    return ps;
+                },
+                rs -> {
+                    stock.put(rs.getLong("id"), rs.getInt("stock"));
+                }
+        );
+        return stock;
+    }
+
+    // The transactions already recorded under any of the given references, by reference
+    public Map<String, InventoryTransactionResponse> findByExternalReferences(Collection<String> externalReferences) {
+        Map<String, InventoryTransactionResponse> existing = new HashMap<>();
+        if (externalReferences.isEmpty()) {
+            return existing;
+        }
+
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(TRANSACTIONS_BY_REFERENCE_SQL);
+                    ps.setArray(1, con.createArrayOf("text", externalReferences.toArray(String[]::new)));
+                    return ps;
+                },
+                rs -> {
+                    InventoryTransactionResponse tx = InventoryTransactionReadRepository.TRANSACTION_ROW_MAPPER.mapRow(rs, 0);
+                    existing.put(tx.externalReference(), tx);
+                }
+        );
+        return existing;
+    }
+
+    /**
+     * Streams every external reference in the ledger. Must run inside a transaction so the
+     * driver fetches in pages instead of materialising the whole column.
+     */
+    public void forEachExternalReference(Consumer<String> consumer) {
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(ALL_REFERENCES_SQL);
+                    ps.setFetchSize(10_000);
+                    return ps;
+                },
+                rs -> {
+                    consumer.accept(rs.getString(1));
+                }
+        );
+    }
+
+    /**
+     * Overwrites stock for several products in one UPDATE. Only safe while the rows are locked
+     * by {@link #lockStock}, since the new values were computed from the locked ones.
+     */
+    public void setStock(Map<Long, Integer> newStockById) {
+        if (newStockById.isEmpty()) {
+            return;
+        }
+
+        Long[] ids = newStockById.keySet().toArray(Long[]::new);
+        Integer[] stocks = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            stocks[i] = newStockById.get(ids[i]);
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(SET_STOCK_SQL);
+            ps.setArray(1, con.createArrayOf("int8", ids));
+            ps.setArray(2, con.createArrayOf("int4", stocks));
+            return ps;
+        });
+    }
+
+    /**
+     * Appends all ledger rows with a single INSERT.
+     *
+     * @return generated id and timestamp for each row, in the order of {@code rows}
+     */
+    public List<InsertedTransaction> insertTransactions(List<LedgerRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        int size = rows.size();
+        Long[] productIds = new Long[size];
+        Integer[] deltas = new Integer[size];
+        String[] reasons = new String[size];
+        String[] references = new String[size];
+        String[] actors = new String[size];
+        Integer[] resultingStocks = new Integer[size];
+
+        for (int i = 0; i < size; i++) {
+            LedgerRow row = rows.get(i);
+            productIds[i] = row.productId();
+            deltas[i] = row.delta();
+            reasons[i] = row.reason();
+            references[i] = row.externalReference();
+            actors[i] = row.actor();
+            resultingStocks[i] = row.resultingStock();
+        }
+
+        List<InsertedTransaction> inserted = new ArrayList<>(jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(INSERT_TRANSACTIONS_SQL);
+                    ps.setArray(1, con.createArrayOf("int8", productIds));
+                    ps.setArray(2, con.createArrayOf("int4", deltas));
+                    ps.setArray(3, con.createArrayOf("text", reasons));
+                    ps.setArray(4, con.createArrayOf("text", references));
+                    ps.setArray(5, con.createArrayOf("text", actors));
+                    ps.setArray(6, con.createArrayOf("int4", resultingStocks));
+                    return ps;
+                },
+                (rs, rowNum) -> new InsertedTransaction(
+                        rs.getLong("id"),
+                        rs.getTimestamp("created_at").toInstant()
+                )
+        ));
+
+        // RETURNING order is not guaranteed, id order is
+        inserted.sort(Comparator.comparingLong(InsertedTransaction::id));
+        return inserted;
+    }
+}
@@ -0,0 +1,97 @@
+package com.inventorypulse.inventorypulse_backend.repository;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transaction history reads mapped straight into {@link InventoryTransactionResponse}, like
+ * {@link ProductReadRepository} does for products.
+ *
+ * History is served by the {@code (product_id, created_at DESC, id DESC)} index (V9): the
+ * product and an optional time window bound the range, the keyset position seeks into it, and
+ * the index order is the page order, so a page costs one descent plus its own rows at any depth.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryTransactionReadRepository {
+
+    private static final String HISTORY_SQL = """
+            SELECT id, product_id, delta, reason, external_reference, actor, created_at, resulting_stock
+            FROM inventory_transactions
+            WHERE product_id = ?%s
+            ORDER BY created_at DESC, id DESC
+            LIMIT ?
+            """;
+
+    static final RowMapper<InventoryTransactionResponse> TRANSACTION_ROW_MAPPER = (rs, rowNum) ->
+            new InventoryTransactionResponse(
+                    rs.getLong("id"),
+                    rs.getLong("product_id"),
+                    rs.getInt("delta"),
+                    rs.getString("reason"),
+                    rs.getString("external_reference"),
+                    rs.getString("actor"),
+                    rs.getTimestamp("created_at").toInstant(),
+                    (Integer) rs.getObject("resulting_stock")
+            );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Newest-first history of one product. {@code from} (inclusive) and {@code to} (exclusive)
+     * bound {@code created_at} when set; {@code afterCreatedAt}/{@code afterId} is the last row
+     * of the previous page, or null for the first page.
+     */
+    public List<InventoryTransactionResponse> findHistoryPage(
+            long productId,
+            Instant from,
+            Instant to,
+            Instant afterCreatedAt,
+            Long afterId,
+            int limit
+    ) {
+        // Both the window end and the keyset position are upper bounds on created_at, and the index
+        // scan would start from either one, not necessarily the tighter. Only one is ever binding.
+        if (to != null && afterCreatedAt != null) {
+            if (afterCreatedAt.isBefore(to)) {
+                to = null;
+            } else {
+                afterCreatedAt = null;
+            }
+        }
+
+        StringBuilder predicates = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        args.add(productId);
+        if (from != null) {
+            predicates.append(" AND created_at >= ?");
+            args.add(utc(from));
+        }
+        if (to != null) {
+            predicates.append(" AND created_at < ?");
+            args.add(utc(to));
+        }
+        if (afterCreatedAt != null) {
+            predicates.append(" AND (created_at, id) < (?, ?)");
+            args.add(utc(afterCreatedAt));
+            args.add(afterId);
+        }
+        args.add(limit);
+
+        return jdbcTemplate.query(HISTORY_SQL.formatted(predicates), TRANSACTION_ROW_MAPPER, args.toArray());
+    }
+
+    // Bound as timestamptz, independent of the JVM's default time zone
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
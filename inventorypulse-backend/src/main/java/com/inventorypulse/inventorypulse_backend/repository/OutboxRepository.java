@@ -0,0 +1,176 @@
+package com.inventorypulse.inventorypulse_backend.repository;
+
+import com.inventorypulse.inventorypulse_backend.dto.outbox.OutboxEvent;
+import com.inventorypulse.inventorypulse_backend.dto.outbox.OutboxEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The transactional outbox (V13). Writers append events in the transaction that makes the change,
+ * so an event exists exactly when its change committed; the relay claims, publishes and deletes
+ * them.
+ *
+ * Events for one product must be published in id order. Every append runs while the writer holds
+ * the product's row lock, so a later change to the same product is always given a higher id and
+ * can only commit after the earlier one. A claim only takes products whose oldest event it can
+ * lock, and then that product's events from the oldest on, so two relays never split one
+ * product's events between them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    // Locks the products first: an UPDATE that changed nothing (or an insert) holds no lock of its
+    // own. The payload has the shape of ProductResponse.
+    private static final String APPEND_PRODUCT_CHANGES_SQL = """
+            WITH locked AS (
+                SELECT id, sku, title, description, brand, category, image_url, stock, reorder_threshold
+                FROM products
+                WHERE id = ANY(?)
+                ORDER BY id
+                FOR UPDATE
+            )
+            INSERT INTO outbox_events (product_id, type, payload)
+            SELECT id, ?, jsonb_build_object(
+                       'id', id, 'sku', sku, 'title', title, 'description', description, 'brand', brand,
+                       'category', category, 'imageUrl', image_url, 'stock', stock, 'reorderThreshold', reorder_threshold)
+            FROM locked
+            ORDER BY id
+            """;
+
+    // The DELETE that precedes this holds the row lock until commit
+    private static final String APPEND_PRODUCT_DELETED_SQL = """
+            INSERT INTO outbox_events (product_id, type, payload)
+            VALUES (?, 'PRODUCT_DELETED', jsonb_build_object('id', ?::bigint, 'sku', ?::text))
+            """;
+
+    // In ledger order; the stock UPDATE before the ledger insert holds the row lock
+    private static final String APPEND_STOCK_CHANGES_SQL = """
+            INSERT INTO outbox_events (product_id, type, payload)
+            SELECT t.product_id, 'STOCK_CHANGED', jsonb_build_object(
+                       'transactionId', t.id, 'productId', t.product_id, 'sku', p.sku, 'delta', t.delta,
+                       'resultingStock', t.resulting_stock, 'reason', t.reason,
+                       'externalReference', t.external_reference, 'actor', t.actor, 'createdAt', t.created_at)
+            FROM inventory_transactions t
+            JOIN products p ON p.id = t.product_id
+            WHERE t.id = ANY(?)
+            ORDER BY t.id
+            """;
+
+    // heads: among the oldest scan-window events, the oldest event of each product not already
+    // claimed by another relay (SKIP LOCKED). A product whose head is locked is skipped whole, since
+    // its later events have an older event in front of them. The outer query then takes those
+    // products' events in id order; events appended since are picked up by the next claim.
+    private static final String CLAIM_SQL = """
+            WITH oldest AS (
+                SELECT id FROM outbox_events ORDER BY id LIMIT ?
+            ), heads AS (
+                SELECT o.id, o.product_id
+                FROM outbox_events o
+                WHERE o.id IN (SELECT id FROM oldest)
+                  AND NOT EXISTS (
+                      SELECT 1 FROM outbox_events e WHERE e.product_id = o.product_id AND e.id < o.id)
+                ORDER BY o.id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            SELECT o.id, o.product_id, o.type, o.payload::text AS payload, o.created_at
+            FROM outbox_events o
+            WHERE o.product_id IN (SELECT product_id FROM heads)
+            ORDER BY o.id
+            LIMIT ?
+            """;
+
+    private static final String DELETE_SQL = """
+            DELETE FROM outbox_events WHERE id = ANY(?)
+            """;
+
+    // Two primary key lookups instead of a count: the id span is an upper bound on the pending
+    // events (rolled back appends leave gaps), which is close enough for a gauge
+    private static final String BACKLOG_SQL = """
+            SELECT (SELECT max(id) FROM outbox_events) - o.id + 1 AS pending, o.created_at AS oldest
+            FROM outbox_events o
+            ORDER BY o.id
+            LIMIT 1
+            """;
+
+    private static final RowMapper<OutboxEvent> EVENT_ROW_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"),
+            rs.getLong("product_id"),
+            OutboxEventType.valueOf(rs.getString("type")),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toInstant()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Backlog(long pending, Instant oldest) { }
+
+    // One PRODUCT_CREATED or PRODUCT_UPDATED event per product, with its current row as payload
+    public void appendProductChanges(OutboxEventType type, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(APPEND_PRODUCT_CHANGES_SQL);
+            ps.setArray(1, con.createArrayOf("int8", productIds.toArray(Long[]::new)));
+            ps.setString(2, type.name());
+            return ps;
+        });
+    }
+
+    public void appendProductDeleted(long productId, String sku) {
+        jdbcTemplate.update(APPEND_PRODUCT_DELETED_SQL, productId, productId, sku);
+    }
+
+    // One STOCK_CHANGED event per ledger row, built from the rows just inserted
+    public void appendStockChanges(Collection<Long> transactionIds) {
+        if (transactionIds.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(APPEND_STOCK_CHANGES_SQL);
+            ps.setArray(1, con.createArrayOf("int8", transactionIds.toArray(Long[]::new)));
+            return ps;
+        });
+    }
+
+    /**
+     * Locks up to {@code limit} events, in id order, for the rest of the surrounding transaction.
+     * Only looks at the oldest {@code scanWindow} events for products to take, so a claim costs
+     * the same however large the backlog is.
+     */
+    public List<OutboxEvent> claim(int limit, int scanWindow) {
+        return jdbcTemplate.query(CLAIM_SQL, EVENT_ROW_MAPPER, scanWindow, limit, limit);
+    }
+
+    public void delete(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_SQL);
+            ps.setArray(1, con.createArrayOf("int8", ids.toArray(Long[]::new)));
+            return ps;
+        });
+    }
+
+    // Empty when nothing is waiting
+    public Optional<Backlog> backlog() {
+        return jdbcTemplate.query(BACKLOG_SQL, (rs, rowNum) -> new Backlog(
+                rs.getLong("pending"),
+                rs.getTimestamp("oldest").toInstant()
+        )).stream().findFirst();
+    }
+}
@@ -0,0 +1,172 @@
+package com.inventorypulse.inventorypulse_backend.repository;
+
+import com.inventorypulse.inventorypulse_backend.dto.product.CreateProductRequest;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based product writes that bypass the JPA persistence context.
+ * Each call is a single statement, so a whole import chunk costs one round trip
+ * instead of one INSERT (plus one existence check) per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductBulkRepository {
+
+    private static final String INSERT_IGNORING_EXISTING_SQL = """
+            INSERT INTO products (sku, title, description, brand, category, image_url, stock, reorder_threshold)
+            SELECT sku, title, description, brand, category, image_url, coalesce(stock, 0), reorder_threshold
+            FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::int[], ?::int[])
+                AS input(sku, title, description, brand, category, image_url, stock, reorder_threshold)
+            ON CONFLICT (sku) DO NOTHING
+            RETURNING id
+            """;
+
+    // Conflicting rows are updated in place; xmax = 0 only holds for freshly inserted tuples.
+    // EXCLUDED.stock is already defaulted to 0, so a blank stock is looked up in the input itself:
+    // it must keep the stock of a product that exists, also one inserted after the rows were locked.
+    private static final String UPSERT_SQL = """
+            WITH input AS (
+                SELECT * FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::int[], ?::int[])
+                    AS input(sku, title, description, brand, category, image_url, stock, reorder_threshold)
+            )
+            INSERT INTO products AS p (sku, title, description, brand, category, image_url, stock, reorder_threshold)
+            SELECT sku, title, description, brand, category, image_url, coalesce(stock, 0), reorder_threshold
+            FROM input
+            ON CONFLICT (sku) DO UPDATE SET
+                title = EXCLUDED.title,
+                description = EXCLUDED.description,
+                brand = EXCLUDED.brand,
+                category = EXCLUDED.category,
+                image_url = EXCLUDED.image_url,
+                stock = CASE
+                    WHEN (SELECT input.stock FROM input WHERE input.sku = EXCLUDED.sku) IS NULL THEN p.stock
+                    ELSE EXCLUDED.stock
+                END,
+                reorder_threshold = EXCLUDED.reorder_threshold
+            RETURNING id, (xmax = 0) AS inserted
+            """;
+
+    private static final String LOCK_BY_SKU_SQL = """
+            SELECT id, sku, title, description, brand, category, image_url, stock, reorder_threshold
+            FROM products
+            WHERE sku = ANY(?)
+            ORDER BY id
+            FOR UPDATE
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record UpsertedRow(long id, boolean inserted) { }
+
+    /**
+     * Inserts all rows with one {@code INSERT ... SELECT FROM unnest(...)} statement; a null stock
+     * inserts 0. Rows whose SKU already exists (including ones committed concurrently) are left
+     * untouched.
+     *
+     * @return ids of the rows that were actually inserted
+     */
+    public List<Long> insertIgnoringExisting(List<CreateProductRequest> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(
+                con -> bindRows(con, INSERT_IGNORING_EXISTING_SQL, rows),
+                (rs, rowNum) -> rs.getLong(1)
+        );
+    }
+
+    /**
+     * Inserts new SKUs and overwrites existing ones with a single
+     * {@code INSERT ... ON CONFLICT (sku) DO UPDATE} statement.
+     * Rows must not repeat a SKU. A null stock inserts 0 for a new SKU and leaves the stock of an
+     * existing one as it is.
+     */
+    public List<UpsertedRow> upsert(List<CreateProductRequest> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(
+                con -> bindRows(con, UPSERT_SQL, rows),
+                (rs, rowNum) -> new UpsertedRow(rs.getLong("id"), rs.getBoolean("inserted"))
+        );
+    }
+
+    /**
+     * Loads the current state of the given SKUs and row-locks them until the surrounding
+     * transaction ends, so an upsert cannot overwrite a concurrent stock change with a stale value.
+     * Rows are locked in id order to avoid deadlocks between concurrent imports.
+     */
+    public Map<String, ProductResponse> lockExistingBySku(Collection<String> skus) {
+        Map<String, ProductResponse> bySku = new HashMap<>();
+        if (skus.isEmpty()) {
+            return bySku;
+        }
+
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(LOCK_BY_SKU_SQL);
+                    ps.setArray(1, textArray(con, skus.toArray(String[]::new)));
+                    return ps;
+                },
+                rs -> {
+                    ProductResponse product = ProductReadRepository.PRODUCT_ROW_MAPPER.mapRow(rs, 0);
+                    bySku.put(product.sku(), product);
+                }
+        );
+        return bySku;
+    }
+
+    private static PreparedStatement bindRows(Connection con, String sql, List<CreateProductRequest> rows)
+            throws SQLException {
+        int size = rows.size();
+        String[] skus = new String[size];
+        String[] titles = new String[size];
+        String[] descriptions = new String[size];
+        String[] brands = new String[size];
+        String[] categories = new String[size];
+        String[] imageUrls = new String[size];
+        Integer[] stocks = new Integer[size];
+        Integer[] thresholds = new Integer[size];
+
+        for (int i = 0; i < size; i++) {
+            CreateProductRequest row = rows.get(i);
+            skus[i] = row.sku();
+            titles[i] = row.title();
+            descriptions[i] = row.description();
+            brands[i] = row.brand();
+            categories[i] = row.category();
+            imageUrls[i] = row.imageUrl();
+            stocks[i] = row.stock();
+            thresholds[i] = row.reorderThreshold();
+        }
+
+        PreparedStatement ps = con.prepareStatement(sql);
+        ps.setArray(1, textArray(con, skus));
+        ps.setArray(2, textArray(con, titles));
+        ps.setArray(3, textArray(con, descriptions));
+        ps.setArray(4, textArray(con, brands));
+        ps.setArray(5, textArray(con, categories));
+        ps.setArray(6, textArray(con, imageUrls));
+        ps.setArray(7, con.createArrayOf("int4", stocks));
+        ps.setArray(8, con.createArrayOf("int4", thresholds));
+        return ps;
+    }
+
+    private static Array textArray(Connection con, String[] values) throws SQLException {
+        return con.createArrayOf("text", values);
+    }
+}
@@ -0,0 +1,294 @@
+package com.inventorypulse.inventorypulse_backend.repository;
+
+import com.inventorypulse.inventorypulse_backend.dto.product.FacetCount;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductFacetsResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Product reads that map rows straight into {@link ProductResponse}. Listings never need a managed
+ * entity, so none is built: no persistence-context entry, no snapshot for dirty checking, and only
+ * the columns the response carries are selected.
+ *
+ * The keyset, search and low-stock queries are written against the indexes that serve them
+ * (V6, V7); keep their predicates and ORDER BY expressions in sync with those migrations.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductReadRepository {
+
+    private static final String COLUMNS = "id, sku, title, description, brand, category, image_url, stock, reorder_threshold";
+
+    // Keyset pages: seek past the last row seen instead of OFFSET, so every page costs the same
+    private static final String PAGE_AFTER_ID_SQL =
+            "SELECT " + COLUMNS + " FROM products WHERE id > ? ORDER BY id LIMIT ?";
+
+    // Id order with an offset, for search without a query; the offset is capped by the caller
+    private static final String PAGE_BY_ID_OFFSET_SQL =
+            "SELECT " + COLUMNS + " FROM products ORDER BY id LIMIT ? OFFSET ?";
+
+    private static final String FIRST_PAGE_BY_TITLE_SQL =
+            "SELECT " + COLUMNS + " FROM products ORDER BY title, id LIMIT ?";
+
+    private static final String PAGE_AFTER_TITLE_SQL =
+            "SELECT " + COLUMNS + " FROM products WHERE (title, id) > (?, ?) ORDER BY title, id LIMIT ?";
+
+    private static final String FIND_BY_SKU_SQL =
+            "SELECT " + COLUMNS + " FROM products WHERE sku = ?";
+
+    // What search matches against; the GiST trigram index (V6) is built on this exact expression
+    private static final String SEARCH_TEXT = "(title || ' ' || sku || ' ' || coalesce(brand, ''))";
+
+    // Substring search over title, SKU and brand, best word match first. Filter and ordering both
+    // use the trigram index, which hands rows back nearest first, so only the requested page is
+    // ever read.
+    private static final String SEARCH_RANKED_SQL = """
+            SELECT %1$s FROM products
+            WHERE %2$s ILIKE ?
+            ORDER BY %2$s <->> ?
+            LIMIT ? OFFSET ?
+            """.formatted(COLUMNS, SEARCH_TEXT);
+
+    // Per-category and per-brand counts plus totals in one scan. GROUPING() has a bit set for each
+    // column rolled up in the row (category = 2, brand = 1), which tells the three grouping sets
+    // apart even where a category or brand is null.
+    private static final String FACETS_SQL = """
+            SELECT GROUPING(category, brand) AS rolled_up, category, brand,
+                   count(*) AS products,
+                   coalesce(sum(stock), 0) AS units,
+                   count(*) FILTER (WHERE stock <= reorder_threshold) AS low_stock
+            FROM products
+            %s
+            GROUP BY GROUPING SETS ((category), (brand), ())
+            ORDER BY products DESC, category, brand
+            """;
+
+    // The same counts over the whole catalog, kept by triggers (V16) so nothing is scanned
+    private static final String FACET_TOTALS_SQL = """
+            SELECT dimension, value, products, units, low_stock
+            FROM product_facet_totals
+            WHERE products > 0
+            ORDER BY products DESC, value
+            """;
+
+    // Products at or below their reorder threshold, biggest shortfall first, answered from the
+    // partial low-stock index (V7) so only low-stock rows are ever touched
+    private static final String LOW_STOCK_SQL = """
+            SELECT %s FROM products
+            WHERE stock <= reorder_threshold
+            ORDER BY (stock - reorder_threshold), id
+            """.formatted(COLUMNS);
+
+    // Keyset page of the above; the first parameter is the last row's stock - reorder_threshold
+    private static final String LOW_STOCK_PAGE_AFTER_SQL = """
+            SELECT %s FROM products
+            WHERE stock <= reorder_threshold
+              AND ((stock - reorder_threshold), id) > (?, ?)
+            ORDER BY (stock - reorder_threshold), id
+            LIMIT ?
+            """.formatted(COLUMNS);
+
+    private static final String FIND_BY_IDS_SQL =
+            "SELECT " + COLUMNS + " FROM products WHERE id = ANY(?)";
+
+    private static final String FIND_VERSIONED_BY_ID_SQL =
+            "SELECT " + COLUMNS + ", version FROM products WHERE id = ?";
+
+    private static final String FIND_VERSIONED_BY_IDS_SQL =
+            "SELECT " + COLUMNS + ", version FROM products WHERE id = ANY(?)";
+
+    private static final String STREAM_ALL_SQL =
+            "SELECT " + COLUMNS + " FROM products ORDER BY id";
+
+    private static final String STREAM_ALL_VERSIONED_SQL =
+            "SELECT " + COLUMNS + ", version FROM products ORDER BY id";
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    // Same shape as ProductService#toProductResponse, read straight from a result set
+    static final RowMapper<ProductResponse> PRODUCT_ROW_MAPPER = (rs, rowNum) -> new ProductResponse(
+            rs.getLong("id"),
+            rs.getString("sku"),
+            rs.getString("title"),
+            rs.getString("description"),
+            rs.getString("brand"),
+            rs.getString("category"),
+            rs.getString("image_url"),
+            rs.getInt("stock"),
+            rs.getInt("reorder_threshold")
+    );
+
+    private static final RowMapper<VersionedProduct> VERSIONED_ROW_MAPPER = (rs, rowNum) ->
+            new VersionedProduct(PRODUCT_ROW_MAPPER.mapRow(rs, rowNum), rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // A product together with its row version (V8), read in the same statement so they always match
+    public record VersionedProduct(ProductResponse product, long version) { }
+
+    public List<ProductResponse> findPageAfterId(long afterId, int limit) {
+        return jdbcTemplate.query(PAGE_AFTER_ID_SQL, PRODUCT_ROW_MAPPER, afterId, limit);
+    }
+
+    public List<ProductResponse> findPageById(int limit, int offset) {
+        return jdbcTemplate.query(PAGE_BY_ID_OFFSET_SQL, PRODUCT_ROW_MAPPER, limit, offset);
+    }
+
+    public List<ProductResponse> findFirstPageByTitle(int limit) {
+        return jdbcTemplate.query(FIRST_PAGE_BY_TITLE_SQL, PRODUCT_ROW_MAPPER, limit);
+    }
+
+    public List<ProductResponse> findPageAfterTitle(String title, long afterId, int limit) {
+        return jdbcTemplate.query(PAGE_AFTER_TITLE_SQL, PRODUCT_ROW_MAPPER, title, afterId, limit);
+    }
+
+    public Optional<ProductResponse> findBySku(String sku) {
+        return jdbcTemplate.query(FIND_BY_SKU_SQL, PRODUCT_ROW_MAPPER, sku).stream().findFirst();
+    }
+
+    public List<ProductResponse> searchRanked(String q, int limit, int offset) {
+        return jdbcTemplate.query(SEARCH_RANKED_SQL, PRODUCT_ROW_MAPPER, containing(q), q, limit, offset);
+    }
+
+    /**
+     * Facet counts over the products {@link #searchRanked} would match for {@code q},
+     * or over the whole catalog when {@code q} is null.
+     */
+    public ProductFacetsResponse aggregateFacets(String q) {
+        String sql = FACETS_SQL.formatted(q != null ? "WHERE " + SEARCH_TEXT + " ILIKE ?" : "");
+        Object[] args = q != null ? new Object[] { containing(q) } : new Object[0];
+
+        List<FacetCount> categories = new ArrayList<>();
+        List<FacetCount> brands = new ArrayList<>();
+        FacetCount[] total = { new FacetCount(null, 0, 0, 0) };
+        jdbcTemplate.query(sql, rs -> {
+            int rolledUp = rs.getInt("rolled_up");
+            FacetCount count = new FacetCount(
+                    switch (rolledUp) {
+                        case 1 -> rs.getString("category");
+                        case 2 -> rs.getString("brand");
+                        default -> null;
+                    },
+                    rs.getLong("products"),
+                    rs.getLong("units"),
+                    rs.getLong("low_stock")
+            );
+            switch (rolledUp) {
+                case 1 -> categories.add(count);
+                case 2 -> brands.add(count);
+                default -> total[0] = count;
+            }
+        }, args);
+
+        return new ProductFacetsResponse(
+                total[0].products(), total[0].unitsInStock(), total[0].lowStock(), categories, brands);
+    }
+
+    /** Whole-catalog facet counts as {@link #aggregateFacets} would compute them, read from their totals. */
+    public ProductFacetsResponse facetTotals() {
+        List<FacetCount> categories = new ArrayList<>();
+        List<FacetCount> brands = new ArrayList<>();
+        jdbcTemplate.query(FACET_TOTALS_SQL, rs -> {
+            FacetCount count = new FacetCount(
+                    rs.getString("value"),
+                    rs.getLong("products"),
+                    rs.getLong("units"),
+                    rs.getLong("low_stock")
+            );
+            ("category".equals(rs.getString("dimension")) ? categories : brands).add(count);
+        });
+
+        // Every product is in exactly one category row, products without one included
+        return new ProductFacetsResponse(
+                categories.stream().mapToLong(FacetCount::products).sum(),
+                categories.stream().mapToLong(FacetCount::unitsInStock).sum(),
+                categories.stream().mapToLong(FacetCount::lowStock).sum(),
+                categories,
+                brands
+        );
+    }
+
+    public List<ProductResponse> findLowStock() {
+        return jdbcTemplate.query(LOW_STOCK_SQL, PRODUCT_ROW_MAPPER);
+    }
+
+    public List<ProductResponse> findLowStockPageAfter(int afterBalance, long afterId, int limit) {
+        return jdbcTemplate.query(LOW_STOCK_PAGE_AFTER_SQL, PRODUCT_ROW_MAPPER, afterBalance, afterId, limit);
+    }
+
+    public Optional<VersionedProduct> findVersionedById(long id) {
+        return jdbcTemplate.query(FIND_VERSIONED_BY_ID_SQL, VERSIONED_ROW_MAPPER, id).stream().findFirst();
+    }
+
+    // Current state of the given products; ids that do not exist are simply missing from the result
+    public List<ProductResponse> findByIds(Collection<Long> ids) {
+        return queryByIds(FIND_BY_IDS_SQL, PRODUCT_ROW_MAPPER, ids);
+    }
+
+    // Same as findByIds, with each product's row version
+    public List<VersionedProduct> findVersionedByIds(Collection<Long> ids) {
+        return queryByIds(FIND_VERSIONED_BY_IDS_SQL, VERSIONED_ROW_MAPPER, ids);
+    }
+
+    /**
+     * Hands every product to {@code consumer} in id order from a forward-only, read-only cursor.
+     * Must run inside a transaction: only then does the PostgreSQL driver fetch in pages of
+     * {@value #STREAM_FETCH_SIZE} rows instead of buffering the whole result.
+     */
+    public void forEachProduct(Consumer<ProductResponse> consumer) {
+        stream(STREAM_ALL_SQL, PRODUCT_ROW_MAPPER, consumer);
+    }
+
+    // Same as forEachProduct, with each product's row version
+    public void forEachVersionedProduct(Consumer<VersionedProduct> consumer) {
+        stream(STREAM_ALL_VERSIONED_SQL, VERSIONED_ROW_MAPPER, consumer);
+    }
+
+    private <T> List<T> queryByIds(String sql, RowMapper<T> rowMapper, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(sql);
+                    ps.setArray(1, con.createArrayOf("int8", ids.toArray()));
+                    return ps;
+                },
+                rowMapper
+        );
+    }
+
+    private <T> void stream(String sql, RowMapper<T> rowMapper, Consumer<T> consumer) {
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(
+                            sql,
+                            ResultSet.TYPE_FORWARD_ONLY,
+                            ResultSet.CONCUR_READ_ONLY
+                    );
+                    ps.setFetchSize(STREAM_FETCH_SIZE);
+                    return ps;
+                },
+                rs -> {
+                    consumer.accept(rowMapper.mapRow(rs, 0));
+                }
+        );
+    }
+
+    // User input is matched literally, so LIKE wildcards in it must not act as wildcards
+    private static String containing(String q) {
+        return "%" + q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
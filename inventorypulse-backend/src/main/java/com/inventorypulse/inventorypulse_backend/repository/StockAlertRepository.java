@@ -0,0 +1,115 @@
+package com.inventorypulse.inventorypulse_backend.repository;
+
+import com.inventorypulse.inventorypulse_backend.dto.alert.AlertResponse;
+import com.inventorypulse.inventorypulse_backend.event.AlertsRaisedEvent.RaisedAlert;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based evaluation for the stock alert engine: compares the current stock level of a batch of
+ * products with the level recorded in {@code product_alert_states} (V12), records the new level
+ * and inserts an alert for every crossing, all in one statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockAlertRepository {
+
+    // Arbitrary key of the transaction lock that serializes evaluations across instances
+    private static final long ALERT_LOCK_KEY = 0x5707_0121L;
+
+    // %s filters products. previous and current are read from the same snapshot, before the
+    // upsert; the upsert only returns products whose level actually changed (or is new). A product
+    // seen for the first time counts as previously OK.
+    private static final String EVALUATE_SQL = """
+            WITH current AS (
+                SELECT id AS product_id, sku, title, category, stock, reorder_threshold,
+                       CASE WHEN stock <= 0 THEN 'OUT'
+                            WHEN stock <= reorder_threshold THEN 'LOW'
+                            ELSE 'OK' END AS level
+                FROM products
+                %s
+            ), previous AS (
+                SELECT s.product_id, s.level
+                FROM product_alert_states s JOIN current c ON c.product_id = s.product_id
+            ), changed AS (
+                INSERT INTO product_alert_states AS s (product_id, level, changed_at)
+                SELECT product_id, level, now() FROM current
+                ON CONFLICT (product_id) DO UPDATE SET level = EXCLUDED.level, changed_at = EXCLUDED.changed_at
+                WHERE s.level <> EXCLUDED.level
+                RETURNING s.product_id
+            ), crossings AS (
+                SELECT c.*,
+                       CASE WHEN c.level = 'OUT' THEN 'OUT_OF_STOCK'
+                            WHEN c.level = 'LOW' AND coalesce(p.level, 'OK') = 'OK' THEN 'LOW_STOCK'
+                            WHEN c.level = 'OK' AND p.level IN ('LOW', 'OUT') THEN 'RECOVERED'
+                       END AS type
+                FROM changed ch
+                JOIN current c ON c.product_id = ch.product_id
+                LEFT JOIN previous p ON p.product_id = ch.product_id
+            ), inserted AS (
+                INSERT INTO alerts (product_id, type, message)
+                SELECT product_id, type,
+                       CASE type
+                           WHEN 'OUT_OF_STOCK' THEN format('%%s (%%s) is out of stock', sku, title)
+                           WHEN 'LOW_STOCK' THEN format('%%s (%%s) is down to %%s, at or below its reorder threshold of %%s',
+                                                        sku, title, stock, reorder_threshold)
+                           ELSE format('%%s (%%s) is back to %%s, above its reorder threshold of %%s',
+                                       sku, title, stock, reorder_threshold)
+                       END
+                FROM crossings
+                WHERE type IS NOT NULL
+                ORDER BY product_id
+                RETURNING id, product_id, type, message, seen, created_at
+            )
+            SELECT i.*, c.sku, c.category
+            FROM inserted i JOIN current c ON c.product_id = i.product_id
+            ORDER BY i.id
+            """;
+
+    private static final String EVALUATE_IDS_SQL = EVALUATE_SQL.formatted("WHERE id = ANY(?)");
+
+    private static final String EVALUATE_ALL_SQL = EVALUATE_SQL.formatted("");
+
+    private static final RowMapper<RaisedAlert> RAISED_ALERT_ROW_MAPPER = (rs, rowNum) -> new RaisedAlert(
+            new AlertResponse(
+                    rs.getLong("id"),
+                    rs.getLong("product_id"),
+                    rs.getString("sku"),
+                    rs.getString("type"),
+                    rs.getString("message"),
+                    rs.getBoolean("seen"),
+                    rs.getTimestamp("created_at").toInstant()
+            ),
+            rs.getString("category")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Must run inside the transaction that evaluates, so two instances never judge the same change
+    public void lockForEvaluation() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(" + ALERT_LOCK_KEY + ")::text", String.class);
+    }
+
+    /** Evaluates the given products; returns every alert raised, in id order. Missing ids are ignored. */
+    public List<RaisedAlert> evaluate(Collection<Long> productIds) {
+        return jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(EVALUATE_IDS_SQL);
+                    ps.setArray(1, con.createArrayOf("int8", productIds.toArray()));
+                    return ps;
+                },
+                RAISED_ALERT_ROW_MAPPER
+        );
+    }
+
+    // Same over the whole catalog
+    public List<RaisedAlert> evaluateAll() {
+        return jdbcTemplate.query(EVALUATE_ALL_SQL, RAISED_ALERT_ROW_MAPPER);
+    }
+}
@@ -0,0 +1,227 @@
+package com.inventorypulse.inventorypulse_backend.repository;
+
+import com.inventorypulse.inventorypulse_backend.dto.analytics.MovementBucket;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.RollupGranularity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Hourly and daily stock movement rollups (V10) and the watermark that says how much of the
+ * ledger they contain.
+ *
+ * The watermark is a transaction id: every ledger row written by a transaction below it is in the
+ * rollups, every row written at or above it is not. Catching up reads the rows between the
+ * watermark and the oldest transaction still running, which by then have all committed or
+ * rolled back, so no row is ever counted twice or skipped, whatever order writers commit in.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockRollupRepository {
+
+    // Arbitrary key of the session advisory lock that serializes rollup writers across instances
+    private static final long ROLLUP_LOCK_KEY = 0x5707_0119L;
+
+    private static final String OLDEST_RUNNING_XID_SQL =
+            "SELECT pg_snapshot_xmin(pg_current_snapshot())::text";
+
+    // Rolls one watermark range into both tables. Rows are bucketed once per granularity, then
+    // grouped so each rollup row is upserted once; the category is the product's current one.
+    private static final String APPLY_RANGE_SQL = """
+            WITH delta AS (
+                SELECT t.product_id, coalesce(p.category, '') AS category, t.created_at, t.delta
+                FROM inventory_transactions t
+                JOIN products p ON p.id = t.product_id
+                WHERE t.txid >= ?::xid8 AND t.txid < ?::xid8
+            ), bucketed AS (
+                SELECT g.unit AS granularity, d.product_id, d.category,
+                       date_trunc(g.unit, d.created_at, 'UTC') AS bucket, d.delta
+                FROM delta d CROSS JOIN (VALUES ('hour'), ('day')) AS g(unit)
+            ), by_product AS (
+                INSERT INTO product_movement_rollups AS r
+                    (product_id, granularity, bucket, units_in, units_out, movements)
+                SELECT product_id, granularity, bucket,
+                       sum(greatest(delta, 0)), sum(greatest(-delta, 0)), count(*)
+                FROM bucketed
+                GROUP BY product_id, granularity, bucket
+                ON CONFLICT (product_id, granularity, bucket) DO UPDATE SET
+                    units_in = r.units_in + EXCLUDED.units_in,
+                    units_out = r.units_out + EXCLUDED.units_out,
+                    movements = r.movements + EXCLUDED.movements
+            ), by_category AS (
+                INSERT INTO category_movement_rollups AS r
+                    (category, granularity, bucket, units_in, units_out, movements)
+                SELECT category, granularity, bucket,
+                       sum(greatest(delta, 0)), sum(greatest(-delta, 0)), count(*)
+                FROM bucketed
+                GROUP BY category, granularity, bucket
+                ON CONFLICT (category, granularity, bucket) DO UPDATE SET
+                    units_in = r.units_in + EXCLUDED.units_in,
+                    units_out = r.units_out + EXCLUDED.units_out,
+                    movements = r.movements + EXCLUDED.movements
+            )
+            SELECT count(*) FROM delta
+            """;
+
+    // Full rebuild of one product-id range into emptied tables; NULL txids predate V10. Returns
+    // the ledger rows read, which every granularity counts once.
+    private static final String REBUILD_PRODUCT_RANGE_SQL = """
+            WITH inserted AS (
+                INSERT INTO product_movement_rollups (product_id, granularity, bucket, units_in, units_out, movements)
+                SELECT t.product_id, g.unit, date_trunc(g.unit, t.created_at, 'UTC'),
+                       sum(greatest(t.delta, 0)), sum(greatest(-t.delta, 0)), count(*)
+                FROM inventory_transactions t CROSS JOIN (VALUES ('hour'), ('day')) AS g(unit)
+                WHERE t.product_id >= ? AND t.product_id < ?
+                  AND (t.txid IS NULL OR t.txid < ?::xid8)
+                GROUP BY t.product_id, g.unit, date_trunc(g.unit, t.created_at, 'UTC')
+                RETURNING granularity, movements
+            )
+            SELECT coalesce(sum(movements) FILTER (WHERE granularity = 'day'), 0) FROM inserted
+            """;
+
+    // Categories are sums of their products' rollups, so they never need a second ledger pass
+    private static final String REBUILD_CATEGORIES_SQL = """
+            INSERT INTO category_movement_rollups (category, granularity, bucket, units_in, units_out, movements)
+            SELECT coalesce(p.category, ''), r.granularity, r.bucket,
+                   sum(r.units_in), sum(r.units_out), sum(r.movements)
+            FROM product_movement_rollups r
+            JOIN products p ON p.id = r.product_id
+            GROUP BY coalesce(p.category, ''), r.granularity, r.bucket
+            """;
+
+    private static final String PRODUCT_SERIES_SQL = """
+            SELECT bucket, units_in, units_out, movements
+            FROM product_movement_rollups
+            WHERE product_id = ? AND granularity = ? AND bucket >= ? AND bucket < ?
+            ORDER BY bucket
+            """;
+
+    private static final String CATEGORY_SERIES_SQL = """
+            SELECT bucket, units_in, units_out, movements
+            FROM category_movement_rollups
+            WHERE category = ? AND granularity = ? AND bucket >= ? AND bucket < ?
+            ORDER BY bucket
+            """;
+
+    private static final RowMapper<MovementBucket> BUCKET_ROW_MAPPER = (rs, rowNum) -> new MovementBucket(
+            rs.getTimestamp("bucket").toInstant(),
+            rs.getLong("units_in"),
+            rs.getLong("units_out"),
+            rs.getLong("movements")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // watermark is null until the first full build has finished
+    public record RollupState(String watermark, Instant caughtUpAt, Instant rebuiltAt) { }
+
+    /**
+     * Runs {@code work} while holding the rollup lock, or returns empty at once if another run (on
+     * any instance) holds it; waiting would only park a pooled connection behind work that makes
+     * ours unnecessary. The lock belongs to a connection of its own, so {@code work} is free to run
+     * its own transactions; it is released when the connection closes, even if this process dies.
+     */
+    public <T> Optional<T> tryWithRollupLock(Supplier<T> work) {
+        return jdbcTemplate.execute((ConnectionCallback<Optional<T>>) con -> {
+            try (Statement statement = con.createStatement()) {
+                try (ResultSet locked = statement.executeQuery("SELECT pg_try_advisory_lock(" + ROLLUP_LOCK_KEY + ")")) {
+                    if (!locked.next() || !locked.getBoolean(1)) {
+                        return Optional.empty();
+                    }
+                }
+                try {
+                    return Optional.of(work.get());
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(" + ROLLUP_LOCK_KEY + ")");
+                }
+            }
+        });
+    }
+
+    public RollupState findState() {
+        return jdbcTemplate.queryForObject(
+                "SELECT watermark::text AS watermark, caught_up_at, rebuilt_at FROM stock_rollup_state WHERE id = 1",
+                (rs, rowNum) -> new RollupState(
+                        rs.getString("watermark"),
+                        toInstant(rs.getTimestamp("caught_up_at")),
+                        toInstant(rs.getTimestamp("rebuilt_at"))
+                )
+        );
+    }
+
+    // Every transaction below this id has finished; ledger rows below it can no longer appear
+    public String oldestRunningXid() {
+        return jdbcTemplate.queryForObject(OLDEST_RUNNING_XID_SQL, String.class);
+    }
+
+    /** Adds the ledger rows written by transactions in [fromXid, toXid); returns how many. */
+    public long applyRange(String fromXid, String toXid) {
+        Long rows = jdbcTemplate.queryForObject(APPLY_RANGE_SQL, Long.class, fromXid, toXid);
+        return rows != null ? rows : 0;
+    }
+
+    public void advanceWatermark(String watermark) {
+        jdbcTemplate.update(
+                "UPDATE stock_rollup_state SET watermark = ?::xid8, caught_up_at = now() WHERE id = 1",
+                watermark
+        );
+    }
+
+    // Start of a rebuild: until it finishes, the state says the rollups are not built
+    public void clearForRebuild() {
+        jdbcTemplate.update("UPDATE stock_rollup_state SET watermark = NULL WHERE id = 1");
+        jdbcTemplate.execute("TRUNCATE product_movement_rollups, category_movement_rollups");
+    }
+
+    // [min, max] of product ids, or null when there are no products
+    public long[] productIdBounds() {
+        return jdbcTemplate.queryForObject(
+                "SELECT min(id), max(id) FROM products",
+                (rs, rowNum) -> rs.getObject(1) == null ? null : new long[] { rs.getLong(1), rs.getLong(2) }
+        );
+    }
+
+    /** Rolls up the products in [fromId, toIdExclusive) from scratch; returns the ledger rows read. */
+    public long rebuildProductRange(long fromId, long toIdExclusive, String belowXid) {
+        Long rows = jdbcTemplate.queryForObject(REBUILD_PRODUCT_RANGE_SQL, Long.class, fromId, toIdExclusive, belowXid);
+        return rows != null ? rows : 0;
+    }
+
+    public void finishRebuild(String watermark) {
+        jdbcTemplate.update(REBUILD_CATEGORIES_SQL);
+        jdbcTemplate.update(
+                "UPDATE stock_rollup_state SET watermark = ?::xid8, caught_up_at = now(), rebuilt_at = now() WHERE id = 1",
+                watermark
+        );
+    }
+
+    public List<MovementBucket> findProductSeries(long productId, RollupGranularity granularity, Instant from, Instant to) {
+        return jdbcTemplate.query(PRODUCT_SERIES_SQL, BUCKET_ROW_MAPPER,
+                productId, granularity.unit(), utc(from), utc(to));
+    }
+
+    public List<MovementBucket> findCategorySeries(String category, RollupGranularity granularity, Instant from, Instant to) {
+        return jdbcTemplate.query(CATEGORY_SERIES_SQL, BUCKET_ROW_MAPPER,
+                category, granularity.unit(), utc(from), utc(to));
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
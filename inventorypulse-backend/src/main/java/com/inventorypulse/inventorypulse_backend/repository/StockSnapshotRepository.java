@@ -0,0 +1,185 @@
+package com.inventorypulse.inventorypulse_backend.repository;
+
+import com.inventorypulse.inventorypulse_backend.dto.analytics.StockAsOf;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.StockAsOfSource;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.StockSnapshotResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Stock snapshots (V11) and the point-in-time stock queries built on them.
+ *
+ * Stock as of T for a product is the more recent of two candidates: {@code resulting_stock} of
+ * its last movement at or before T (one probe of the V9 history index), and its row in the last
+ * snapshot taken at or before T (one primary-key probe). The movement is the more recent exactly
+ * when the snapshot did not see it. Work per product is therefore two index probes, whatever the
+ * size of its ledger, and a catalog-wide query is one pass over products.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockSnapshotRepository {
+
+    // Arbitrary key of the transaction lock that stops instances taking the same scheduled snapshot
+    private static final long SNAPSHOT_LOCK_KEY = 0x5707_0120L;
+
+    // One statement, so the product rows and the recorded MVCC snapshot are read at the same moment
+    private static final String TAKE_SNAPSHOT_SQL = """
+            WITH run AS (
+                SELECT nextval(pg_get_serial_sequence('stock_snapshot_runs', 'id')) AS id
+            ), copied AS (
+                INSERT INTO stock_snapshots (run_id, product_id, stock)
+                SELECT run.id, p.id, p.stock FROM run, products p
+                RETURNING 1
+            )
+            INSERT INTO stock_snapshot_runs (id, taken_at, visible, products)
+            SELECT run.id, statement_timestamp(), pg_current_snapshot(), (SELECT count(*) FROM copied)
+            FROM run
+            RETURNING id, taken_at, products
+            """;
+
+    // %s filters products; the first two parameters are both the as-of time. A movement without
+    // txid predates snapshots (V10), so pg_visible_in_snapshot yields NULL and the snapshot wins.
+    private static final String AS_OF_SQL = """
+            WITH run AS (
+                SELECT id, taken_at, visible FROM stock_snapshot_runs
+                WHERE taken_at <= ?
+                ORDER BY taken_at DESC
+                LIMIT 1
+            )
+            SELECT p.id, p.sku,
+                   CASE
+                       WHEN m.resulting_stock IS NOT NULL
+                            AND (s.stock IS NULL OR NOT pg_visible_in_snapshot(m.txid, run.visible))
+                           THEN 'MOVEMENT'
+                       WHEN s.stock IS NOT NULL THEN 'SNAPSHOT'
+                       ELSE 'UNKNOWN'
+                   END AS source,
+                   m.resulting_stock AS movement_stock, m.created_at AS moved_at,
+                   s.stock AS snapshot_stock, run.taken_at
+            FROM products p
+            LEFT JOIN run ON true
+            LEFT JOIN stock_snapshots s ON s.run_id = run.id AND s.product_id = p.id
+            LEFT JOIN LATERAL (
+                SELECT t.resulting_stock, t.created_at, t.txid
+                FROM inventory_transactions t
+                WHERE t.product_id = p.id AND t.created_at <= ?
+                ORDER BY t.created_at DESC, t.id DESC
+                LIMIT 1
+            ) m ON true
+            %s
+            """;
+
+    private static final String AS_OF_BY_SKUS_SQL = AS_OF_SQL.formatted("WHERE p.sku = ANY(?) ORDER BY p.sku");
+
+    private static final String AS_OF_ALL_SQL = AS_OF_SQL.formatted("ORDER BY p.id");
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final RowMapper<StockAsOf> AS_OF_ROW_MAPPER = (rs, rowNum) -> {
+        StockAsOfSource source = StockAsOfSource.valueOf(rs.getString("source"));
+        return switch (source) {
+            case MOVEMENT -> new StockAsOf(rs.getLong("id"), rs.getString("sku"),
+                    rs.getInt("movement_stock"), source, toInstant(rs.getTimestamp("moved_at")));
+            case SNAPSHOT -> new StockAsOf(rs.getLong("id"), rs.getString("sku"),
+                    rs.getInt("snapshot_stock"), source, toInstant(rs.getTimestamp("taken_at")));
+            case UNKNOWN -> new StockAsOf(rs.getLong("id"), rs.getString("sku"), null, source, null);
+        };
+    };
+
+    private static final RowMapper<StockSnapshotResponse> RUN_ROW_MAPPER = (rs, rowNum) -> new StockSnapshotResponse(
+            rs.getLong("id"),
+            rs.getTimestamp("taken_at").toInstant(),
+            rs.getLong("products")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockSnapshotResponse takeSnapshot() {
+        return jdbcTemplate.queryForObject(TAKE_SNAPSHOT_SQL, RUN_ROW_MAPPER);
+    }
+
+    /**
+     * Transaction-scoped lock for taking a scheduled snapshot; false if another instance holds it.
+     * Must run inside the transaction that takes the snapshot.
+     */
+    public boolean tryLockForSnapshot() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(" + SNAPSHOT_LOCK_KEY + ")", Boolean.class));
+    }
+
+    public Optional<Instant> findLatestTakenAt() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "SELECT max(taken_at) FROM stock_snapshot_runs",
+                (rs, rowNum) -> toInstant(rs.getTimestamp(1))
+        ));
+    }
+
+    public List<StockSnapshotResponse> findRuns() {
+        return jdbcTemplate.query(
+                "SELECT id, taken_at, products FROM stock_snapshot_runs ORDER BY taken_at DESC",
+                RUN_ROW_MAPPER
+        );
+    }
+
+    // Snapshot rows go with their run; returns how many runs were deleted
+    public int deleteRunsTakenBefore(Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM stock_snapshot_runs WHERE taken_at < ?", utc(cutoff));
+    }
+
+    public List<StockAsOf> findAsOf(Instant at, Collection<String> skus) {
+        return jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(AS_OF_BY_SKUS_SQL);
+                    ps.setObject(1, utc(at));
+                    ps.setObject(2, utc(at));
+                    ps.setArray(3, con.createArrayOf("text", skus.toArray()));
+                    return ps;
+                },
+                AS_OF_ROW_MAPPER
+        );
+    }
+
+    /**
+     * Hands every product's stock as of {@code at} to {@code consumer} in id order. Must run
+     * inside a transaction so the driver pages through the cursor instead of buffering it all.
+     */
+    public void forEachAsOf(Instant at, Consumer<StockAsOf> consumer) {
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(
+                            AS_OF_ALL_SQL,
+                            ResultSet.TYPE_FORWARD_ONLY,
+                            ResultSet.CONCUR_READ_ONLY
+                    );
+                    ps.setFetchSize(STREAM_FETCH_SIZE);
+                    ps.setObject(1, utc(at));
+                    ps.setObject(2, utc(at));
+                    return ps;
+                },
+                rs -> {
+                    consumer.accept(AS_OF_ROW_MAPPER.mapRow(rs, 0));
+                }
+        );
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,321 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkInventoryTransactionEntry;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkInventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkInventoryTransactionResponse;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkInventoryTransactionResult;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkTransactionMode;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionResponse;
+import com.inventorypulse.inventorypulse_backend.event.ProductsChangedEvent;
+import com.inventorypulse.inventorypulse_backend.repository.InventoryBulkRepository;
+import com.inventorypulse.inventorypulse_backend.repository.OutboxRepository;
+import com.inventorypulse.inventorypulse_backend.service.idempotency.TransactionIdempotencyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies many inventory transactions in one database transaction.
+ *
+ * Regardless of the batch size this costs a handful of statements: resolve SKUs, look up
+ * already-used external references, lock the affected product rows (in id order), then one
+ * set-based stock UPDATE and one multi-row ledger INSERT. Entries are evaluated in request
+ * order against a running stock per product, so several movements for the same product
+ * behave exactly as if they had been posted one after another.
+ *
+ * External references are idempotent as for single movements (see
+ * {@link TransactionIdempotencyService}): an entry whose reference is already recorded for the
+ * same product and delta is reported APPLIED with the original transaction and not applied
+ * again, so a retried batch gets its original results back. Only a reference reused for a
+ * different movement is rejected.
+ */
+@Service
+@RequiredArgsConstructor
+public class BulkInventoryTransactionService {
+
+    public static final String APPLIED = "APPLIED";
+    public static final String REJECTED = "REJECTED";
+    public static final String NOT_APPLIED = "NOT_APPLIED";
+
+    // A reference committed concurrently fails the insert; the next attempt finds it as an original
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final InventoryBulkRepository inventoryBulkRepository;
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryPulseProperties properties;
+    private final TransactionIdempotencyService idempotencyService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BulkInventoryTransactionResponse applyBatch(BulkInventoryTransactionRequest request, String actor) {
+        List<BulkInventoryTransactionEntry> entries = request.entries();
+        BulkTransactionMode mode = request.mode() != null ? request.mode() : BulkTransactionMode.ALL_OR_NOTHING;
+
+        int maxBatchSize = properties.getInventory().getMaxBatchSize();
+        if (entries.size() > maxBatchSize) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "A batch may contain at most " + maxBatchSize + " entries"
+            );
+        }
+
+        String[] rejections = validateEntries(entries);
+
+        BulkInventoryTransactionResponse response = null;
+        for (int attempt = 1; response == null; attempt++) {
+            boolean afterConflict = attempt > 1;
+            String[] attemptRejections = rejections.clone();
+            try {
+                response = transactionTemplate.execute(status -> apply(entries, mode, attemptRejections, actor, afterConflict));
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw new ResponseStatusException(
+                            HttpStatus.CONFLICT,
+                            "An external reference in this batch was used concurrently, retry the batch"
+                    );
+                }
+            }
+        }
+
+        // Let single-movement retries of these references be answered from memory
+        for (BulkInventoryTransactionResult result : response.results()) {
+            if (result.transaction() != null) {
+                idempotencyService.remember(result.transaction());
+            }
+        }
+        return response;
+    }
+
+    // Checks that need no database access; returns a rejection message per entry (null = ok so far)
+    private String[] validateEntries(List<BulkInventoryTransactionEntry> entries) {
+        String[] rejections = new String[entries.size()];
+        Set<String> seenReferences = new HashSet<>();
+
+        for (int i = 0; i < entries.size(); i++) {
+            BulkInventoryTransactionEntry entry = entries.get(i);
+
+            if (entry.delta() == null || entry.delta() == 0) {
+                rejections[i] = "delta must be non-zero";
+            } else if (entry.productId() == null && isBlank(entry.sku())) {
+                rejections[i] = "productId or sku is required";
+            } else if (!isBlank(entry.externalReference()) && !seenReferences.add(entry.externalReference())) {
+                rejections[i] = "External reference '" + entry.externalReference() + "' is repeated in this batch";
+            }
+        }
+        return rejections;
+    }
+
+    private BulkInventoryTransactionResponse apply(
+            List<BulkInventoryTransactionEntry> entries,
+            BulkTransactionMode mode,
+            String[] rejections,
+            String actor,
+            boolean afterConflict
+    ) {
+        int size = entries.size();
+        Long[] productIds = resolveProductIds(entries, rejections);
+        InventoryTransactionResponse[] replayed = findReplays(entries, productIds, rejections, afterConflict);
+
+        Set<Long> idsToLock = new HashSet<>();
+        boolean anyReplayed = false;
+        for (int i = 0; i < size; i++) {
+            if (rejections[i] == null && replayed[i] == null) {
+                idsToLock.add(productIds[i]);
+            }
+            anyReplayed |= replayed[i] != null;
+        }
+
+        Map<Long, Integer> runningStock = inventoryBulkRepository.lockStock(idsToLock);
+
+        int[] resultingStock = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (rejections[i] != null || replayed[i] != null) {
+                continue;
+            }
+            BulkInventoryTransactionEntry entry = entries.get(i);
+            Integer current = runningStock.get(productIds[i]);
+
+            if (current == null) {
+                rejections[i] = "Product with id " + productIds[i] + " not found";
+            } else if (current + entry.delta() < 0) {
+                rejections[i] = "Stock cannot be negative (current: " + current +
+                        ", delta: " + entry.delta() + ")";
+            } else {
+                resultingStock[i] = current + entry.delta();
+                runningStock.put(productIds[i], resultingStock[i]);
+            }
+        }
+
+        boolean anyRejected = false;
+        for (String rejection : rejections) {
+            anyRejected |= rejection != null;
+        }
+
+        // Nothing has been written yet, so "rolling back" an all-or-nothing batch is just not writing
+        if (anyRejected && mode == BulkTransactionMode.ALL_OR_NOTHING) {
+            List<BulkInventoryTransactionResult> results = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                if (rejections[i] != null) {
+                    results.add(new BulkInventoryTransactionResult(i, REJECTED, rejections[i], null));
+                } else if (replayed[i] != null) {
+                    // Applied by the earlier request, and stays applied
+                    results.add(new BulkInventoryTransactionResult(i, APPLIED, null, replayed[i]));
+                } else {
+                    results.add(new BulkInventoryTransactionResult(i, NOT_APPLIED,
+                            "Batch rolled back because other entries were rejected", null));
+                }
+            }
+            return toResponse(mode, false, results);
+        }
+
+        List<InventoryBulkRepository.LedgerRow> ledger = new ArrayList<>(size);
+        Map<Long, Integer> finalStock = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (rejections[i] == null && replayed[i] == null) {
+                BulkInventoryTransactionEntry entry = entries.get(i);
+                ledger.add(new InventoryBulkRepository.LedgerRow(
+                        productIds[i],
+                        entry.delta(),
+                        entry.reason(),
+                        blankToNull(entry.externalReference()),
+                        actor,
+                        resultingStock[i]
+                ));
+                finalStock.put(productIds[i], resultingStock[i]);
+            }
+        }
+
+        inventoryBulkRepository.setStock(finalStock);
+        List<InventoryBulkRepository.InsertedTransaction> inserted = inventoryBulkRepository.insertTransactions(ledger);
+        outboxRepository.appendStockChanges(inserted.stream().map(InventoryBulkRepository.InsertedTransaction::id).toList());
+        eventPublisher.publishEvent(ProductsChangedEvent.stockChanged(List.copyOf(finalStock.keySet())));
+
+        List<BulkInventoryTransactionResult> results = new ArrayList<>(size);
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            if (rejections[i] != null) {
+                results.add(new BulkInventoryTransactionResult(i, REJECTED, rejections[i], null));
+                continue;
+            }
+            if (replayed[i] != null) {
+                results.add(new BulkInventoryTransactionResult(i, APPLIED, null, replayed[i]));
+                continue;
+            }
+            InventoryBulkRepository.LedgerRow row = ledger.get(next);
+            InventoryBulkRepository.InsertedTransaction tx = inserted.get(next);
+            next++;
+
+            results.add(new BulkInventoryTransactionResult(i, APPLIED, null, new InventoryTransactionResponse(
+                    tx.id(),
+                    row.productId(),
+                    row.delta(),
+                    row.reason(),
+                    row.externalReference(),
+                    row.actor(),
+                    tx.createdAt(),
+                    row.resultingStock()
+            )));
+        }
+        return toResponse(mode, !ledger.isEmpty() || anyReplayed, results);
+    }
+
+    /**
+     * The original transaction of every entry that repeats an earlier movement; entries reusing a
+     * reference for a different movement are rejected instead.
+     */
+    private InventoryTransactionResponse[] findReplays(
+            List<BulkInventoryTransactionEntry> entries,
+            Long[] productIds,
+            String[] rejections,
+            boolean afterConflict
+    ) {
+        InventoryTransactionResponse[] replayed = new InventoryTransactionResponse[entries.size()];
+        List<String> references = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (rejections[i] == null && !isBlank(entries.get(i).externalReference())) {
+                references.add(entries.get(i).externalReference());
+            }
+        }
+        if (references.isEmpty()) {
+            return replayed;
+        }
+
+        Map<String, InventoryTransactionResponse> originals = idempotencyService.findOriginals(references, afterConflict);
+        for (int i = 0; i < entries.size(); i++) {
+            BulkInventoryTransactionEntry entry = entries.get(i);
+            InventoryTransactionResponse original = rejections[i] == null ? originals.get(entry.externalReference()) : null;
+            if (original == null) {
+                continue;
+            }
+            if (idempotencyService.isRetryOf(productIds[i], entry.delta(), original)) {
+                replayed[i] = original;
+            } else {
+                rejections[i] = TransactionIdempotencyService.reuseMessage(original);
+            }
+        }
+        return replayed;
+    }
+
+    // Entries given by SKU are mapped to ids with one query; productId wins when both are present
+    private Long[] resolveProductIds(List<BulkInventoryTransactionEntry> entries, String[] rejections) {
+        Set<String> skus = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (rejections[i] == null && entries.get(i).productId() == null) {
+                skus.add(entries.get(i).sku());
+            }
+        }
+
+        Map<String, Long> idsBySku = skus.isEmpty() ? new HashMap<>() : inventoryBulkRepository.findIdsBySku(skus);
+
+        Long[] productIds = new Long[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            if (rejections[i] != null) {
+                continue;
+            }
+            BulkInventoryTransactionEntry entry = entries.get(i);
+            productIds[i] = entry.productId() != null ? entry.productId() : idsBySku.get(entry.sku());
+            if (productIds[i] == null) {
+                rejections[i] = "Product with SKU '" + entry.sku() + "' not found";
+            }
+        }
+        return productIds;
+    }
+
+    private BulkInventoryTransactionResponse toResponse(
+            BulkTransactionMode mode,
+            boolean applied,
+            List<BulkInventoryTransactionResult> results
+    ) {
+        int appliedCount = 0;
+        int rejectedCount = 0;
+        for (BulkInventoryTransactionResult result : results) {
+            if (APPLIED.equals(result.status())) {
+                appliedCount++;
+            } else if (REJECTED.equals(result.status())) {
+                rejectedCount++;
+            }
+        }
+        return new BulkInventoryTransactionResponse(mode, applied, appliedCount, rejectedCount, results);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String blankToNull(String value) {
+        return isBlank(value) ? null : value;
+    }
+}
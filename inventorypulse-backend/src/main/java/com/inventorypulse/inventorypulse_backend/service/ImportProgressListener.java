@@ -0,0 +1,18 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductImportResult;
+
+/**
+ * Receives progress from {@link ProductImportService} while an upload is being streamed.
+ * Callbacks run on the importing thread, once per written chunk.
+ */
+public interface ImportProgressListener {
+
+    ImportProgressListener NONE = new ImportProgressListener() { };
+
+    // Running totals after each chunk has been committed
+    default void onProgress(ProductImportResult runningTotals) { }
+
+    // A row that was rejected before reaching the database (line numbers include the header)
+    default void onRejectedRow(long lineNumber, String reason) { }
+}
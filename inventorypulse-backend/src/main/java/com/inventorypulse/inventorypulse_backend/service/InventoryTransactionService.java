@@ -1,38 +1,88 @@
 package com.inventorypulse.inventorypulse_backend.service;
 
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
 import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
 import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionResponse;
-import com.inventorypulse.inventorypulse_backend.model.InventoryTransaction;
-import com.inventorypulse.inventorypulse_backend.model.Product;
-import com.inventorypulse.inventorypulse_backend.repository.InventoryTransactionsRepository;
-import com.inventorypulse.inventorypulse_backend.repository.ProductRepository;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.TransactionPageResponse;
+import com.inventorypulse.inventorypulse_backend.event.ProductsChangedEvent;
+import com.inventorypulse.inventorypulse_backend.repository.InventoryBulkRepository;
+import com.inventorypulse.inventorypulse_backend.repository.InventoryTransactionReadRepository;
+import com.inventorypulse.inventorypulse_backend.repository.OutboxRepository;
+import com.inventorypulse.inventorypulse_backend.service.cache.ProductCache;
+import com.inventorypulse.inventorypulse_backend.service.idempotency.TransactionIdempotencyService;
+import com.inventorypulse.inventorypulse_backend.service.paging.TimeBounds;
+import com.inventorypulse.inventorypulse_backend.service.paging.TransactionCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class InventoryTransactionService {
 
-    private final InventoryTransactionsRepository transactionsRepository;
-    private final ProductRepository productRepository;
+    private final InventoryTransactionReadRepository transactionReadRepository;
+    private final ProductCache productCache;
+    private final InventoryBulkRepository inventoryBulkRepository;
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StockMovementCoalescer stockMovementCoalescer;
+    private final TransactionIdempotencyService idempotencyService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryPulseProperties properties;
+
+    // Every ledger write also changes the product's stock, so the product's row version covers its history
+    public long getHistoryVersion(Long productId) {
+        return productCache.getVersioned(productId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Product with id " + productId + " not found"
+                ))
+                .version();
+    }
 
-    public List<InventoryTransactionResponse> getRecentTransactionsForProduct(Long productId, int limit) {
-        // Ensure product exists
-        if (!productRepository.existsById(productId)) {
+    /**
+     * One keyset page of a product's history, newest first, optionally limited to
+     * {@code from} (inclusive) .. {@code to} (exclusive). Bounds are ISO-8601 instants or dates
+     * (midnight UTC). Every page costs the same, however far back the client has paged.
+     * Does not look the product up: callers resolve it once, with {@link #getHistoryVersion}.
+     */
+    public TransactionPageResponse getTransactionPage(
+            Long productId,
+            String cursor,
+            String from,
+            String to,
+            int limit
+    ) {
+        int maxPageSize = properties.getInventory().getMaxHistoryPageSize();
+        if (limit < 1 || limit > maxPageSize) {
             throw new ResponseStatusException(
-                    HttpStatus.NOT_FOUND,
-                    "Product with id " + productId + " not found"
+                    HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + maxPageSize
             );
         }
 
-        return transactionsRepository.findRecentForProduct(productId, limit)
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        TransactionCursor after = cursor != null ? TransactionCursor.decode(cursor) : null;
+        // One extra row tells us whether another page exists without a COUNT
+        List<InventoryTransactionResponse> rows = transactionReadRepository.findHistoryPage(
+                productId,
+                TimeBounds.parse("from", from),
+                TimeBounds.parse("to", to),
+                after != null ? after.createdAt() : null,
+                after != null ? after.id() : null,
+                limit + 1
+        );
+
+        boolean hasMore = rows.size() > limit;
+        List<InventoryTransactionResponse> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? TransactionCursor.after(items.get(items.size() - 1)).encode() : null;
+        return new TransactionPageResponse(items, nextCursor);
     }
 
     public InventoryTransactionResponse createTransaction(Long productId, InventoryTransactionRequest request, String actor
@@ -44,72 +94,79 @@ public class InventoryTransactionService {
             );
         }
 
-        if (request.externalReference() != null &&
-                !request.externalReference().isBlank() &&
-                transactionsRepository.existsByExternalReference(request.externalReference())) {
+        // A blank reference means "none"; storing "" would make every later blank one a duplicate
+        String reference = request.externalReference() == null || request.externalReference().isBlank()
+                ? null
+                : request.externalReference();
+        InventoryTransactionRequest movement = new InventoryTransactionRequest(request.delta(), request.reason(), reference);
 
-            throw new ResponseStatusException(
-                    HttpStatus.CONFLICT,
-                    "Transaction with external reference '" +
-                            request.externalReference() + "' already exists"
-            );
+        // Retries are answered with the original transaction, usually without touching the database
+        Optional<InventoryTransactionResponse> original = idempotencyService.findOriginal(reference);
+        if (original.isPresent()) {
+            return idempotencyService.replay(productId, request.delta(), original.get());
         }
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Product with id " + productId + " not found"
-                ));
-
-        int currentStock = product.getStock() != null ? product.getStock() : 0;
-        int newStock = currentStock + request.delta();
-
-        if (newStock < 0) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Stock cannot be negative (current: " + currentStock +
-                            ", delta: " + request.delta() + ")"
-            );
+        InventoryTransactionResponse created;
+        try {
+            created = stockMovementCoalescer.isEnabled()
+                    ? stockMovementCoalescer.submit(productId, movement, actor)
+                    : transactionTemplate.execute(status -> applyTransaction(productId, movement, actor));
+        } catch (DataIntegrityViolationException ex) {
+            if (reference == null) {
+                throw ex;
+            }
+            // The reference was taken after all (concurrent retry, or written by another instance)
+            return idempotencyService.replay(productId, request.delta(), idempotencyService.originalAfterConflict(reference));
         }
 
-        // Update stock
-        product.setStock(newStock);
-        productRepository.save(product);
-
-        // Create transaction; createdAt is handled by DB
-        InventoryTransaction tx = InventoryTransaction.builder()
-                .product(product)
-                .delta(request.delta())
-                .reason(request.reason())
-                .externalReference(request.externalReference())
-                .actor(actor)
-                .resultingStock(newStock)
-                .build();
+        idempotencyService.remember(created);
+        return created;
+    }
 
-        InventoryTransaction saved = transactionsRepository.save(tx);
+    /**
+     * Stock changes with one conditional UPDATE instead of load/modify/save, so concurrent
+     * movements on the same product cannot overwrite each other and the non-negative check
+     * cannot be raced. The ledger row and its outbox event are written in the same transaction.
+     */
+    private InventoryTransactionResponse applyTransaction(Long productId, InventoryTransactionRequest request, String actor) {
+        Integer newStock = inventoryBulkRepository.adjustStock(productId, request.delta())
+                .orElseThrow(() -> rejectAdjustment(productId, request.delta()));
+
+        InventoryBulkRepository.LedgerRow row = new InventoryBulkRepository.LedgerRow(
+                productId,
+                request.delta(),
+                request.reason(),
+                request.externalReference(),
+                actor,
+                newStock
+        );
+        InventoryBulkRepository.InsertedTransaction saved = inventoryBulkRepository.insertTransactions(List.of(row)).get(0);
+        outboxRepository.appendStockChanges(List.of(saved.id()));
+        eventPublisher.publishEvent(ProductsChangedEvent.stockChanged(List.of(productId)));
 
         return new InventoryTransactionResponse(
-                saved.getId(),
-                product.getId(),
-                saved.getDelta(),
-                saved.getReason(),
-                saved.getExternalReference(),
-                saved.getActor(),
-                saved.getCreatedAt(),   // populated by DB
-                saved.getResultingStock()
+                saved.id(),
+                productId,
+                row.delta(),
+                row.reason(),
+                row.externalReference(),
+                row.actor(),
+                saved.createdAt(),
+                newStock
         );
     }
 
-    private InventoryTransactionResponse toResponse(InventoryTransaction tx) {
-        return new InventoryTransactionResponse(
-                tx.getId(),
-                tx.getProduct().getId(),
-                tx.getDelta(),
-                tx.getReason(),
-                tx.getExternalReference(),
-                tx.getActor(),
-                tx.getCreatedAt(),
-                tx.getResultingStock()
-        );
+    // The conditional UPDATE matched nothing: tell "no such product" apart from "not enough stock"
+    private ResponseStatusException rejectAdjustment(Long productId, int delta) {
+        return inventoryBulkRepository.findStock(productId)
+                .map(currentStock -> new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "Stock cannot be negative (current: " + currentStock +
+                                ", delta: " + delta + ")"
+                ))
+                .orElseGet(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Product with id " + productId + " not found"
+                ));
     }
 }
@@ -0,0 +1,157 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.product.ExportFormat;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.repository.ProductReadRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the full catalog from a forward-only database cursor straight into an output stream.
+ *
+ * Memory use is one fetch page of rows plus the writer buffers, independent of catalog size.
+ * The whole export is a single SELECT, so it reflects one consistent snapshot; it runs in a
+ * read-only transaction because that is what lets the driver page through the cursor.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER =
+            "sku,title,description,brand,category,imageUrl,stock,reorderThreshold,id\n";
+
+    private final ProductReadRepository productReadRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final InventoryPulseProperties properties;
+
+    // Exports run far longer than the container's default async timeout, which stays as it is for everything else
+    public Duration timeout() {
+        return properties.getProducts().getExportTimeout();
+    }
+
+    public void export(ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        try {
+            switch (format) {
+                case NDJSON -> writeNdjson(writer);
+                case CSV -> writeCsv(writer);
+            }
+        } catch (UncheckedIOException ex) {
+            // Typically the client went away; the read transaction has already been rolled back
+            throw ex.getCause();
+        }
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+    }
+
+    private void writeNdjson(Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null); // lines are separated by our own newline
+        // The default flushes the writer after every product, i.e. one HTTP chunk per row
+        ObjectWriter productWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        streamProducts(product -> {
+            productWriter.writeValue(generator, product);
+            generator.writeRaw('\n');
+        });
+        generator.flush();
+    }
+
+    private void writeCsv(Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+
+        streamProducts(product -> {
+            writeCsvField(writer, product.sku());
+            writer.write(',');
+            writeCsvField(writer, product.title());
+            writer.write(',');
+            writeCsvField(writer, product.description());
+            writer.write(',');
+            writeCsvField(writer, product.brand());
+            writer.write(',');
+            writeCsvField(writer, product.category());
+            writer.write(',');
+            writeCsvField(writer, product.imageUrl());
+            writer.write(',');
+            writer.write(String.valueOf(product.stock()));
+            writer.write(',');
+            writer.write(String.valueOf(product.reorderThreshold()));
+            writer.write(',');
+            writer.write(String.valueOf(product.id()));
+            writer.write('\n');
+        });
+    }
+
+    // Quotes whenever the CSV importer would otherwise split, unescape or trim the value
+    public static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        boolean needsQuotes = value.charAt(0) <= ' ' || value.charAt(value.length() - 1) <= ' ';
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private void streamProducts(ProductWriter productWriter) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            productReadRepository.forEachProduct(product -> {
+                try {
+                    productWriter.write(product);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        });
+    }
+
+    @FunctionalInterface
+    private interface ProductWriter {
+        void write(ProductResponse product) throws IOException;
+    }
+}
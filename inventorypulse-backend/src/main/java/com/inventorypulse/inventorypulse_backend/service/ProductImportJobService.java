@@ -0,0 +1,307 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.product.ImportJobResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ImportMode;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductImportResult;
+import com.inventorypulse.inventorypulse_backend.model.ImportBatch;
+import com.inventorypulse.inventorypulse_backend.repository.ImportBatchRepository;
+import com.inventorypulse.inventorypulse_backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs CSV imports as background jobs recorded in {@code import_batches}.
+ *
+ * The upload is staged to a temp file (hashing it on the way) so the request thread returns
+ * as soon as the job is queued. A file whose SHA-256 matches an earlier, non-failed batch is
+ * rejected before any product rows are touched.
+ *
+ * While a job is queued or running here, its batch is marked alive every
+ * {@code inventorypulse.imports.heartbeat-interval}. The same task fails batches that no instance
+ * has marked for {@code stale-after}: their instance stopped or crashed, taking the queue and the
+ * staged file with it, and the file could otherwise never be uploaded again. A job writes its
+ * progress and outcome only while its batch is RUNNING, and stops once that is no longer so,
+ * so a failed batch stays failed while its file is uploaded again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportJobService {
+
+    private final ImportBatchRepository importBatchRepository;
+    private final UserRepository userRepository;
+    private final ProductImportService productImportService;
+    private final ThreadPoolTaskExecutor importTaskExecutor;
+    private final ThreadPoolTaskScheduler importHeartbeatScheduler;
+    private final InventoryPulseProperties properties;
+
+    // Batches queued or running on this instance
+    private final Set<Long> ownBatches = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startHeartbeat() {
+        importHeartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, properties.getImports().getHeartbeatInterval());
+    }
+
+    private void heartbeat() {
+        Instant now = Instant.now();
+        Duration staleAfter = properties.getImports().getStaleAfter();
+        try {
+            List<Long> own = List.copyOf(ownBatches);
+            if (!own.isEmpty()) {
+                importBatchRepository.heartbeat(own, now);
+            }
+            int failed = importBatchRepository.failStale(now.minus(staleAfter), now,
+                    "Import was interrupted (no progress for " + staleAfter.toSeconds() + "s); upload the file again");
+            if (failed > 0) {
+                log.warn("Failed {} import job(s) whose instance stopped reporting", failed);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Import job heartbeat failed", ex);
+        }
+    }
+
+    public ImportJobResponse submit(MultipartFile file, ImportMode mode, String uploaderEmail) {
+        StagedUpload upload = stage(file);
+
+        try {
+            ImportBatch batch = createBatch(file.getOriginalFilename(), upload.fileHash(), mode, uploaderEmail);
+
+            ownBatches.add(batch.getId());
+            try {
+                importTaskExecutor.execute(() -> run(batch.getId(), upload.path()));
+            } catch (TaskRejectedException ex) {
+                ownBatches.remove(batch.getId());
+                batch.setStatus(ImportBatch.Status.FAILED);
+                batch.setErrorMessage("Import queue is full");
+                batch.setFinishedAt(Instant.now());
+                importBatchRepository.save(batch);
+                throw new ResponseStatusException(
+                        HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many imports in progress, try again later"
+                );
+            }
+
+            return toResponse(batch);
+        } catch (RuntimeException ex) {
+            deleteQuietly(upload.path());
+            throw ex;
+        }
+    }
+
+    public ImportJobResponse getJob(Long jobId) {
+        ImportBatch batch = importBatchRepository.findById(jobId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Import job with id " + jobId + " not found"
+                ));
+        return toResponse(batch);
+    }
+
+    private ImportBatch createBatch(String fileName, String fileHash, ImportMode mode, String uploaderEmail) {
+        Optional<ImportBatch> existing = importBatchRepository.findByFileHash(fileHash);
+
+        // Failed batches may be retried with the same file; anything else is a duplicate upload
+        if (existing.isPresent() && existing.get().getStatus() != ImportBatch.Status.FAILED) {
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "This file was already imported (job " + existing.get().getId() + ")"
+            );
+        }
+
+        ImportBatch batch = existing.orElseGet(ImportBatch::new);
+        batch.setFileName(fileName);
+        batch.setFileHash(fileHash);
+        batch.setUploader(userRepository.findByEmail(uploaderEmail).orElse(null));
+        batch.setStatus(ImportBatch.Status.QUEUED);
+        batch.setMode(mode);
+        batch.setTotalRows(0);
+        batch.setImported(0);
+        batch.setSkipped(0);
+        batch.setUpdated(0);
+        batch.setUnchanged(0);
+        batch.setRowsPerSecond(null);
+        batch.setErrorSamples(new ArrayList<>());
+        batch.setErrorMessage(null);
+        batch.setStartedAt(null);
+        batch.setFinishedAt(null);
+        batch.setHeartbeatAt(Instant.now());
+
+        try {
+            return importBatchRepository.saveAndFlush(batch);
+        } catch (DataIntegrityViolationException ex) {
+            // Same file submitted concurrently; file_hash is unique
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "This file is already being imported");
+        }
+    }
+
+    private void run(Long batchId, Path file) {
+        try {
+            ImportBatch batch = importBatchRepository.findById(batchId).orElse(null);
+            Instant startedAt = Instant.now();
+            if (batch == null || importBatchRepository.start(batchId, startedAt) == 0) {
+                log.warn("Import job {} is no longer queued, not running it", batchId);
+                return;
+            }
+
+            JobProgress progress = new JobProgress(batchId, startedAt);
+
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                ProductImportResult result = productImportService.importFromCsv(reader, batch.getMode(), progress);
+                progress.finish(result, ImportBatch.Status.COMPLETED, null);
+            } catch (BatchNoLongerRunningException ex) {
+                // Chunks written so far stay; the batch already says the import did not finish
+                log.warn("Import job {} stopped, its batch was failed meanwhile", batchId);
+            } catch (Exception ex) {
+                log.warn("Import job {} failed", batchId, ex);
+                progress.finish(null, ImportBatch.Status.FAILED, ex.getMessage());
+            }
+        } finally {
+            ownBatches.remove(batchId);
+            deleteQuietly(file);
+        }
+    }
+
+    private StagedUpload stage(MultipartFile file) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            Path path = Files.createTempFile("product-import-", ".csv");
+
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest);
+                 OutputStream out = Files.newOutputStream(path)) {
+                in.transferTo(out);
+            } catch (IOException ex) {
+                deleteQuietly(path);
+                throw ex;
+            }
+
+            return new StagedUpload(path, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            throw new RuntimeException("Failed to stage CSV upload", ex);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete staged import file {}", path, ex);
+        }
+    }
+
+    private ImportJobResponse toResponse(ImportBatch batch) {
+        return new ImportJobResponse(
+                batch.getId(),
+                batch.getFileName(),
+                batch.getStatus().name(),
+                batch.getMode().name(),
+                batch.getTotalRows(),
+                batch.getImported(),
+                batch.getSkipped(),
+                batch.getUpdated(),
+                batch.getUnchanged(),
+                batch.getRowsPerSecond(),
+                batch.getErrorSamples(),
+                batch.getErrorMessage(),
+                batch.getCreatedAt(),
+                batch.getStartedAt(),
+                batch.getFinishedAt()
+        );
+    }
+
+    private record StagedUpload(Path path, String fileHash) { }
+
+    // Mirrors importer progress onto the batch row after every chunk, for as long as it is RUNNING
+    private class JobProgress implements ImportProgressListener {
+
+        private final Long batchId;
+        private final Instant startedAt;
+        private final List<String> errorSamples = new ArrayList<>();
+        private ProductImportResult totals = new ProductImportResult(0, 0, 0);
+
+        JobProgress(Long batchId, Instant startedAt) {
+            this.batchId = batchId;
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void onProgress(ProductImportResult runningTotals) {
+            totals = runningTotals;
+            if (write(ImportBatch.Status.RUNNING, null, null) == 0) {
+                throw new BatchNoLongerRunningException();
+            }
+        }
+
+        @Override
+        public void onRejectedRow(long lineNumber, String reason) {
+            if (errorSamples.size() < properties.getImports().getMaxErrorSamples()) {
+                errorSamples.add("line " + lineNumber + ": " + reason);
+            }
+        }
+
+        void finish(ProductImportResult result, ImportBatch.Status status, String errorMessage) {
+            if (result != null) {
+                totals = result;
+            }
+            if (write(status, errorMessage, Instant.now()) == 0) {
+                log.warn("Import job {} finished as {} but its batch was failed meanwhile", batchId, status);
+            }
+        }
+
+        private int write(ImportBatch.Status status, String errorMessage, Instant finishedAt) {
+            Instant now = finishedAt != null ? finishedAt : Instant.now();
+            return importBatchRepository.updateRunning(
+                    batchId,
+                    status,
+                    totals.totalRows(),
+                    totals.imported(),
+                    totals.skipped(),
+                    totals.updated(),
+                    totals.unchanged(),
+                    rowsPerSecond(totals.totalRows(), now),
+                    errorSamples,
+                    errorMessage,
+                    now,
+                    finishedAt
+            );
+        }
+
+        private double rowsPerSecond(int rows, Instant now) {
+            long millis = Math.max(1, Duration.between(startedAt, now).toMillis());
+            return rows * 1000.0 / millis;
+        }
+    }
+
+    // Thrown from a progress callback to stop an import whose batch is no longer RUNNING
+    private static class BatchNoLongerRunningException extends RuntimeException { }
+}
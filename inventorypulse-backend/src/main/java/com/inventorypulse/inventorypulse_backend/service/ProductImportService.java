@@ -0,0 +1,307 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.outbox.OutboxEventType;
+import com.inventorypulse.inventorypulse_backend.dto.product.CreateProductRequest;
+import com.inventorypulse.inventorypulse_backend.dto.product.ImportMode;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductImportResult;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.event.ProductsChangedEvent;
+import com.inventorypulse.inventorypulse_backend.repository.OutboxRepository;
+import com.inventorypulse.inventorypulse_backend.repository.ProductBulkRepository;
+import com.inventorypulse.inventorypulse_backend.repository.ProductRepository;
+import com.inventorypulse.inventorypulse_backend.service.csv.CsvRecord;
+import com.inventorypulse.inventorypulse_backend.service.csv.ParallelCsvReader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Streaming CSV import engine.
+ *
+ * The upload is tokenized in record-aligned blocks on a fork-join pool (see {@link ParallelCsvReader})
+ * and only a bounded number of blocks plus one chunk of rows are held in memory at a time.
+ * Each chunk resolves SKU existence with one query and is written with one set-based statement
+ * inside its own transaction, so a failed chunk never leaves earlier chunks half-written.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    private static final int COLUMN_COUNT = 8;
+
+    private final ProductRepository productRepository;
+    private final ProductBulkRepository productBulkRepository;
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryPulseProperties properties;
+    private final ForkJoinPool csvParserPool;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductImportResult importFromCsv(Reader reader) {
+        return importFromCsv(reader, ImportMode.INSERT, ImportProgressListener.NONE);
+    }
+
+    public ProductImportResult importFromCsv(Reader reader, ImportMode mode) {
+        return importFromCsv(reader, mode, ImportProgressListener.NONE);
+    }
+
+    public ProductImportResult importFromCsv(Reader reader, ImportMode mode, ImportProgressListener listener) {
+        InventoryPulseProperties.Imports settings = properties.getImports();
+        int chunkSize = Math.max(1, settings.getChunkSize());
+        Counts counts = new Counts();
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+
+        // Tokenizing and validation run on the parser pool; writes stay on this thread, in file order
+        ParallelCsvReader<ParsedRow> csvReader = new ParallelCsvReader<>(
+                csvParserPool,
+                settings.getParseBlockSize(),
+                csvParserPool.getParallelism() * 2,
+                this::parseRow
+        );
+
+        try (reader) {
+            csvReader.read(reader, true, row -> {
+                counts.total++;
+
+                if (row.rejection() != null) {
+                    listener.onRejectedRow(row.lineNumber(), row.rejection());
+                    return;
+                }
+
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, mode, counts, listener);
+                    chunk.clear();
+                    listener.onProgress(counts.toResult());
+                }
+            });
+
+            writeChunk(chunk, mode, counts, listener);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV", e);
+        }
+
+        ProductImportResult result = counts.toResult();
+        listener.onProgress(result);
+        return result;
+    }
+
+    // Runs on a parser thread: turns one CSV record into a product row or a rejection
+    private ParsedRow parseRow(CsvRecord record) {
+        long lineNumber = record.lineNumber();
+
+        if (record.isBlankLine()) {
+            return ParsedRow.rejected(lineNumber, "blank line");
+        }
+        if (record.size() < COLUMN_COUNT) {
+            return ParsedRow.rejected(lineNumber,
+                    "expected " + COLUMN_COUNT + " columns but found " + record.size());
+        }
+        if (record.isBlank(0)) {
+            return ParsedRow.rejected(lineNumber, "sku is required");
+        }
+        if (record.isBlank(1)) {
+            return ParsedRow.rejected(lineNumber, "title is required");
+        }
+
+        Integer reorderThreshold = record.getInt(7);
+        if (reorderThreshold == null) {
+            return ParsedRow.rejected(lineNumber, "reorderThreshold must be an integer");
+        }
+
+        return new ParsedRow(lineNumber, new CreateProductRequest(
+                record.get(0),
+                record.get(1),
+                record.get(2),
+                record.get(3),
+                record.get(4),
+                record.get(5),
+                record.getInt(6),
+                reorderThreshold
+        ), null);
+    }
+
+    /**
+     * Writes one chunk and adds its outcome to {@code counts}.
+     * If the set-based statement fails (e.g. one row violates a constraint), the chunk is replayed
+     * row by row so that only the offending rows are skipped, as the per-row import used to do.
+     */
+    private void writeChunk(List<ParsedRow> chunk, ImportMode mode, Counts counts, ImportProgressListener listener) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<ParsedRow> rows = dedupeBySku(chunk, mode, listener);
+
+        try {
+            writeRows(rows, mode, counts, listener);
+        } catch (DataAccessException ex) {
+            for (ParsedRow row : rows) {
+                try {
+                    writeRows(List.of(row), mode, counts, listener);
+                } catch (DataAccessException rowEx) {
+                    listener.onRejectedRow(row.lineNumber(), rowEx.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * A SKU may only appear once per set-based statement. Insert mode keeps the first occurrence
+     * (later ones would conflict anyway); upsert mode keeps the last, which is the row's final state.
+     */
+    private List<ParsedRow> dedupeBySku(List<ParsedRow> chunk, ImportMode mode, ImportProgressListener listener) {
+        Map<String, ParsedRow> bySku = new LinkedHashMap<>();
+        for (ParsedRow row : chunk) {
+            String sku = row.product().sku();
+            ParsedRow previous = bySku.get(sku);
+            if (previous == null) {
+                bySku.put(sku, row);
+            } else if (mode == ImportMode.UPSERT) {
+                listener.onRejectedRow(previous.lineNumber(),
+                        "SKU '" + sku + "' superseded by line " + row.lineNumber());
+                bySku.put(sku, row);
+            } else {
+                listener.onRejectedRow(row.lineNumber(), "duplicate SKU '" + sku + "' in file");
+            }
+        }
+        return List.copyOf(bySku.values());
+    }
+
+    private void writeRows(List<ParsedRow> rows, ImportMode mode, Counts counts, ImportProgressListener listener) {
+        List<ParsedRow> alreadyExisting = new ArrayList<>();
+
+        Counts chunkCounts = transactionTemplate.execute(status -> mode == ImportMode.UPSERT
+                ? upsertRows(rows)
+                : insertNewRows(rows, alreadyExisting));
+
+        // Only report once the chunk has committed, so a replayed chunk does not report rows twice
+        for (ParsedRow row : alreadyExisting) {
+            listener.onRejectedRow(row.lineNumber(), "SKU '" + row.product().sku() + "' already exists");
+        }
+        if (chunkCounts != null) {
+            counts.add(chunkCounts);
+        }
+    }
+
+    private Counts insertNewRows(List<ParsedRow> rows, List<ParsedRow> alreadyExisting) {
+        Set<String> existing = productRepository.findExistingSkus(
+                rows.stream().map(row -> row.product().sku()).toList()
+        );
+
+        List<CreateProductRequest> fresh = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            if (existing.contains(row.product().sku())) {
+                alreadyExisting.add(row);
+            } else {
+                fresh.add(row.product());
+            }
+        }
+
+        List<Long> insertedIds = productBulkRepository.insertIgnoringExisting(fresh);
+        outboxRepository.appendProductChanges(OutboxEventType.PRODUCT_CREATED, insertedIds);
+        eventPublisher.publishEvent(new ProductsChangedEvent(insertedIds));
+
+        Counts result = new Counts();
+        result.inserted = insertedIds.size();
+        return result;
+    }
+
+    /**
+     * Prefetches (and row-locks) the chunk's existing products, drops rows that would not change
+     * anything, and writes the rest with one INSERT ... ON CONFLICT DO UPDATE.
+     */
+    private Counts upsertRows(List<ParsedRow> rows) {
+        Map<String, ProductResponse> existing = productBulkRepository.lockExistingBySku(
+                rows.stream().map(row -> row.product().sku()).toList()
+        );
+
+        Counts result = new Counts();
+        List<CreateProductRequest> changed = new ArrayList<>(rows.size());
+
+        for (ParsedRow row : rows) {
+            CreateProductRequest incoming = row.product();
+            ProductResponse current = existing.get(incoming.sku());
+
+            // A blank stock column means "leave stock as it is"; the upsert keeps it
+            if (current != null && isUnchanged(current, incoming)) {
+                result.unchanged++;
+            } else {
+                changed.add(incoming);
+            }
+        }
+
+        List<Long> changedIds = new ArrayList<>(changed.size());
+        List<Long> insertedIds = new ArrayList<>();
+        List<Long> updatedIds = new ArrayList<>();
+        for (ProductBulkRepository.UpsertedRow upserted : productBulkRepository.upsert(changed)) {
+            if (upserted.inserted()) {
+                result.inserted++;
+                insertedIds.add(upserted.id());
+            } else {
+                result.updated++;
+                updatedIds.add(upserted.id());
+            }
+            changedIds.add(upserted.id());
+        }
+        outboxRepository.appendProductChanges(OutboxEventType.PRODUCT_CREATED, insertedIds);
+        outboxRepository.appendProductChanges(OutboxEventType.PRODUCT_UPDATED, updatedIds);
+        eventPublisher.publishEvent(new ProductsChangedEvent(changedIds));
+        return result;
+    }
+
+    private boolean isUnchanged(ProductResponse current, CreateProductRequest incoming) {
+        return Objects.equals(current.title(), incoming.title())
+                && sameText(current.description(), incoming.description())
+                && sameText(current.brand(), incoming.brand())
+                && sameText(current.category(), incoming.category())
+                && sameText(current.imageUrl(), incoming.imageUrl())
+                && (incoming.stock() == null || Objects.equals(current.stock(), incoming.stock()))
+                && Objects.equals(current.reorderThreshold(), incoming.reorderThreshold());
+    }
+
+    // CSV cannot express null, so an empty column matches a null column
+    private boolean sameText(String current, String incoming) {
+        boolean currentEmpty = current == null || current.isEmpty();
+        boolean incomingEmpty = incoming == null || incoming.isEmpty();
+        return currentEmpty ? incomingEmpty : current.equals(incoming);
+    }
+
+    private record ParsedRow(long lineNumber, CreateProductRequest product, String rejection) {
+        static ParsedRow rejected(long lineNumber, String reason) {
+            return new ParsedRow(lineNumber, null, reason);
+        }
+    }
+
+    private static final class Counts {
+        int total;
+        int inserted;
+        int updated;
+        int unchanged;
+
+        void add(Counts other) {
+            inserted += other.inserted;
+            updated += other.updated;
+            unchanged += other.unchanged;
+        }
+
+        // Every row that was read but not written or matched (blank, invalid, duplicate) counts as skipped
+        ProductImportResult toResult() {
+            int skipped = total - inserted - updated - unchanged;
+            return new ProductImportResult(total, inserted, skipped, updated, unchanged);
+        }
+    }
+}
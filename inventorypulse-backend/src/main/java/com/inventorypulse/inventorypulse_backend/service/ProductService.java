@@ -1,125 +1,121 @@
 package com.inventorypulse.inventorypulse_backend.service;
 
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.outbox.OutboxEventType;
 import com.inventorypulse.inventorypulse_backend.dto.product.CreateProductRequest;
+import com.inventorypulse.inventorypulse_backend.dto.product.ImportMode;
 import com.inventorypulse.inventorypulse_backend.dto.product.ProductImportResult;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductPageResponse;
 import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductSort;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductSuggestion;
 import com.inventorypulse.inventorypulse_backend.dto.product.UpdateProductRequest;
+import com.inventorypulse.inventorypulse_backend.event.ProductsChangedEvent;
 import com.inventorypulse.inventorypulse_backend.model.Product;
+import com.inventorypulse.inventorypulse_backend.repository.OutboxRepository;
+import com.inventorypulse.inventorypulse_backend.repository.ProductReadRepository;
+import com.inventorypulse.inventorypulse_backend.repository.ProductReadRepository.VersionedProduct;
 import com.inventorypulse.inventorypulse_backend.repository.ProductRepository;
+import com.inventorypulse.inventorypulse_backend.service.cache.CatalogVersion;
+import com.inventorypulse.inventorypulse_backend.service.cache.ProductCache;
+import com.inventorypulse.inventorypulse_backend.service.facets.ProductFacetService;
+import com.inventorypulse.inventorypulse_backend.service.paging.LowStockCursor;
+import com.inventorypulse.inventorypulse_backend.service.paging.ProductCursor;
+import com.inventorypulse.inventorypulse_backend.service.search.ProductSearchIndex;
+import com.inventorypulse.inventorypulse_backend.service.search.ProductSearchIndexService;
 import lombok.RequiredArgsConstructor;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.BufferedReader;
-import java.io.IOException;
 import java.io.Reader;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
     private final ProductRepository productRepository;
-
-    public ProductImportResult importFromCsv(Reader reader) {
-        int total = 0; //ToDO: change to no longer be hardcoded
-        int imported = 0;
-        int skipped = 0;
-
-        try (BufferedReader br = new BufferedReader(reader)) {
-            String line;
-
-            // 1) Read header
-            String header = br.readLine();
-            if (header == null) {
-                return new ProductImportResult(0, 0, 0);
-            }
-
-            while ((line = br.readLine()) != null) {
-                total++;
-                if (line.isBlank()) {
-                    skipped++;
-                    continue;
-                }
-
-                String[] parts = line.split(",", -1);
-                if (parts.length < 8) {
-                    skipped++;
-                    continue;
-                }
-
-                String sku = parts[0].trim();
-                String title = parts[1].trim();
-                String description = parts[2].trim();
-                String brand = parts[3].trim();
-                String category = parts[4].trim();
-                String imageUrl = parts[5].trim();
-                Integer stock = parseIntSafe(parts[6]);
-                Integer reorderThreshold = parseIntSafe(parts[7]);
-
-                // basic required-field checks
-                if (sku.isEmpty() || title.isEmpty() || reorderThreshold == null) {
-                    skipped++;
-                    continue;
-                }
-
-                try {
-                    CreateProductRequest req = new CreateProductRequest(
-                            sku,
-                            title,
-                            description,
-                            brand,
-                            category,
-                            imageUrl,
-                            stock,
-                            reorderThreshold
-                    );
-                    createProduct(req);
-                    imported++;
-                } catch (ResponseStatusException ex) {
-                    // e.g. duplicate SKU -> skip
-                    skipped++;
-                } catch (Exception ex) {
-                    skipped++;
-                }
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to read CSV", e);
-        }
-
-        return new ProductImportResult(total, imported, skipped);
+    private final ProductReadRepository productReadRepository;
+    private final ProductImportService productImportService;
+    private final InventoryPulseProperties properties;
+    private final ProductSearchIndexService searchIndex;
+    private final ProductCache productCache;
+    private final CatalogVersion catalogVersion;
+    private final ProductFacetService productFacetService;
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductImportResult importFromCsv(Reader reader, ImportMode mode) {
+        return productImportService.importFromCsv(reader, mode);
     }
 
-    private Integer parseIntSafe(String s) {
-        try {
-            if (s == null || s.isBlank()) return null;
-            return Integer.parseInt(s.trim());
-        } catch (NumberFormatException e) {
-            return null;
-        }
+    /**
+     * Unpaginated listing kept for existing clients. Bounded to the configured legacy limit;
+     * when more rows exist, the returned cursor continues with {@link #getProductPage}.
+     */
+    public ProductPageResponse getAllProducts() {
+        return fetchPage(null, properties.getProducts().getLegacyListLimit(), ProductSort.ID);
     }
 
+    /**
+     * One keyset page in a stable order. Cost does not grow with how deep the client has paged,
+     * and rows inserted or deleted meanwhile never shift the remaining pages.
+     */
+    public ProductPageResponse getProductPage(String cursor, Integer limit, ProductSort sort) {
+        int pageSize = resolvePageSize(limit);
+        return fetchPage(cursor != null ? ProductCursor.decode(cursor, sort) : null, pageSize, sort);
+    }
 
-    public List<ProductResponse> getAllProducts() {
-        return productRepository.findAll()
-                .stream()
-                .map(this::toProductResponse)
-                .toList();
+    private ProductPageResponse fetchPage(ProductCursor after, int pageSize, ProductSort sort) {
+        // One extra row tells us whether another page exists without a COUNT
+        int fetch = pageSize + 1;
+        List<ProductResponse> rows = switch (sort) {
+            case ID -> productReadRepository.findPageAfterId(after != null ? after.id() : 0L, fetch);
+            case TITLE -> after != null
+                    ? productReadRepository.findPageAfterTitle(after.title(), after.id(), fetch)
+                    : productReadRepository.findFirstPageByTitle(fetch);
+        };
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasMore ? ProductCursor.after(sort, items.get(items.size() - 1)).encode() : null;
+        return new ProductPageResponse(items, nextCursor);
     }
 
     public ProductResponse getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        return getVersionedProduct(id).product();
+    }
+
+    public VersionedProduct getVersionedProduct(Long id) {
+        return productCache.getVersioned(id)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
                         "Product with id " + id + " not found"
                 ));
-        return toProductResponse(product);
     }
 
+    // Changes whenever any product does; read it before loading the listing it tags
+    public String getCatalogEtag() {
+        return catalogVersion.etag();
+    }
+
+    // Product writes append their outbox event in the same transaction (see OutboxRepository)
     public ProductResponse createProduct(CreateProductRequest request) {
+        return transactionTemplate.execute(status -> insertProduct(request));
+    }
+
+    private ProductResponse insertProduct(CreateProductRequest request) {
         if (productRepository.existsBySku(request.sku())) {
             throw new ResponseStatusException(
                     HttpStatus.CONFLICT,
@@ -140,11 +136,17 @@ public class ProductService {
                 .reorderThreshold(request.reorderThreshold())
                 .build();
 
-        Product saved = productRepository.save(product);
+        Product saved = productRepository.saveAndFlush(product);
+        outboxRepository.appendProductChanges(OutboxEventType.PRODUCT_CREATED, List.of(saved.getId()));
+        eventPublisher.publishEvent(new ProductsChangedEvent(List.of(saved.getId())));
         return toProductResponse(saved);
     }
 
     public ProductResponse updateProduct(Long id, UpdateProductRequest request) {
+        return transactionTemplate.execute(status -> overwriteProduct(id, request));
+    }
+
+    private ProductResponse overwriteProduct(Long id, UpdateProductRequest request) {
         Product existing = productRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
@@ -169,39 +171,137 @@ public class ProductService {
         existing.setStock(request.stock());
         existing.setReorderThreshold(request.reorderThreshold());
 
-        Product saved = productRepository.save(existing);
+        Product saved = productRepository.saveAndFlush(existing);
+        outboxRepository.appendProductChanges(OutboxEventType.PRODUCT_UPDATED, List.of(saved.getId()));
+        eventPublisher.publishEvent(new ProductsChangedEvent(List.of(saved.getId())));
         return toProductResponse(saved);
     }
 
-        public void deleteProduct(Long id) {
-        Product existing = productRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Product with id " + id + " not found"
-                ));
-
-        productRepository.delete(existing);
+    public void deleteProduct(Long id) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Product existing = productRepository.findById(id)
+                    .orElseThrow(() -> new ResponseStatusException(
+                            HttpStatus.NOT_FOUND,
+                            "Product with id " + id + " not found"
+                    ));
+
+            productRepository.delete(existing);
+            productRepository.flush();
+            outboxRepository.appendProductDeleted(id, existing.getSku());
+            eventPublisher.publishEvent(new ProductsChangedEvent(List.of(id)));
+        });
     }
 
+    // Biggest shortfall first; reads only the low-stock rows, however large the catalog is
     public List<ProductResponse> getLowStockProducts() {
-        return productRepository.findProductsNeedingReorder()
-                .stream()
-                .map(this::toProductResponse)
-                .toList();
+        return productReadRepository.findLowStock();
     }
 
-    public List<ProductResponse> searchProducts(String query) {
+    public ProductPageResponse getLowStockPage(String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        LowStockCursor after = cursor != null ? LowStockCursor.decode(cursor) : null;
+
+        // The index is keyed on stock - reorderThreshold, i.e. the negated shortfall
+        List<ProductResponse> rows = productReadRepository.findLowStockPageAfter(
+                after != null ? -after.shortfall() : Integer.MIN_VALUE,
+                after != null ? after.id() : 0L,
+                pageSize + 1
+        );
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasMore ? LowStockCursor.after(items.get(items.size() - 1)).encode() : null;
+        return new ProductPageResponse(items, nextCursor);
+    }
+
+    /**
+     * Ranked substring search over title, SKU and brand, one bounded page at a time.
+     * A query that is exactly an existing SKU is answered from the unique SKU index alone.
+     */
+    public List<ProductResponse> searchProducts(String query, Integer limit, Integer offset) {
+        int pageSize = resolvePageSize(limit);
+        int skip = offset != null ? offset : 0;
+        int maxOffset = properties.getProducts().getSearch().getMaxOffset();
+        if (skip < 0 || skip > maxOffset) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "offset must be between 0 and " + maxOffset
+            );
+        }
+
         if (query == null || query.isBlank()) {
-            return getAllProducts();
+            return productReadRepository.findPageById(pageSize, skip);
+        }
+
+        String q = query.trim();
+        if (searchIndex.isReady()) {
+            List<Long> ids = searchIndex.search(q, pageSize, skip).stream()
+                    .map(ProductSearchIndex.Match::id)
+                    .toList();
+            return loadInOrder(ids);
         }
 
-        return productRepository.searchByQuery(query, Pageable.unpaged())
-                .getContent()
-                .stream()
-                .map(this::toProductResponse)
+        Optional<ProductResponse> exact = productReadRepository.findBySku(q);
+        if (exact.isPresent()) {
+            return skip == 0 ? List.of(exact.get()) : List.of();
+        }
+
+        return productReadRepository.searchRanked(q, pageSize, skip);
+    }
+
+    /**
+     * Product counts, units in stock and low-stock counts per category and per brand, over the
+     * products a search for {@code query} matches (the whole catalog when it is blank). Counts for a
+     * query are served from cache, so up to {@code inventorypulse.products.facets.ttl} old, with the
+     * ETag they were computed under; whole-catalog counts are always current.
+     */
+    public ProductFacetService.Snapshot getFacets(String query) {
+        return productFacetService.getFacets(query);
+    }
+
+    /**
+     * Search-as-you-type suggestions, best match first. Served entirely from memory when the
+     * in-memory index is enabled and loaded, otherwise by the database search.
+     */
+    public List<ProductSuggestion> autocomplete(String query, Integer limit) {
+        int size = resolvePageSize(limit != null ? limit : properties.getProducts().getSearch().getAutocompleteLimit());
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+
+        if (searchIndex.isReady()) {
+            return searchIndex.search(query, size, 0).stream()
+                    .map(match -> new ProductSuggestion(match.id(), match.sku(), match.title()))
+                    .toList();
+        }
+        return searchProducts(query, size, 0).stream()
+                .map(product -> new ProductSuggestion(product.id(), product.sku(), product.title()))
+                .toList();
+    }
+
+    // Rows for ids ranked elsewhere, in that order; ids deleted in the meantime are skipped
+    private List<ProductResponse> loadInOrder(List<Long> ids) {
+        Map<Long, ProductResponse> byId = productReadRepository.findByIds(ids).stream()
+                .collect(Collectors.toMap(ProductResponse::id, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
+    private int resolvePageSize(Integer limit) {
+        InventoryPulseProperties.Products settings = properties.getProducts();
+        int pageSize = limit != null ? limit : settings.getDefaultPageSize();
+        if (pageSize < 1 || pageSize > settings.getMaxPageSize()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + settings.getMaxPageSize()
+            );
+        }
+        return pageSize;
+    }
+
     private ProductResponse toProductResponse(Product product) {
         return new ProductResponse(
                 product.getId(),
@@ -0,0 +1,257 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionResponse;
+import com.inventorypulse.inventorypulse_backend.event.ProductsChangedEvent;
+import com.inventorypulse.inventorypulse_backend.repository.InventoryBulkRepository;
+import com.inventorypulse.inventorypulse_backend.repository.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single stock movements on hot products.
+ *
+ * The first movement for a product opens a batch and becomes its leader; movements for the same
+ * product that arrive within the configured window (or until the batch is full) join it. The
+ * leader then writes the whole batch in one transaction: one row lock, one stock UPDATE and one
+ * multi-row ledger INSERT, instead of one row-lock hand-off per movement. Each caller blocks until
+ * the batch has committed and receives its own response with the stock as of its own movement.
+ * A movement whose external reference is already taken fails with the constraint violation, which
+ * the caller resolves to the original transaction just as on the direct path.
+ *
+ * Movements are applied in arrival order and each one is checked against the running stock, so
+ * a withdrawal that would go negative is rejected on its own without affecting the rest.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockMovementCoalescer {
+
+    private final InventoryBulkRepository inventoryBulkRepository;
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryPulseProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Batch> openBatches = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return properties.getInventory().getCoalescing().isEnabled();
+    }
+
+    /**
+     * Queues the movement, waits for its batch to commit and returns its transaction.
+     * Rejections surface as the same exceptions the direct path throws.
+     */
+    public InventoryTransactionResponse submit(Long productId, InventoryTransactionRequest request, String actor) {
+        InventoryPulseProperties.Coalescing settings = properties.getInventory().getCoalescing();
+        int maxBatchSize = Math.max(1, settings.getMaxBatchSize());
+        Movement movement = new Movement(request, actor);
+        Batch[] joined = new Batch[1];
+        boolean[] leader = new boolean[1];
+
+        openBatches.compute(productId, (id, open) -> {
+            Batch batch = open;
+            if (batch == null) {
+                batch = new Batch(id, maxBatchSize);
+                leader[0] = true;
+            }
+            batch.add(movement);
+            joined[0] = batch;
+            // A full batch is detached right away so the next movement starts a new one
+            return batch.isFull() ? null : batch;
+        });
+
+        if (leader[0]) {
+            Batch batch = joined[0];
+            batch.awaitFull(settings.getWindow().toNanos());
+            openBatches.remove(productId, batch);
+            write(batch);
+        }
+
+        try {
+            return movement.result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void write(Batch batch) {
+        List<Movement> movements = batch.close();
+
+        try {
+            List<Outcome> outcomes = transactionTemplate.execute(status -> writeTogether(batch.productId, movements));
+            complete(movements, outcomes);
+        } catch (DataIntegrityViolationException ex) {
+            // Typically a repeated external reference; replay one by one so only that movement fails
+            for (Movement movement : movements) {
+                try {
+                    complete(List.of(movement),
+                            transactionTemplate.execute(status -> writeTogether(batch.productId, List.of(movement))));
+                } catch (RuntimeException rowEx) {
+                    movement.result.completeExceptionally(rowEx);
+                }
+            }
+        } catch (RuntimeException ex) {
+            movements.forEach(movement -> movement.result.completeExceptionally(ex));
+        }
+    }
+
+    private List<Outcome> writeTogether(Long productId, List<Movement> movements) {
+        Integer currentStock = inventoryBulkRepository.lockStock(List.of(productId)).get(productId);
+        List<Outcome> outcomes = new ArrayList<>(movements.size());
+
+        if (currentStock == null) {
+            ResponseStatusException notFound = new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Product with id " + productId + " not found"
+            );
+            movements.forEach(movement -> outcomes.add(Outcome.rejected(notFound)));
+            return outcomes;
+        }
+
+        int runningStock = currentStock;
+        List<InventoryBulkRepository.LedgerRow> ledger = new ArrayList<>(movements.size());
+        for (Movement movement : movements) {
+            int delta = movement.request.delta();
+            if (runningStock + delta < 0) {
+                outcomes.add(Outcome.rejected(new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "Stock cannot be negative (current: " + runningStock + ", delta: " + delta + ")"
+                )));
+                continue;
+            }
+            runningStock += delta;
+            ledger.add(new InventoryBulkRepository.LedgerRow(
+                    productId,
+                    delta,
+                    movement.request.reason(),
+                    movement.request.externalReference(),
+                    movement.actor,
+                    runningStock
+            ));
+            outcomes.add(null); // filled in once the ledger rows have ids
+        }
+
+        if (ledger.isEmpty()) {
+            return outcomes;
+        }
+
+        inventoryBulkRepository.setStock(Map.of(productId, runningStock));
+        List<InventoryBulkRepository.InsertedTransaction> inserted = inventoryBulkRepository.insertTransactions(ledger);
+        outboxRepository.appendStockChanges(inserted.stream().map(InventoryBulkRepository.InsertedTransaction::id).toList());
+        eventPublisher.publishEvent(ProductsChangedEvent.stockChanged(List.of(productId)));
+
+        int next = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (outcomes.get(i) == null) {
+                InventoryBulkRepository.LedgerRow row = ledger.get(next);
+                InventoryBulkRepository.InsertedTransaction tx = inserted.get(next);
+                next++;
+                outcomes.set(i, Outcome.applied(new InventoryTransactionResponse(
+                        tx.id(),
+                        row.productId(),
+                        row.delta(),
+                        row.reason(),
+                        row.externalReference(),
+                        row.actor(),
+                        tx.createdAt(),
+                        row.resultingStock()
+                )));
+            }
+        }
+        return outcomes;
+    }
+
+    // Only called after commit, so no caller ever sees a transaction that was rolled back
+    private void complete(List<Movement> movements, List<Outcome> outcomes) {
+        for (int i = 0; i < movements.size(); i++) {
+            Outcome outcome = outcomes.get(i);
+            if (outcome.error() != null) {
+                movements.get(i).result.completeExceptionally(outcome.error());
+            } else {
+                movements.get(i).result.complete(outcome.response());
+            }
+        }
+    }
+
+    private static final class Movement {
+        final InventoryTransactionRequest request;
+        final String actor;
+        final CompletableFuture<InventoryTransactionResponse> result = new CompletableFuture<>();
+
+        Movement(InventoryTransactionRequest request, String actor) {
+            this.request = request;
+            this.actor = actor;
+        }
+    }
+
+    private record Outcome(InventoryTransactionResponse response, ResponseStatusException error) {
+        static Outcome applied(InventoryTransactionResponse response) {
+            return new Outcome(response, null);
+        }
+
+        static Outcome rejected(ResponseStatusException error) {
+            return new Outcome(null, error);
+        }
+    }
+
+    private static final class Batch {
+        final Long productId;
+        private final int maxSize;
+        private final List<Movement> movements = new ArrayList<>();
+
+        Batch(Long productId, int maxSize) {
+            this.productId = productId;
+            this.maxSize = maxSize;
+        }
+
+        synchronized void add(Movement movement) {
+            movements.add(movement);
+            if (movements.size() >= maxSize) {
+                notifyAll();
+            }
+        }
+
+        synchronized boolean isFull() {
+            return movements.size() >= maxSize;
+        }
+
+        // Leader side: wait until the batch fills up or the window has passed
+        synchronized void awaitFull(long windowNanos) {
+            long deadline = System.nanoTime() + windowNanos;
+            try {
+                while (movements.size() < maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException ex) {
+                // Write what we have; the callers are already waiting on it
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized List<Movement> close() {
+            return List.copyOf(movements);
+        }
+    }
+}
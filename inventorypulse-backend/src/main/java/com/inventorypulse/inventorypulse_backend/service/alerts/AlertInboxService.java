@@ -0,0 +1,110 @@
+package com.inventorypulse.inventorypulse_backend.service.alerts;
+
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.alert.AlertPageResponse;
+import com.inventorypulse.inventorypulse_backend.dto.alert.AlertResponse;
+import com.inventorypulse.inventorypulse_backend.dto.alert.MarkAlertsSeenRequest;
+import com.inventorypulse.inventorypulse_backend.dto.alert.MarkAlertsSeenResponse;
+import com.inventorypulse.inventorypulse_backend.dto.alert.UnseenAlertCountResponse;
+import com.inventorypulse.inventorypulse_backend.repository.AlertInboxRepository;
+import com.inventorypulse.inventorypulse_backend.service.cache.ProductCache;
+import com.inventorypulse.inventorypulse_backend.service.paging.AlertCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * The alert inbox: keyset pages of raised alerts, the unseen badge count, and acknowledging
+ * alerts in bulk. See {@link AlertInboxRepository} for what each costs.
+ */
+@Service
+@RequiredArgsConstructor
+public class AlertInboxService {
+
+    private final AlertInboxRepository alertInboxRepository;
+    private final ProductCache productCache;
+    private final InventoryPulseProperties properties;
+
+    /** One page of alerts, newest first, optionally only unseen ones and only one product's. */
+    public AlertPageResponse getAlertPage(String cursor, int limit, boolean unseenOnly, Long productId) {
+        int maxPageSize = properties.getAlerts().getMaxPageSize();
+        if (limit < 1 || limit > maxPageSize) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + maxPageSize
+            );
+        }
+        if (productId != null) {
+            requireProduct(productId);
+        }
+
+        AlertCursor after = cursor != null ? AlertCursor.decode(cursor) : null;
+        // One extra row tells us whether another page exists without a COUNT
+        List<AlertResponse> rows = alertInboxRepository.findPage(
+                productId,
+                unseenOnly,
+                after != null ? after.id() : null,
+                limit + 1
+        );
+
+        boolean hasMore = rows.size() > limit;
+        List<AlertResponse> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? AlertCursor.after(items.get(items.size() - 1)).encode() : null;
+        return new AlertPageResponse(items, nextCursor);
+    }
+
+    public UnseenAlertCountResponse getUnseenCount() {
+        return new UnseenAlertCountResponse(alertInboxRepository.countUnseen());
+    }
+
+    /**
+     * Marks the alerts the request selects as seen: the listed ids, every alert of one product, or
+     * every alert older than the last one on the page a cursor came from.
+     */
+    public MarkAlertsSeenResponse markSeen(MarkAlertsSeenRequest request) {
+        long selectors = Stream.of(request.ids(), request.productId(), request.before())
+                .filter(Objects::nonNull)
+                .count();
+        if (selectors != 1) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Exactly one of ids, productId or before is required"
+            );
+        }
+
+        int marked;
+        if (request.ids() != null) {
+            int maxIds = properties.getAlerts().getMaxPageSize();
+            if (request.ids().isEmpty() || request.ids().size() > maxIds) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "ids must name between 1 and " + maxIds + " alerts"
+                );
+            }
+            if (request.ids().stream().anyMatch(Objects::isNull)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must not contain null");
+            }
+            marked = alertInboxRepository.markSeen(request.ids());
+        } else if (request.productId() != null) {
+            requireProduct(request.productId());
+            marked = alertInboxRepository.markSeenForProduct(request.productId());
+        } else {
+            marked = alertInboxRepository.markSeenBefore(AlertCursor.decode(request.before()).id());
+        }
+        return new MarkAlertsSeenResponse(marked, alertInboxRepository.countUnseen());
+    }
+
+    private void requireProduct(Long productId) {
+        if (productCache.get(productId).isEmpty()) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Product with id " + productId + " not found"
+            );
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.inventorypulse.inventorypulse_backend.service.alerts;
+
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.alert.AlertType;
+import com.inventorypulse.inventorypulse_backend.event.AlertsRaisedEvent;
+import com.inventorypulse.inventorypulse_backend.event.AlertsRaisedEvent.RaisedAlert;
+import com.inventorypulse.inventorypulse_backend.event.ProductsChangedEvent;
+import com.inventorypulse.inventorypulse_backend.repository.StockAlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Raises low-stock, stockout and recovery alerts from every committed product change: stock
+ * movements, bulk batches, product edits and imports all publish {@link ProductsChangedEvent}.
+ *
+ * The committing thread only puts the changed ids on a bounded queue; a single background thread
+ * drains it {@code inventorypulse.alerts.batch-delay} later, in batches, each evaluated in one
+ * statement (see {@link StockAlertRepository}). An id already waiting is not queued twice, so a
+ * burst of movements on one product is evaluated once, and an alert is only raised when a
+ * product's level (OK, LOW, OUT) changes. Evaluation reads the committed stock at that moment, so
+ * a dip that has already recovered by then raises nothing.
+ *
+ * If the queue is full, the overflowing ids are dropped and the whole catalog is swept instead;
+ * the same sweep runs at startup to pick up changes made while no instance was listening.
+ * Every committed batch of alerts is published as an {@link AlertsRaisedEvent}.
+ */
+@Slf4j
+@Service
+public class StockAlertEngine {
+
+    private final StockAlertRepository alertRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskScheduler alertScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration batchDelay;
+
+    private final BlockingQueue<Long> queue;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean sweepNeeded = new AtomicBoolean();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final Map<AlertType, Counter> raised = new EnumMap<>(AlertType.class);
+    private final Counter sweeps;
+
+    public StockAlertEngine(
+            StockAlertRepository alertRepository,
+            TransactionTemplate transactionTemplate,
+            ThreadPoolTaskScheduler alertScheduler,
+            ApplicationEventPublisher eventPublisher,
+            InventoryPulseProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        InventoryPulseProperties.Alerts settings = properties.getAlerts();
+        this.alertRepository = alertRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.alertScheduler = alertScheduler;
+        this.eventPublisher = eventPublisher;
+        this.enabled = settings.isEnabled();
+        this.batchSize = Math.max(1, settings.getBatchSize());
+        this.batchDelay = settings.getBatchDelay();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity()));
+
+        for (AlertType type : AlertType.values()) {
+            raised.put(type, meterRegistry.counter("inventorypulse.alerts.raised", "type", type.name()));
+        }
+        this.sweeps = meterRegistry.counter("inventorypulse.alerts.sweeps");
+        Gauge.builder("inventorypulse.alerts.queue", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sweepOnStartup() {
+        if (enabled) {
+            sweepNeeded.set(true);
+            scheduleDrain();
+        }
+    }
+
+    // Runs on the committing thread: never blocks and never touches the database
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        // The instance that made a remote change evaluates it
+        if (!enabled || event.remote()) {
+            return;
+        }
+        for (Long productId : event.productIds()) {
+            if (queued.add(productId) && !queue.offer(productId)) {
+                queued.remove(productId);
+                sweepNeeded.set(true);
+            }
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            alertScheduler.schedule(this::drain, Instant.now().plus(batchDelay));
+        } catch (TaskRejectedException ex) {
+            // Shutting down; whatever is left is picked up by the next startup sweep
+            draining.set(false);
+        }
+    }
+
+    private void drain() {
+        try {
+            List<Long> batch = new ArrayList<>(batchSize);
+            while (true) {
+                if (sweepNeeded.getAndSet(false)) {
+                    sweeps.increment();
+                    record(() -> alertRepository.evaluateAll());
+                }
+
+                batch.clear();
+                queue.drainTo(batch, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                // Removed before evaluating, so a change committed from here on is queued again
+                batch.forEach(queued::remove);
+                record(() -> alertRepository.evaluate(batch));
+            }
+        } catch (RuntimeException ex) {
+            // Ids already taken off the queue are lost; a sweep on the next change covers them
+            log.warn("Stock alert evaluation failed, will sweep on the next change", ex);
+            sweepNeeded.set(true);
+            draining.set(false);
+            return;
+        }
+
+        draining.set(false);
+        // Ids queued after the last drainTo but before the flag was cleared
+        if (!queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void record(Supplier<List<RaisedAlert>> evaluation) {
+        List<RaisedAlert> alerts = transactionTemplate.execute(status -> {
+            alertRepository.lockForEvaluation();
+            return evaluation.get();
+        });
+        if (alerts == null || alerts.isEmpty()) {
+            return;
+        }
+        alerts.forEach(raisedAlert -> raised.get(AlertType.valueOf(raisedAlert.alert().type())).increment());
+        // Committed by now; listeners (the live stream) run on this thread
+        eventPublisher.publishEvent(new AlertsRaisedEvent(alerts));
+    }
+}
@@ -0,0 +1,187 @@
+package com.inventorypulse.inventorypulse_backend.service.analytics;
+
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.StockAsOf;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.StockAsOfRequest;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.StockSnapshotResponse;
+import com.inventorypulse.inventorypulse_backend.repository.StockSnapshotRepository;
+import com.inventorypulse.inventorypulse_backend.service.ProductExportService;
+import com.inventorypulse.inventorypulse_backend.service.paging.TimeBounds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Point-in-time stock ("what was stock at month end?") for a list of SKUs or the whole catalog,
+ * answered from the ledger's {@code resulting_stock} and the periodic stock snapshots; see
+ * {@link StockSnapshotRepository} for how the two are combined.
+ *
+ * Snapshots are what make products that did not move answerable, including stock set by
+ * product edits and imports, which write no ledger row. They are taken on
+ * {@code inventorypulse.analytics.snapshot-cron} and pruned after {@code snapshot-retention}.
+ */
+@Slf4j
+@Service
+public class StockAsOfService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "sku,productId,stock,source,sourceAt\n";
+    // A scheduled snapshot is skipped if another instance took one this recently
+    private static final Duration MIN_SCHEDULED_GAP = Duration.ofMinutes(1);
+
+    private final StockSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolTaskScheduler analyticsScheduler;
+    private final InventoryPulseProperties.Analytics settings;
+
+    public StockAsOfService(
+            StockSnapshotRepository snapshotRepository,
+            PlatformTransactionManager transactionManager,
+            ThreadPoolTaskScheduler analyticsScheduler,
+            InventoryPulseProperties properties
+    ) {
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.analyticsScheduler = analyticsScheduler;
+        this.settings = properties.getAnalytics();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleSnapshots() {
+        String cron = settings.getSnapshotCron();
+        if (!"-".equals(cron)) {
+            analyticsScheduler.schedule(
+                    this::scheduledSnapshot,
+                    new CronTrigger(cron, TimeZone.getTimeZone(ZoneOffset.UTC))
+            );
+        }
+    }
+
+    public List<StockAsOf> getStockAsOf(StockAsOfRequest request) {
+        Set<String> skus = new LinkedHashSet<>();
+        for (String sku : request.skus()) {
+            if (sku != null && !sku.isBlank()) {
+                skus.add(sku.trim());
+            }
+        }
+
+        int maxSkus = settings.getMaxAsOfSkus();
+        if (skus.size() > maxSkus) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "At most " + maxSkus + " SKUs per request; use /api/analytics/stock-as-of/export for the whole catalog"
+            );
+        }
+        return snapshotRepository.findAsOf(request.at(), skus);
+    }
+
+    // Parsed up front so a bad "at" is a 400 rather than a broken download
+    public Instant parseAsOf(String at) {
+        Instant instant = TimeBounds.parse("at", at);
+        if (instant == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "at is required");
+        }
+        return instant;
+    }
+
+    /**
+     * Streams every product's stock as of {@code at} as CSV from a database cursor; memory use
+     * does not depend on catalog size.
+     */
+    public void exportStockAsOf(Instant at, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        writer.write(CSV_HEADER);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> snapshotRepository.forEachAsOf(at, row -> {
+                try {
+                    ProductExportService.writeCsvField(writer, row.sku());
+                    writer.write(',');
+                    writer.write(String.valueOf(row.productId()));
+                    writer.write(',');
+                    if (row.stock() != null) {
+                        writer.write(String.valueOf(row.stock()));
+                    }
+                    writer.write(',');
+                    writer.write(row.source().name());
+                    writer.write(',');
+                    if (row.sourceAt() != null) {
+                        writer.write(row.sourceAt().toString());
+                    }
+                    writer.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+        } catch (UncheckedIOException ex) {
+            // Typically the client went away; the read transaction has already been rolled back
+            throw ex.getCause();
+        }
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+    }
+
+    public StockSnapshotResponse takeSnapshot() {
+        StockSnapshotResponse snapshot = snapshotRepository.takeSnapshot();
+        log.info("Took stock snapshot {} of {} products", snapshot.id(), snapshot.products());
+        return snapshot;
+    }
+
+    public List<StockSnapshotResponse> getSnapshots() {
+        return snapshotRepository.findRuns();
+    }
+
+    private void scheduledSnapshot() {
+        try {
+            StockSnapshotResponse snapshot = transactionTemplate.execute(status -> {
+                if (!snapshotRepository.tryLockForSnapshot()) {
+                    return null;
+                }
+                Instant latest = snapshotRepository.findLatestTakenAt().orElse(Instant.MIN);
+                if (latest.isAfter(Instant.now().minus(MIN_SCHEDULED_GAP))) {
+                    return null;
+                }
+                return takeSnapshot();
+            });
+            if (snapshot != null) {
+                int pruned = snapshotRepository.deleteRunsTakenBefore(Instant.now().minus(settings.getSnapshotRetention()));
+                if (pruned > 0) {
+                    log.info("Pruned {} stock snapshots older than {}", pruned, settings.getSnapshotRetention());
+                }
+            }
+        } catch (RuntimeException ex) {
+            // As-of queries fall back to the previous snapshot until the next scheduled one
+            log.warn("Scheduled stock snapshot failed", ex);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.inventorypulse.inventorypulse_backend.service.analytics;
+
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.MovementBucket;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.RollupGranularity;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.RollupStatusResponse;
+import com.inventorypulse.inventorypulse_backend.repository.StockRollupRepository;
+import com.inventorypulse.inventorypulse_backend.repository.StockRollupRepository.RollupState;
+import com.inventorypulse.inventorypulse_backend.service.cache.ProductCache;
+import com.inventorypulse.inventorypulse_backend.service.paging.TimeBounds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps the hourly and daily movement rollups in step with the ledger and answers chart queries
+ * from them, so a chart costs one index range of the rollup, whatever the size of the ledger.
+ *
+ * The ledger write paths are left alone: a background run every
+ * {@code inventorypulse.analytics.catch-up-interval} adds everything committed since the previous
+ * run in one statement. Updating per-category rows inside every stock movement would instead
+ * make all movements in a category queue on the same row. Runs are serialized across instances by
+ * a database lock; a run that finds it taken is skipped, since the run holding it covers the same
+ * rows. A run that finds the rollups unbuilt (first start, or an interrupted rebuild) rebuilds them
+ * from the whole ledger, in parallel over product-id ranges.
+ */
+@Slf4j
+@Service
+public class StockRollupService {
+
+    // A chart never reads more than this many buckets
+    static final int MAX_BUCKETS = 1000;
+    // Span used when the request does not give one
+    private static final int DEFAULT_BUCKETS = 30;
+    // Product-id ranges per rebuild worker, so a skewed range does not leave the others idle
+    private static final int RANGES_PER_WORKER = 4;
+
+    private final StockRollupRepository rollupRepository;
+    private final ProductCache productCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskScheduler analyticsScheduler;
+    private final ThreadPoolTaskExecutor rollupRebuildExecutor;
+    private final InventoryPulseProperties.Analytics settings;
+    private final Counter rolledUpRows;
+    private final Timer catchUpTimer;
+    private final Timer rebuildTimer;
+
+    public StockRollupService(
+            StockRollupRepository rollupRepository,
+            ProductCache productCache,
+            TransactionTemplate transactionTemplate,
+            ThreadPoolTaskScheduler analyticsScheduler,
+            ThreadPoolTaskExecutor rollupRebuildExecutor,
+            InventoryPulseProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.productCache = productCache;
+        this.transactionTemplate = transactionTemplate;
+        this.analyticsScheduler = analyticsScheduler;
+        this.rollupRebuildExecutor = rollupRebuildExecutor;
+        this.settings = properties.getAnalytics();
+
+        this.rolledUpRows = meterRegistry.counter("inventorypulse.rollups.rows");
+        this.catchUpTimer = meterRegistry.timer("inventorypulse.rollups.catch-up");
+        this.rebuildTimer = meterRegistry.timer("inventorypulse.rollups.rebuild");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startCatchUp() {
+        if (settings.isRollupsEnabled()) {
+            analyticsScheduler.scheduleWithFixedDelay(this::scheduledCatchUp, settings.getCatchUpInterval());
+        }
+    }
+
+    /**
+     * Adds every ledger row committed since the last run (building the rollups from scratch if
+     * they have never been built) and returns how many rows that was; empty if another run was
+     * already in progress.
+     */
+    public Optional<Long> catchUp() {
+        return rollupRepository.tryWithRollupLock(() -> {
+            RollupState state = rollupRepository.findState();
+            if (state.watermark() == null) {
+                return rebuildLocked();
+            }
+
+            return catchUpTimer.record(() -> transactionTemplate.execute(status -> {
+                String upTo = rollupRepository.oldestRunningXid();
+                long rows = rollupRepository.applyRange(state.watermark(), upTo);
+                rollupRepository.advanceWatermark(upTo);
+                rolledUpRows.increment(rows);
+                return rows;
+            }));
+        });
+    }
+
+    /**
+     * Throws the rollups away and builds them again from the whole ledger; returns the rows read.
+     * Refused with 409 while another run is in progress.
+     */
+    public long rebuild() {
+        return rollupRepository.tryWithRollupLock(this::rebuildLocked)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "A rollup run is in progress, try again shortly"
+                ));
+    }
+
+    public RollupStatusResponse getStatus() {
+        RollupState state = rollupRepository.findState();
+        return new RollupStatusResponse(state.watermark() != null, state.caughtUpAt(), state.rebuiltAt());
+    }
+
+    public List<MovementBucket> getProductMovements(long productId, String granularity, String from, String to) {
+        if (productCache.get(productId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product with id " + productId + " not found");
+        }
+        RollupGranularity unit = RollupGranularity.fromParam(granularity);
+        Instant[] range = resolveRange(unit, from, to);
+        return rollupRepository.findProductSeries(productId, unit, range[0], range[1]);
+    }
+
+    // A blank category selects the products that have none
+    public List<MovementBucket> getCategoryMovements(String category, String granularity, String from, String to) {
+        RollupGranularity unit = RollupGranularity.fromParam(granularity);
+        Instant[] range = resolveRange(unit, from, to);
+        String key = category != null ? category.trim() : "";
+        return rollupRepository.findCategorySeries(key, unit, range[0], range[1]);
+    }
+
+    private void scheduledCatchUp() {
+        try {
+            if (catchUp().isEmpty()) {
+                log.debug("Stock rollup catch-up skipped, another run holds the rollup lock");
+            }
+        } catch (RuntimeException ex) {
+            // Nothing was committed; the next run picks up the same rows again
+            log.warn("Stock rollup catch-up failed, will retry", ex);
+        }
+    }
+
+    private long rebuildLocked() {
+        return rebuildTimer.record(() -> {
+            transactionTemplate.executeWithoutResult(status -> rollupRepository.clearForRebuild());
+
+            // Everything below this is finished and visible to the range queries started after it
+            String upTo = rollupRepository.oldestRunningXid();
+            long[] ids = rollupRepository.productIdBounds();
+            List<CompletableFuture<Long>> ranges = new ArrayList<>();
+            if (ids != null) {
+                int workers = Math.max(1, settings.getRebuildWorkers());
+                long span = ids[1] - ids[0] + 1;
+                long step = Math.max(1, (span + workers * RANGES_PER_WORKER - 1) / (workers * RANGES_PER_WORKER));
+
+                for (long start = ids[0]; start <= ids[1]; start += step) {
+                    long from = start;
+                    long to = Math.min(start + step, ids[1] + 1);
+                    ranges.add(CompletableFuture.supplyAsync(
+                            () -> rollupRepository.rebuildProductRange(from, to, upTo), rollupRebuildExecutor));
+                }
+                // A failed range leaves the rollups unbuilt, so the next run starts over
+                CompletableFuture.allOf(ranges.toArray(CompletableFuture[]::new)).join();
+            }
+            long rows = ranges.stream().mapToLong(CompletableFuture::join).sum();
+
+            transactionTemplate.executeWithoutResult(status -> rollupRepository.finishRebuild(upTo));
+            rolledUpRows.increment(rows);
+            log.info("Rebuilt stock movement rollups from {} ledger rows", rows);
+            return rows;
+        });
+    }
+
+    // [from, to) defaulting to the last DEFAULT_BUCKETS buckets up to now, at most MAX_BUCKETS long
+    private static Instant[] resolveRange(RollupGranularity unit, String fromParam, String toParam) {
+        Instant to = TimeBounds.parse("to", toParam);
+        Instant from = TimeBounds.parse("from", fromParam);
+        if (to == null) {
+            to = Instant.now();
+        }
+        if (from == null) {
+            from = to.minus(unit.bucketSize().multipliedBy(DEFAULT_BUCKETS));
+        }
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        if (Duration.between(from, to).compareTo(unit.bucketSize().multipliedBy(MAX_BUCKETS)) > 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Range spans more than " + MAX_BUCKETS + " " + unit.unit() + " buckets"
+            );
+        }
+        return new Instant[] { from, to };
+    }
+}
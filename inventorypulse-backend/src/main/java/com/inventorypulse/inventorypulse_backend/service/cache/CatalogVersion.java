@@ -0,0 +1,44 @@
+package com.inventorypulse.inventorypulse_backend.service.cache;
+
+import com.inventorypulse.inventorypulse_backend.event.CatalogResyncEvent;
+import com.inventorypulse.inventorypulse_backend.event.ProductsChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog-wide change counter behind the ETags of product listings.
+ *
+ * It is bumped after every committed {@link ProductsChangedEvent}, and callers read it before they
+ * load the data it describes. A change that commits in between can then only make a response
+ * carry an older tag than its content, which costs the client one extra full response on its next
+ * poll; a tag can never claim content that was not in the response. A database sequence would not
+ * do: it moves before commit, so a tag could be issued for data that was not visible yet and then
+ * keep answering 304 after it was.
+ *
+ * The counter lives in this instance only, prefixed with its start time so tags never repeat
+ * across restarts. Changes committed by another instance reach it through the
+ * {@link InvalidationBus}; tags are per instance, so a client switching instances refetches once.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong changes = new AtomicLong();
+
+    public String etag() {
+        return "catalog-" + epoch + "-" + changes.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    @EventListener
+    public void onResync(CatalogResyncEvent event) {
+        changes.incrementAndGet();
+    }
+}
@@ -0,0 +1,317 @@
+package com.inventorypulse.inventorypulse_backend.service.cache;
+
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.event.CatalogResyncEvent;
+import com.inventorypulse.inventorypulse_backend.event.ProductsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the state each instance holds in memory (product cache, catalog ETag, search index, live
+ * streams) in step with changes committed by other instances, over Postgres LISTEN/NOTIFY.
+ *
+ * Sending: the ids of every local {@link ProductsChangedEvent} collect for
+ * {@code inventorypulse.invalidation.coalesce-window} and then go out as a few notifications, from
+ * one pooled connection and outside the writing transaction, so commits never queue on the
+ * database's notification lock. A flush naming more than {@code max-ids-per-flush} products sends
+ * a resync instead. Payloads are {@code <instance> <kind> <ids>}: kind {@code F} for changed
+ * products, {@code S} when only their stock changed, {@code R} for a resync without ids.
+ *
+ * Receiving: a dedicated connection (outside the pool) listens on the channel. Every batch of
+ * notifications that arrives together is merged and republished as at most two
+ * {@link ProductsChangedEvent}s marked remote; notifications from this instance are skipped.
+ * Notifications sent while the connection is down are lost, so every reconnect publishes a
+ * {@link CatalogResyncEvent} once listening again.
+ *
+ * A change is invisible to other instances only if this one dies between commit and flush; their
+ * cache TTLs bound how long that lasts.
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    // NOTIFY payloads must stay under 8000 bytes
+    private static final int MAX_PAYLOAD_CHARS = 7_900;
+
+    private static final String NOTIFY_SQL = """
+            SELECT pg_notify(?, payload) FROM unnest(?::text[]) AS t(payload)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ThreadPoolTaskScheduler invalidationScheduler;
+    private final ThreadPoolTaskScheduler invalidationListener;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryPulseProperties.Invalidation settings;
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+
+    // Changed ids waiting to be sent; true while only their stock changed
+    private final Map<Long, Boolean> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean resyncPending = new AtomicBoolean();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private volatile Connection listening;
+    private volatile boolean stopped;
+    private boolean connectedBefore;
+
+    private final Counter sent;
+    private final Counter received;
+    private final Counter resyncs;
+
+    public InvalidationBus(
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            ThreadPoolTaskScheduler invalidationScheduler,
+            ThreadPoolTaskScheduler invalidationListener,
+            ApplicationEventPublisher eventPublisher,
+            InventoryPulseProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.invalidationScheduler = invalidationScheduler;
+        this.invalidationListener = invalidationListener;
+        this.eventPublisher = eventPublisher;
+        this.settings = properties.getInvalidation();
+
+        this.sent = meterRegistry.counter("inventorypulse.invalidation.sent");
+        this.received = meterRegistry.counter("inventorypulse.invalidation.received");
+        this.resyncs = meterRegistry.counter("inventorypulse.invalidation.resyncs");
+        Gauge.builder("inventorypulse.invalidation.connected", this, bus -> bus.listening != null ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    // Identifies this instance in payloads, and its listening connection in pg_stat_activity
+    public String instanceId() {
+        return instanceId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (settings.isEnabled()) {
+            invalidationListener.scheduleWithFixedDelay(this::listen, settings.getReconnectDelay());
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        stopped = true;
+        Connection connection = listening;
+        if (connection != null) {
+            try {
+                // Unblocks the listen loop, which may be waiting on the socket
+                connection.abort(Runnable::run);
+            } catch (SQLException ex) {
+                log.debug("Closing the invalidation connection failed", ex);
+            }
+        }
+    }
+
+    // Runs on the committing thread: never blocks and never touches the database
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        // Remote changes were announced by the instance that made them
+        if (!settings.isEnabled() || event.remote()) {
+            return;
+        }
+        for (Long productId : event.productIds()) {
+            pending.merge(productId, event.stockOnly(), Boolean::logicalAnd);
+        }
+        scheduleFlush(settings.getCoalesceWindow());
+    }
+
+    private void scheduleFlush(Duration delay) {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            invalidationScheduler.schedule(this::flush, Instant.now().plus(delay));
+        } catch (TaskRejectedException ex) {
+            // Shutting down
+            flushing.set(false);
+        }
+    }
+
+    private void flush() {
+        List<Long> changed = new ArrayList<>();
+        List<Long> stockOnly = new ArrayList<>();
+        boolean resync = resyncPending.getAndSet(false);
+        for (Long productId : pending.keySet()) {
+            // Removed with its latest value, so a concurrent merge is either in this flush or the next
+            Boolean onlyStock = pending.remove(productId);
+            if (onlyStock != null) {
+                (onlyStock ? stockOnly : changed).add(productId);
+            }
+        }
+
+        List<String> payloads = new ArrayList<>();
+        if (resync || changed.size() + stockOnly.size() > settings.getMaxIdsPerFlush()) {
+            payloads.add(instanceId + " R");
+        } else {
+            addPayloads(payloads, 'F', changed);
+            addPayloads(payloads, 'S', stockOnly);
+        }
+
+        Duration next = settings.getCoalesceWindow();
+        try {
+            if (!payloads.isEmpty()) {
+                sendNotifications(payloads);
+                sent.increment(payloads.size());
+            }
+        } catch (RuntimeException ex) {
+            // Whatever was in this flush goes out as a resync once the database is back
+            log.warn("Sending invalidations failed, retrying in {}", settings.getReconnectDelay(), ex);
+            resyncPending.set(true);
+            next = settings.getReconnectDelay();
+        }
+
+        flushing.set(false);
+        // Changes that arrived after the pending map was emptied but before the flag was cleared
+        if (!pending.isEmpty() || resyncPending.get()) {
+            scheduleFlush(next);
+        }
+    }
+
+    private void addPayloads(List<String> payloads, char kind, List<Long> ids) {
+        StringBuilder payload = new StringBuilder();
+        for (Long id : ids) {
+            if (payload.length() > MAX_PAYLOAD_CHARS) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+            }
+            payload.append(payload.isEmpty() ? instanceId + " " + kind + " " : ",").append(id);
+        }
+        if (!payload.isEmpty()) {
+            payloads.add(payload.toString());
+        }
+    }
+
+    private void sendNotifications(List<String> payloads) {
+        jdbcTemplate.execute(NOTIFY_SQL, (PreparedStatement ps) -> {
+            ps.setString(1, settings.getChannel());
+            ps.setArray(2, ps.getConnection().createArrayOf("text", payloads.toArray(String[]::new)));
+            return ps.execute();
+        });
+    }
+
+    // One connection's lifetime; returns when it drops, to be started again after the reconnect delay
+    private void listen() {
+        if (stopped) {
+            return;
+        }
+        try (Connection connection = connect()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN \"" + settings.getChannel().replace("\"", "\"\"") + "\"");
+            }
+            listening = connection;
+            if (connectedBefore) {
+                // Listening again: anything sent while the connection was down has been missed
+                log.info("Invalidation listener reconnected, resyncing");
+                resync();
+            }
+            connectedBefore = true;
+
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            int pingMillis = (int) Math.max(1, settings.getPingInterval().toMillis());
+            while (!stopped) {
+                PGNotification[] notifications = pgConnection.getNotifications(pingMillis);
+                if (notifications != null && notifications.length > 0) {
+                    receive(notifications);
+                } else if (!connection.isValid((int) Math.max(1, settings.getPingInterval().toSeconds()))) {
+                    throw new SQLException("Invalidation connection is no longer valid");
+                }
+            }
+        } catch (SQLException | RuntimeException ex) {
+            if (!stopped) {
+                log.warn("Invalidation listener lost its connection, reconnecting in {}", settings.getReconnectDelay(), ex);
+            }
+        } finally {
+            listening = null;
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties connectionProperties = new Properties();
+        connectionProperties.setProperty("user", dataSourceProperties.determineUsername());
+        connectionProperties.setProperty("password", dataSourceProperties.determinePassword());
+        connectionProperties.setProperty("ApplicationName", "inventorypulse-invalidation-" + instanceId);
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), connectionProperties);
+    }
+
+    private void receive(PGNotification[] notifications) {
+        Set<Long> changed = new HashSet<>();
+        Set<Long> stockOnly = new HashSet<>();
+        boolean resync = false;
+
+        for (PGNotification notification : notifications) {
+            String[] parts = notification.getParameter().split(" ", 3);
+            if (parts.length < 2 || parts[0].equals(instanceId)) {
+                continue;
+            }
+            received.increment();
+            switch (parts[1]) {
+                case "R" -> resync = true;
+                case "F" -> parseIds(parts, changed);
+                case "S" -> parseIds(parts, stockOnly);
+                default -> log.debug("Ignoring invalidation payload {}", notification.getParameter());
+            }
+        }
+
+        if (resync) {
+            resync();
+            return;
+        }
+        stockOnly.removeAll(changed);
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(ProductsChangedEvent.fromOtherInstance(changed, false));
+        }
+        if (!stockOnly.isEmpty()) {
+            eventPublisher.publishEvent(ProductsChangedEvent.fromOtherInstance(stockOnly, true));
+        }
+    }
+
+    private static void parseIds(String[] parts, Set<Long> into) {
+        if (parts.length < 3) {
+            return;
+        }
+        for (String id : parts[2].split(",")) {
+            into.add(Long.parseLong(id));
+        }
+    }
+
+    private void resync() {
+        resyncs.increment();
+        eventPublisher.publishEvent(new CatalogResyncEvent());
+    }
+}
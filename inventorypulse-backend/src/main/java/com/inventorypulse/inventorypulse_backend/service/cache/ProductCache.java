@@ -0,0 +1,99 @@
+package com.inventorypulse.inventorypulse_backend.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.event.CatalogResyncEvent;
+import com.inventorypulse.inventorypulse_backend.event.ProductsChangedEvent;
+import com.inventorypulse.inventorypulse_backend.repository.ProductReadRepository;
+import com.inventorypulse.inventorypulse_backend.repository.ProductReadRepository.VersionedProduct;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Read-through cache of single products by id, bounded by size and time since load.
+ *
+ * Entries are immutable {@link ProductResponse}s paired with their row version, so nothing a
+ * caller does can change a cached value and the version always describes the cached state. Every committed {@link ProductsChangedEvent} (edits, deletes, imports and stock movements)
+ * drops the affected ids on the committing thread, before the write returns, so once a write has
+ * returned no reader can be served what it replaced.
+ *
+ * A load runs inside the cache's per-key compute, and invalidating a key waits for a load of that
+ * key in progress. A reader that fetched the old row just before a commit therefore cannot put it
+ * back after the commit's invalidation. Missing products are not cached. Changes committed by
+ * other instances arrive through the {@link InvalidationBus}, shortly after their commit.
+ */
+@Component
+public class ProductCache {
+
+    private final ProductReadRepository productReadRepository;
+    private final boolean enabled;
+    private final Cache<Long, VersionedProduct> cache;
+
+    public ProductCache(
+            ProductReadRepository productReadRepository,
+            InventoryPulseProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.productReadRepository = productReadRepository;
+
+        InventoryPulseProperties.Cache settings = properties.getProducts().getCache();
+        this.enabled = settings.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, settings.getMaximumSize()))
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+
+        counter(meterRegistry, "inventorypulse.products.cache", CacheStats::hitCount, "result", "hit");
+        counter(meterRegistry, "inventorypulse.products.cache", CacheStats::missCount, "result", "miss");
+        // Size and TTL evictions only; invalidations after writes are not counted
+        counter(meterRegistry, "inventorypulse.products.cache.evictions", CacheStats::evictionCount);
+        Gauge.builder("inventorypulse.products.cache.size", cache, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    public Optional<ProductResponse> get(long id) {
+        return getVersioned(id).map(VersionedProduct::product);
+    }
+
+    public Optional<VersionedProduct> getVersioned(long id) {
+        if (!enabled) {
+            return load(id);
+        }
+        // A null from the loader is not stored, so the next lookup of a missing id asks again
+        return Optional.ofNullable(cache.get(id, key -> load(key).orElse(null)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        if (enabled) {
+            cache.invalidateAll(event.productIds());
+        }
+    }
+
+    // Another instance's changes may have been missed
+    @EventListener
+    public void onResync(CatalogResyncEvent event) {
+        cache.invalidateAll();
+    }
+
+    private Optional<VersionedProduct> load(long id) {
+        return productReadRepository.findVersionedById(id);
+    }
+
+    private void counter(MeterRegistry registry, String name, ToDoubleFunction<CacheStats> statistic, String... tags) {
+        FunctionCounter.builder(name, cache, c -> statistic.applyAsDouble(c.stats()))
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,144 @@
+package com.inventorypulse.inventorypulse_backend.service.csv;
+
+import java.util.Arrays;
+
+/**
+ * A view over one record inside a block being tokenized by {@link CsvTokenizer}.
+ *
+ * Fields are stored as offsets into the shared character buffer, so nothing is allocated until
+ * a field is actually read. The instance is reused for every record of a block and must not be
+ * retained after the callback returns.
+ */
+public final class CsvRecord {
+
+    private char[] buffer;
+    private long lineNumber;
+    private int size;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] quoted = new boolean[16];
+    private boolean[] escaped = new boolean[16];
+
+    void reset(char[] buffer, long lineNumber) {
+        this.buffer = buffer;
+        this.lineNumber = lineNumber;
+        this.size = 0;
+    }
+
+    void addField(int start, int end, boolean isQuoted, boolean hasEscapedQuotes) {
+        if (size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            quoted = Arrays.copyOf(quoted, capacity);
+            escaped = Arrays.copyOf(escaped, capacity);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        quoted[size] = isQuoted;
+        escaped[size] = hasEscapedQuotes;
+        size++;
+    }
+
+    // Physical line (1-based, counting the header) on which this record starts
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // True for an empty line, i.e. a single unquoted field made of whitespace only
+    public boolean isBlankLine() {
+        return size == 1 && !quoted[0] && isBlank(0);
+    }
+
+    public boolean isBlank(int index) {
+        return trimmedStart(index) >= trimmedEnd(index);
+    }
+
+    /**
+     * Returns the field value. Unquoted fields are trimmed like {@link String#trim()};
+     * quoted fields keep their content verbatim with {@code ""} unescaped.
+     */
+    public String get(int index) {
+        int start = trimmedStart(index);
+        int end = trimmedEnd(index);
+        if (!escaped[index]) {
+            return new String(buffer, start, end - start);
+        }
+
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = buffer[i];
+            sb.append(c);
+            if (c == '"') {
+                i++; // skip the second quote of an escaped pair
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parses the field as a base-10 int straight from the buffer.
+     * Returns null for blank, malformed or out-of-range values.
+     */
+    public Integer getInt(int index) {
+        int start = trimmedStart(index);
+        int end = trimmedEnd(index);
+        if (start >= end) {
+            return null;
+        }
+
+        boolean negative = buffer[start] == '-';
+        if (negative || buffer[start] == '+') {
+            start++;
+            if (start == end) {
+                return null;
+            }
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return null;
+            }
+        }
+
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+            return null;
+        }
+        return (int) value;
+    }
+
+    private int trimmedStart(int index) {
+        int start = starts[index];
+        if (quoted[index]) {
+            return start;
+        }
+        int end = ends[index];
+        while (start < end && buffer[start] <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimmedEnd(int index) {
+        int end = ends[index];
+        if (quoted[index]) {
+            return end;
+        }
+        int start = starts[index];
+        while (end > start && buffer[end - 1] <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,162 @@
+package com.inventorypulse.inventorypulse_backend.service.csv;
+
+import java.util.function.Consumer;
+
+/**
+ * RFC 4180 tokenizer working directly on a character buffer.
+ *
+ * Supports quoted fields containing commas, newlines and doubled quotes. Parsing is lenient in
+ * the usual places: whitespace before an opening quote is ignored, anything between a closing
+ * quote and the next delimiter is dropped, a quote inside an unquoted field is kept literally,
+ * and an unterminated quote runs to the end of the input.
+ *
+ * {@link #findLastRecordEnd} and {@link #forEachRecord} follow the same rules, so a buffer split
+ * at a boundary found by the former is tokenized identically to the unsplit input.
+ */
+public final class CsvTokenizer {
+
+    /**
+     * End of the last complete record in a scanned range.
+     *
+     * @param end   index just past the last record terminator, or -1 if there is none
+     * @param lines newline characters in {@code [from, end)}, including ones inside quotes
+     */
+    public record Boundary(int end, int lines) { }
+
+    private CsvTokenizer() {
+    }
+
+    /**
+     * Scans {@code buffer[from, to)}, which must begin at a record boundary, for the end of the
+     * last complete record.
+     */
+    public static Boundary findLastRecordEnd(char[] buffer, int from, int to) {
+        int lastEnd = -1;
+        int linesAtLastEnd = 0;
+        int lines = 0;
+        int i = from;
+
+        while (i < to) {
+            int p = skipBlanks(buffer, i, to);
+
+            if (p < to && buffer[p] == '"') {
+                p++;
+                while (true) {
+                    while (p < to && buffer[p] != '"') {
+                        if (buffer[p] == '\n') {
+                            lines++;
+                        }
+                        p++;
+                    }
+                    if (p + 1 < to && buffer[p + 1] == '"') {
+                        p += 2;
+                        continue;
+                    }
+                    p++;
+                    break;
+                }
+            }
+            p = skipToDelimiter(buffer, p, to);
+
+            if (p >= to) {
+                break;
+            }
+            if (buffer[p] == '\n') {
+                lines++;
+                lastEnd = p + 1;
+                linesAtLastEnd = lines;
+            }
+            i = p + 1;
+        }
+        return new Boundary(lastEnd, linesAtLastEnd);
+    }
+
+    /**
+     * Tokenizes every record in {@code buffer[from, to)}. The range must begin at a record
+     * boundary; a final record without a trailing newline is still emitted.
+     *
+     * @param firstLine physical line number of the record starting at {@code from}
+     * @param consumer  receives a reused {@link CsvRecord} view per record
+     */
+    public static void forEachRecord(char[] buffer, int from, int to, long firstLine, Consumer<CsvRecord> consumer) {
+        CsvRecord record = new CsvRecord();
+        long line = firstLine;
+        int i = from;
+
+        while (i < to) {
+            record.reset(buffer, line);
+
+            while (true) {
+                int fieldStart = i;
+                int p = skipBlanks(buffer, i, to);
+
+                if (p < to && buffer[p] == '"') {
+                    int contentStart = ++p;
+                    int contentEnd;
+                    boolean escapedQuotes = false;
+
+                    while (true) {
+                        while (p < to && buffer[p] != '"') {
+                            if (buffer[p] == '\n') {
+                                line++;
+                            }
+                            p++;
+                        }
+                        if (p >= to) {
+                            contentEnd = to; // unterminated quote
+                            break;
+                        }
+                        if (p + 1 < to && buffer[p + 1] == '"') {
+                            escapedQuotes = true;
+                            p += 2;
+                            continue;
+                        }
+                        contentEnd = p++;
+                        break;
+                    }
+
+                    p = skipToDelimiter(buffer, p, to);
+                    record.addField(contentStart, contentEnd, true, escapedQuotes);
+                } else {
+                    p = skipToDelimiter(buffer, p, to);
+                    record.addField(fieldStart, p, false, false);
+                }
+
+                if (p >= to) {
+                    i = to;
+                    break;
+                }
+                i = p + 1;
+                if (buffer[p] == '\n') {
+                    line++;
+                    break;
+                }
+                if (i == to) {
+                    // Trailing delimiter at the very end: one more, empty field
+                    record.addField(to, to, false, false);
+                    break;
+                }
+            }
+
+            consumer.accept(record);
+        }
+    }
+
+    private static int skipBlanks(char[] buffer, int p, int to) {
+        while (p < to && (buffer[p] == ' ' || buffer[p] == '\t')) {
+            p++;
+        }
+        return p;
+    }
+
+    private static int skipToDelimiter(char[] buffer, int p, int to) {
+        while (p < to) {
+            char c = buffer[p];
+            if (c == ',' || c == '\n') {
+                return p;
+            }
+            p++;
+        }
+        return p;
+    }
+}
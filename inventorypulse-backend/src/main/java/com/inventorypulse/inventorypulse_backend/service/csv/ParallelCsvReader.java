@@ -0,0 +1,136 @@
+package com.inventorypulse.inventorypulse_backend.service.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Splits a CSV stream into record-aligned blocks and tokenizes them in parallel.
+ *
+ * The calling thread reads fixed-size blocks, cuts each one after its last complete record and
+ * carries the remainder into the next block. Blocks are mapped on a fork-join pool while results
+ * are handed to the consumer strictly in input order. At most {@code maxInFlightBlocks} blocks are
+ * held at once, so memory stays bounded regardless of the input size.
+ *
+ * @param <T> per-record result produced by the mapper on a pool thread
+ */
+public final class ParallelCsvReader<T> {
+
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final int maxInFlightBlocks;
+    private final Function<CsvRecord, T> mapper;
+
+    public ParallelCsvReader(ForkJoinPool pool, int blockSize, int maxInFlightBlocks, Function<CsvRecord, T> mapper) {
+        this.pool = pool;
+        this.blockSize = Math.max(1024, blockSize);
+        this.maxInFlightBlocks = Math.max(1, maxInFlightBlocks);
+        this.mapper = mapper;
+    }
+
+    /**
+     * Reads the whole stream, calling {@code consumer} once per record in input order.
+     * Null mapper results are dropped.
+     *
+     * @param skipHeader whether the first record is a header that should not be mapped
+     */
+    public void read(Reader reader, boolean skipHeader, Consumer<T> consumer) throws IOException {
+        Deque<InFlightBlock<T>> inFlight = new ArrayDeque<>();
+        Deque<char[]> spareBuffers = new ArrayDeque<>();
+
+        char[] buffer = new char[blockSize];
+        int length = 0;
+        long nextLine = 1;
+        boolean firstBlock = true;
+        boolean eof = false;
+
+        while (!eof) {
+            int read = reader.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                eof = true;
+            } else {
+                length += read;
+                if (length < buffer.length) {
+                    continue; // keep filling the block before cutting it
+                }
+            }
+
+            CsvTokenizer.Boundary boundary = eof
+                    ? new CsvTokenizer.Boundary(length, 0)
+                    : CsvTokenizer.findLastRecordEnd(buffer, 0, length);
+            int end = boundary.end();
+            if (end <= 0) {
+                if (eof) {
+                    break;
+                }
+                // A single record is larger than the block: grow and keep reading
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                continue;
+            }
+
+            char[] block = buffer;
+            long blockFirstLine = nextLine;
+            boolean skipFirst = firstBlock && skipHeader;
+            inFlight.addLast(new InFlightBlock<>(
+                    pool.submit(() -> mapBlock(block, end, blockFirstLine, skipFirst)),
+                    block
+            ));
+
+            nextLine += boundary.lines();
+            firstBlock = false;
+
+            // Carry the incomplete tail over into the next buffer, reusing drained blocks when possible
+            int remainder = length - end;
+            char[] next = spareBuffers.poll();
+            if (next == null || next.length < remainder + 1024) {
+                next = new char[Math.max(blockSize, remainder + 1024)];
+            }
+            System.arraycopy(buffer, end, next, 0, remainder);
+            length = remainder;
+            buffer = next;
+
+            while (inFlight.size() >= maxInFlightBlocks) {
+                spareBuffers.push(drain(inFlight.removeFirst(), consumer));
+            }
+        }
+
+        while (!inFlight.isEmpty()) {
+            drain(inFlight.removeFirst(), consumer);
+        }
+    }
+
+    private List<T> mapBlock(char[] block, int end, long firstLine, boolean skipFirst) {
+        List<T> results = new ArrayList<>();
+        boolean[] skip = {skipFirst};
+
+        CsvTokenizer.forEachRecord(block, 0, end, firstLine, record -> {
+            if (skip[0]) {
+                skip[0] = false;
+                return;
+            }
+            T mapped = mapper.apply(record);
+            if (mapped != null) {
+                results.add(mapped);
+            }
+        });
+        return results;
+    }
+
+    // Hands a finished block's results to the consumer and returns its buffer for reuse
+    private char[] drain(InFlightBlock<T> block, Consumer<T> consumer) {
+        for (T result : block.task().join()) {
+            consumer.accept(result);
+        }
+        return block.buffer();
+    }
+
+    private record InFlightBlock<T>(ForkJoinTask<List<T>> task, char[] buffer) { }
+}
@@ -0,0 +1,77 @@
+package com.inventorypulse.inventorypulse_backend.service.facets;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductFacetsResponse;
+import com.inventorypulse.inventorypulse_backend.repository.ProductReadRepository;
+import com.inventorypulse.inventorypulse_backend.service.cache.CatalogVersion;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Category and brand facet counts for the catalog or for one search query.
+ *
+ * Whole-catalog counts are read from totals the database keeps up to date on every product
+ * change (V16), so they are always current and cost a read of a few rows.
+ *
+ * Counts for a query are cached per query for a few seconds ({@code inventorypulse.products.facets.ttl})
+ * and served as they were for that long, whatever changed since. Keying them by {@link CatalogVersion}
+ * instead would retire them on every stock movement, which on a busy catalog is nearly every
+ * request. Each entry keeps the version read before it was computed as its ETag, so a client can
+ * only ever revalidate the counts it was given, never receive 304 for counts it has not seen.
+ * Between refreshes, a dashboard polling the same filters costs a map lookup instead of a GROUP BY.
+ */
+@Service
+public class ProductFacetService {
+
+    /** Counts as computed at one point, tagged with the catalog version read just before. */
+    public record Snapshot(String etag, ProductFacetsResponse facets) { }
+
+    private final ProductReadRepository productReadRepository;
+    private final CatalogVersion catalogVersion;
+    private final Cache<String, Snapshot> cache;
+
+    public ProductFacetService(
+            ProductReadRepository productReadRepository,
+            CatalogVersion catalogVersion,
+            InventoryPulseProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.productReadRepository = productReadRepository;
+        this.catalogVersion = catalogVersion;
+
+        InventoryPulseProperties.Facets settings = properties.getProducts().getFacets();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, settings.getCacheSize()))
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+
+        counter(meterRegistry, CacheStats::hitCount, "hit");
+        counter(meterRegistry, CacheStats::missCount, "miss");
+    }
+
+    // Blank means the whole catalog; matching is case-insensitive, so case does not split entries
+    public Snapshot getFacets(String query) {
+        if (query == null || query.isBlank()) {
+            String etag = catalogVersion.etag();
+            return new Snapshot(etag, productReadRepository.facetTotals());
+        }
+        return cache.get(query.trim().toLowerCase(Locale.ROOT), q -> {
+            String etag = catalogVersion.etag();
+            return new Snapshot(etag, productReadRepository.aggregateFacets(q));
+        });
+    }
+
+    private void counter(MeterRegistry registry, ToDoubleFunction<CacheStats> statistic, String result) {
+        FunctionCounter.builder("inventorypulse.products.facets.cache", cache, c -> statistic.applyAsDouble(c.stats()))
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,221 @@
+package com.inventorypulse.inventorypulse_backend.service.idempotency;
+
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionResponse;
+import com.inventorypulse.inventorypulse_backend.model.InventoryTransaction;
+import com.inventorypulse.inventorypulse_backend.repository.InventoryBulkRepository;
+import com.inventorypulse.inventorypulse_backend.repository.InventoryTransactionsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Makes inventory transactions idempotent on {@code externalReference}.
+ *
+ * The unique constraint on {@code inventory_transactions.external_reference} is the source of
+ * truth: a movement is simply inserted, and if the reference turns out to be taken the original
+ * transaction is returned instead of an error. In front of that sit two in-memory shortcuts so a
+ * typical request does not need a separate lookup round trip:
+ * <ul>
+ *   <li>a bounded LRU cache of recently written transactions answers retries directly;</li>
+ *   <li>a Bloom filter of every reference seen (loaded at startup, fed on every write) proves
+ *       most new references unused without asking the database.</li>
+ * </ul>
+ * Neither shortcut is needed for correctness. References written by another instance are
+ * missing from this instance's filter, which only means the insert hits the constraint and the
+ * original is fetched then.
+ */
+@Slf4j
+@Service
+public class TransactionIdempotencyService {
+
+    private final InventoryTransactionsRepository transactionsRepository;
+    private final InventoryBulkRepository inventoryBulkRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, InventoryTransactionResponse> recent;
+    private final BloomFilter seenReferences;
+    // Until the filter holds the existing ledger, its negatives prove nothing
+    private volatile boolean filterLoaded;
+
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter filterNegatives;
+    private final Counter replays;
+
+    public TransactionIdempotencyService(
+            InventoryTransactionsRepository transactionsRepository,
+            InventoryBulkRepository inventoryBulkRepository,
+            TransactionTemplate transactionTemplate,
+            InventoryPulseProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.transactionsRepository = transactionsRepository;
+        this.inventoryBulkRepository = inventoryBulkRepository;
+        this.transactionTemplate = transactionTemplate;
+
+        InventoryPulseProperties.Idempotency settings = properties.getInventory().getIdempotency();
+        int cacheSize = Math.max(1, settings.getCacheSize());
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, InventoryTransactionResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.seenReferences = new BloomFilter(settings.getExpectedReferences(), settings.getFalsePositiveRate());
+
+        this.cacheHits = meterRegistry.counter("inventorypulse.idempotency.cache", "result", "hit");
+        this.cacheMisses = meterRegistry.counter("inventorypulse.idempotency.cache", "result", "miss");
+        this.filterNegatives = meterRegistry.counter("inventorypulse.idempotency.filter.negatives");
+        this.replays = meterRegistry.counter("inventorypulse.idempotency.replays");
+        meterRegistry.gauge("inventorypulse.idempotency.cache.size", recent, Map::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadExistingReferences() {
+        AtomicLong count = new AtomicLong();
+        transactionTemplate.executeWithoutResult(status ->
+                inventoryBulkRepository.forEachExternalReference(reference -> {
+                    seenReferences.put(reference);
+                    count.incrementAndGet();
+                })
+        );
+        filterLoaded = true;
+        log.info("Loaded {} external references into the idempotency filter", count.get());
+    }
+
+    /**
+     * Looks for an earlier transaction with this reference: cache first, then the Bloom filter,
+     * and only when the filter cannot rule it out, the database.
+     */
+    public Optional<InventoryTransactionResponse> findOriginal(String externalReference) {
+        if (externalReference == null) {
+            return Optional.empty();
+        }
+
+        InventoryTransactionResponse cached = recent.get(externalReference);
+        if (cached != null) {
+            cacheHits.increment();
+            return Optional.of(cached);
+        }
+        cacheMisses.increment();
+
+        if (filterLoaded && !seenReferences.mightContain(externalReference)) {
+            filterNegatives.increment();
+            return Optional.empty();
+        }
+
+        Optional<InventoryTransactionResponse> stored = loadOriginal(externalReference);
+        stored.ifPresent(this::remember);
+        return stored;
+    }
+
+    /**
+     * {@link #findOriginal} for many references at once: the cache and filter rule out what they
+     * can, and the rest is looked up in one query. After a conflict the filter is skipped, since
+     * the reference that conflicted may not have reached it yet.
+     */
+    public Map<String, InventoryTransactionResponse> findOriginals(Collection<String> externalReferences, boolean afterConflict) {
+        Map<String, InventoryTransactionResponse> originals = new HashMap<>();
+        List<String> unknown = new ArrayList<>();
+        for (String reference : externalReferences) {
+            InventoryTransactionResponse cached = recent.get(reference);
+            if (cached != null) {
+                cacheHits.increment();
+                originals.put(reference, cached);
+                continue;
+            }
+            cacheMisses.increment();
+            if (!afterConflict && filterLoaded && !seenReferences.mightContain(reference)) {
+                filterNegatives.increment();
+                continue;
+            }
+            unknown.add(reference);
+        }
+
+        Map<String, InventoryTransactionResponse> stored = inventoryBulkRepository.findByExternalReferences(unknown);
+        stored.values().forEach(this::remember);
+        originals.putAll(stored);
+        return originals;
+    }
+
+    // Called when the insert hit the unique constraint: the original is committed, so it must exist
+    public InventoryTransactionResponse originalAfterConflict(String externalReference) {
+        return loadOriginal(externalReference)
+                .map(original -> {
+                    remember(original);
+                    return original;
+                })
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "Transaction with external reference '" + externalReference + "' already exists"
+                ));
+    }
+
+    /**
+     * Answers a retried movement with its original transaction. A reference reused for a
+     * different product or delta is a client bug rather than a retry and is still refused.
+     */
+    public InventoryTransactionResponse replay(Long productId, int delta, InventoryTransactionResponse original) {
+        if (!isRetryOf(productId, delta, original)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, reuseMessage(original));
+        }
+        return original;
+    }
+
+    // Same product and delta as the original; counted as a replay when it is
+    public boolean isRetryOf(Long productId, int delta, InventoryTransactionResponse original) {
+        boolean retry = original.productId().equals(productId) && original.delta() == delta;
+        if (retry) {
+            replays.increment();
+        }
+        return retry;
+    }
+
+    public static String reuseMessage(InventoryTransactionResponse original) {
+        return "External reference '" + original.externalReference() +
+                "' was already used for transaction " + original.id();
+    }
+
+    // Records a committed transaction so retries of it are answered from memory
+    public void remember(InventoryTransactionResponse transaction) {
+        if (transaction.externalReference() == null) {
+            return;
+        }
+        seenReferences.put(transaction.externalReference());
+        recent.put(transaction.externalReference(), transaction);
+    }
+
+    private Optional<InventoryTransactionResponse> loadOriginal(String externalReference) {
+        return transactionsRepository.findByExternalReference(externalReference).map(this::toResponse);
+    }
+
+    private InventoryTransactionResponse toResponse(InventoryTransaction tx) {
+        return new InventoryTransactionResponse(
+                tx.getId(),
+                tx.getProduct().getId(),
+                tx.getDelta(),
+                tx.getReason(),
+                tx.getExternalReference(),
+                tx.getActor(),
+                tx.getCreatedAt(),
+                tx.getResultingStock()
+        );
+    }
+}
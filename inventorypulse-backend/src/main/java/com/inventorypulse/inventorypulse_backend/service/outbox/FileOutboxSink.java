@@ -0,0 +1,57 @@
+package com.inventorypulse.inventorypulse_backend.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorypulse.inventorypulse_backend.dto.outbox.OutboxEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a JSON-lines file. A batch is one write, forced to disk before the relay
+ * deletes it from the outbox; a crash in between repeats the batch, it never loses it.
+ */
+public class FileOutboxSink implements OutboxSink, AutoCloseable {
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+
+    public FileOutboxSink(ObjectMapper objectMapper, Path file) throws IOException {
+        this.objectMapper = objectMapper;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 256);
+            for (OutboxEvent event : events) {
+                objectMapper.writeValue(lines, event);
+                lines.write('\n');
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,31 @@
+package com.inventorypulse.inventorypulse_backend.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorypulse.inventorypulse_backend.dto.outbox.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// One JSON line per event on the inventorypulse.outbox logger, for development and log shippers
+@RequiredArgsConstructor
+public class LogOutboxSink implements OutboxSink {
+
+    private static final Logger log = LoggerFactory.getLogger("inventorypulse.outbox");
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        try {
+            for (OutboxEvent event : events) {
+                log.info(objectMapper.writeValueAsString(event));
+            }
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
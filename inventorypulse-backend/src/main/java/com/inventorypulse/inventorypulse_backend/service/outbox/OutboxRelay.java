@@ -0,0 +1,191 @@
+package com.inventorypulse.inventorypulse_backend.service.outbox;
+
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.outbox.OutboxEvent;
+import com.inventorypulse.inventorypulse_backend.event.ProductsChangedEvent;
+import com.inventorypulse.inventorypulse_backend.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Delivers committed outbox events to the {@link OutboxSink}, in batches, at least once.
+ *
+ * Each batch is claimed, handed to the sink and deleted in one transaction (see
+ * {@link OutboxRepository#claim}), so relays on several instances share the backlog without
+ * delivering one product's events out of order. The relay pulls: a slow sink only slows the
+ * relay down, and writers never wait for it. A failed publish rolls the batch back and pauses the
+ * relay for {@code inventorypulse.outbox.retry-delay}, doubling on every further failure.
+ *
+ * Runs on one background thread, woken by every committed change on this instance and polling
+ * for the rest.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    // Products to take a batch from are looked for among this many batches' worth of the oldest events
+    private static final int SCAN_WINDOW_BATCHES = 10;
+
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskScheduler outboxScheduler;
+    private final OutboxSink sink;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    // Only touched on the relay thread, or by a caller driving relayPending() directly
+    private Duration nextRetryDelay;
+    private Instant pausedUntil = Instant.MIN;
+
+    private final Counter published;
+    private final Counter failures;
+    private final Timer publishTimer;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicReference<Instant> oldestPending = new AtomicReference<>();
+
+    public OutboxRelay(
+            OutboxRepository outboxRepository,
+            TransactionTemplate transactionTemplate,
+            ThreadPoolTaskScheduler outboxScheduler,
+            OutboxSink sink,
+            InventoryPulseProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        InventoryPulseProperties.Outbox settings = properties.getOutbox();
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxScheduler = outboxScheduler;
+        this.sink = sink;
+        this.enabled = settings.isEnabled();
+        this.batchSize = Math.max(1, settings.getBatchSize());
+        this.pollInterval = settings.getPollInterval();
+        this.retryDelay = settings.getRetryDelay();
+        this.maxRetryDelay = settings.getMaxRetryDelay();
+        this.nextRetryDelay = retryDelay;
+
+        this.published = meterRegistry.counter("inventorypulse.outbox.published");
+        this.failures = meterRegistry.counter("inventorypulse.outbox.failures");
+        this.publishTimer = meterRegistry.timer("inventorypulse.outbox.publish");
+        Gauge.builder("inventorypulse.outbox.backlog", backlog, AtomicLong::get).register(meterRegistry);
+        // Age of the oldest event not yet delivered, as of the last run; 0 when there is none
+        Gauge.builder("inventorypulse.outbox.lag", oldestPending, oldest -> {
+            Instant since = oldest.get();
+            return since == null ? 0 : Math.max(0, Duration.between(since, Instant.now()).toMillis() / 1000.0);
+        }).baseUnit("seconds").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            outboxScheduler.scheduleWithFixedDelay(this::run, pollInterval);
+        }
+    }
+
+    // Runs on the committing thread: the events it appended are visible by now. Remote changes
+    // wake the relay of the instance that made them.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        if (!enabled || event.remote() || !wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            outboxScheduler.execute(this::run);
+        } catch (TaskRejectedException ex) {
+            // Shutting down; the events stay in the outbox for the next start
+            wakeUpPending.set(false);
+        }
+    }
+
+    private void run() {
+        wakeUpPending.set(false);
+        if (Instant.now().isBefore(pausedUntil)) {
+            return;
+        }
+        relayPending();
+    }
+
+    /**
+     * Delivers batches until the outbox is empty, as far as this relay can see, or the sink fails.
+     * Called on the relay thread; tests may call it directly when background relaying is off.
+     *
+     * @return the number of events delivered
+     */
+    public int relayPending() {
+        int delivered = 0;
+        try {
+            int batch;
+            do {
+                batch = relayBatch();
+                delivered += batch;
+            } while (batch == batchSize);
+
+            nextRetryDelay = retryDelay;
+            pausedUntil = Instant.MIN;
+        } catch (RuntimeException ex) {
+            failures.increment();
+            log.warn("Publishing outbox events failed, retrying in {}", nextRetryDelay, ex);
+            pausedUntil = Instant.now().plus(nextRetryDelay);
+            nextRetryDelay = min(nextRetryDelay.multipliedBy(2), maxRetryDelay);
+        }
+
+        refreshBacklog();
+        return delivered;
+    }
+
+    // The claim's locks are held while the sink publishes, so other relays skip these products meanwhile
+    private int relayBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxRepository.claim(batchSize, batchSize * SCAN_WINDOW_BATCHES);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            publishTimer.record(() -> sink.publish(events));
+            outboxRepository.delete(events.stream().map(OutboxEvent::id).toList());
+            return events.size();
+        });
+        int delivered = count != null ? count : 0;
+        published.increment(delivered);
+        return delivered;
+    }
+
+    private void refreshBacklog() {
+        try {
+            outboxRepository.backlog().ifPresentOrElse(
+                    pending -> {
+                        backlog.set(pending.pending());
+                        oldestPending.set(pending.oldest());
+                    },
+                    () -> {
+                        backlog.set(0);
+                        oldestPending.set(null);
+                    });
+        } catch (RuntimeException ex) {
+            log.debug("Could not read the outbox backlog", ex);
+        }
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,19 @@
+package com.inventorypulse.inventorypulse_backend.service.outbox;
+
+import com.inventorypulse.inventorypulse_backend.dto.outbox.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Where the outbox relay delivers committed events: a broker, another service, a file. Chosen by
+ * {@code inventorypulse.outbox.sink}.
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers a batch, in order: events for one product are in id order. Returns once the sink
+     * has accepted all of them; throwing makes the relay retry the whole batch later, so a sink
+     * may see an event more than once and consumers dedupe by {@link OutboxEvent#id()}.
+     */
+    void publish(List<OutboxEvent> events);
+}
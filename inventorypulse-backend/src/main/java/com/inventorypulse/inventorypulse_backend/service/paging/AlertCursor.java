@@ -0,0 +1,40 @@
+package com.inventorypulse.inventorypulse_backend.service.paging;
+
+import com.inventorypulse.inventorypulse_backend.dto.alert.AlertResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in the alert inbox, which is ordered by id descending (the order alerts were
+ * raised in). Encoded the same way as {@link TransactionCursor}, with its own prefix.
+ */
+public record AlertCursor(long id) {
+
+    private static final String PREFIX = "ALERTS";
+    private static final char SEPARATOR = '\u001f';
+
+    public static AlertCursor after(AlertResponse last) {
+        return new AlertCursor(last.id());
+    }
+
+    public String encode() {
+        String raw = PREFIX + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AlertCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR), 2);
+            if (!PREFIX.equals(parts[0])) {
+                throw new IllegalArgumentException("not an alert cursor");
+            }
+            return new AlertCursor(Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
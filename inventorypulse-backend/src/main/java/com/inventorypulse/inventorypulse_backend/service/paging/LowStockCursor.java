@@ -0,0 +1,42 @@
+package com.inventorypulse.inventorypulse_backend.service.paging;
+
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in the low-stock listing, which is ordered by shortfall
+ * ({@code reorderThreshold - stock}) descending and then by id.
+ *
+ * Encoded the same way as {@link ProductCursor}, with its own prefix so the two cannot be mixed up.
+ */
+public record LowStockCursor(int shortfall, long id) {
+
+    private static final String PREFIX = "LOW_STOCK";
+    private static final char SEPARATOR = '\u001f';
+
+    public static LowStockCursor after(ProductResponse last) {
+        return new LowStockCursor(last.reorderThreshold() - last.stock(), last.id());
+    }
+
+    public String encode() {
+        String raw = PREFIX + SEPARATOR + shortfall + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static LowStockCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR), 3);
+            if (!PREFIX.equals(parts[0])) {
+                throw new IllegalArgumentException("not a low-stock cursor");
+            }
+            return new LowStockCursor(Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
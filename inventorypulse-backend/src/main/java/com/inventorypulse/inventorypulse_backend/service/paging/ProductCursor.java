@@ -0,0 +1,54 @@
+package com.inventorypulse.inventorypulse_backend.service.paging;
+
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductSort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a product listing: the sort key of the last row returned plus its id.
+ *
+ * Clients only ever see the encoded form (URL-safe base64), so the layout can change without
+ * breaking anyone as long as old cursors keep decoding.
+ *
+ * @param title only set for {@link ProductSort#TITLE}
+ */
+public record ProductCursor(ProductSort sort, long id, String title) {
+
+    private static final char SEPARATOR = '\u001f';
+
+    public static ProductCursor after(ProductSort sort, ProductResponse last) {
+        return new ProductCursor(sort, last.id(), sort == ProductSort.TITLE ? last.title() : null);
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + id + (title != null ? SEPARATOR + title : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String encoded, ProductSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR), 3);
+            ProductSort sort = ProductSort.valueOf(parts[0]);
+            long id = Long.parseLong(parts[1]);
+            String title = parts.length > 2 ? parts[2] : null;
+
+            if (sort != expectedSort) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "Cursor was issued for sort=" + sort.name().toLowerCase() + ", not " + expectedSort.name().toLowerCase()
+                );
+            }
+            if (sort == ProductSort.TITLE && title == null) {
+                throw new IllegalArgumentException("title cursor without title");
+            }
+            return new ProductCursor(sort, id, title);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.inventorypulse.inventorypulse_backend.service.paging;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the {@code from}/{@code to} request parameters of time-ranged reads: an ISO-8601
+ * instant, or a date meaning midnight UTC. Blank means unbounded; anything else is a 400.
+ */
+public final class TimeBounds {
+
+    private TimeBounds() {
+    }
+
+    public static Instant parse(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return value.length() == 10
+                    ? LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant()
+                    : Instant.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    name + " must be an ISO-8601 instant or date, e.g. 2024-01-31T00:00:00Z or 2024-01-31"
+            );
+        }
+    }
+}
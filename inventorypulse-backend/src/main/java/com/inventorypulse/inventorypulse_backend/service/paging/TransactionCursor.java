@@ -0,0 +1,45 @@
+package com.inventorypulse.inventorypulse_backend.service.paging;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a product's transaction history, which is ordered by {@code createdAt}
+ * descending and then by id descending.
+ *
+ * Encoded the same way as {@link ProductCursor}, with its own prefix so the cursors cannot be
+ * mixed up. The timestamp is written in ISO-8601, which keeps its full microsecond precision.
+ */
+public record TransactionCursor(Instant createdAt, long id) {
+
+    private static final String PREFIX = "TX_HISTORY";
+    private static final char SEPARATOR = '\u001f';
+
+    public static TransactionCursor after(InventoryTransactionResponse last) {
+        return new TransactionCursor(last.createdAt(), last.id());
+    }
+
+    public String encode() {
+        String raw = PREFIX + SEPARATOR + createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR), 3);
+            if (!PREFIX.equals(parts[0])) {
+                throw new IllegalArgumentException("not a transaction history cursor");
+            }
+            return new TransactionCursor(Instant.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
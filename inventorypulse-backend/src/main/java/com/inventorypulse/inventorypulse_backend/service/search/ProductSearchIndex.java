@@ -0,0 +1,615 @@
+package com.inventorypulse.inventorypulse_backend.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory n-gram index over the searchable product fields (SKU, title, brand, category).
+ *
+ * Each product is kept as one string of its fields joined by newlines and gets an ordinal.
+ * Posting lists map grams to ordinals and are plain growable {@code int[]}s in ascending order,
+ * so there is no boxing and one array per gram; they are found through an open-addressing map
+ * keyed by the gram itself. Four kinds of grams are indexed: every
+ * lower-cased trigram inside a field, and the first one to three characters of the SKU, of the
+ * title and of every word.
+ *
+ * Matches are ranked in tiers: exact SKU (which is then the only result, as in the database
+ * search), SKU prefix, title prefix, word prefix, anywhere; within a tier by index order, which is
+ * id order for a freshly loaded index. Each tier has its own prefix lists, intersected with the
+ * rarest trigram list of the query, and the tiers are walked best first; the walk stops as soon
+ * as the requested page is full, so even a word found in a tenth of the catalog costs a few dozen
+ * candidate checks. Queries shorter than three characters only match at the start of a word.
+ *
+ * Updates never rewrite posting lists: a changed product gets a new ordinal, the old one is
+ * marked dead, and the index compacts itself once half of its ordinals are dead. One writer at a
+ * time and any number of readers are coordinated with a read-write lock.
+ *
+ * Every put carries the product's row version, and one that is not newer than what is indexed is
+ * ignored, so two refreshes that read the same product and apply out of order leave the newer
+ * state. Removed ids are remembered (ids are never reused), so a put read before the delete
+ * cannot bring the product back either.
+ */
+public final class ProductSearchIndex {
+
+    public record Match(long id, String sku, String title) { }
+
+    public record Stats(int documents, int grams, long postings, long estimatedBytes) { }
+
+    private static final int TIER_SKU_PREFIX = 1;
+    private static final int TIER_TITLE_PREFIX = 2;
+    private static final int TIER_WORD_PREFIX = 3;
+    private static final int TIER_ANYWHERE = 4;
+
+    private static final char FIELD_SEPARATOR = '\n';
+    private static final int PREFIX_LENGTH = 3;
+    private static final int MIN_COMPACTION = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids;
+    private long[] versions;
+    private String[] documents;
+    private int ordinals;
+    private BitSet dead;
+    private int deadCount;
+    private LongIntMap ordinalById;
+    // Keyed by a 64-bit hash of the SKU; a (practically impossible) collision only loses the shortcut
+    private LongIntMap ordinalBySku;
+    // Gram key to its index in postingLists
+    private LongIntMap postingSlots;
+    private IntList[] postingLists;
+    private int grams;
+    // Survives compaction; the values are unused
+    private final LongIntMap removed = new LongIntMap(16);
+
+    public ProductSearchIndex() {
+        reset(1024);
+    }
+
+    /**
+     * Adds the product, or replaces what was indexed for it before unless that is at least as
+     * new as {@code version}. Does nothing for a product that was removed.
+     */
+    public void put(long id, long version, String sku, String title, String brand, String category) {
+        String document = join(sku, title, brand, category);
+
+        lock.writeLock().lock();
+        try {
+            if (removed.get(id) >= 0) {
+                return;
+            }
+            int previous = ordinalById.get(id);
+            if (previous >= 0) {
+                if (versions[previous] >= version) {
+                    return;
+                }
+                if (documents[previous].equals(document)) {
+                    versions[previous] = version;
+                    return;
+                }
+                kill(previous);
+            }
+            ordinalById.put(id, append(id, version, document));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removed.put(id, 0);
+            int ordinal = ordinalById.remove(id);
+            if (ordinal >= 0) {
+                kill(ordinal);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked matches {@code offset} to {@code offset + limit}. A query that is exactly a SKU
+     * (case-sensitive, as in the database) matches only that product.
+     */
+    public List<Match> search(String query, int limit, int offset) {
+        String raw = query.trim();
+        String q = lowerCase(raw);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int exact = ordinalBySku.get(skuKey(raw));
+            if (exact >= 0 && !dead.get(exact) && isExactSku(documents[exact], raw)) {
+                return offset == 0 ? List.of(toMatch(exact)) : List.of();
+            }
+
+            // Every match contains each trigram of the query, so the rarest one bounds all tiers
+            IntList rarest = null;
+            for (int i = 0; i + 3 <= q.length(); i++) {
+                IntList list = postings(trigramKey(q.charAt(i), q.charAt(i + 1), q.charAt(i + 2)));
+                if (list == null) {
+                    return List.of();
+                }
+                if (rarest == null || list.size < rarest.size) {
+                    rarest = list;
+                }
+            }
+
+            int wanted = offset + limit;
+            List<Integer> found = new ArrayList<>(Math.min(wanted, 1024));
+            for (int tier = TIER_SKU_PREFIX; tier <= TIER_ANYWHERE && found.size() < wanted; tier++) {
+                int currentTier = tier;
+                IntPredicate collector = ordinal -> {
+                    if (!dead.get(ordinal) && tier(documents[ordinal], q) == currentTier) {
+                        found.add(ordinal);
+                    }
+                    return found.size() < wanted;
+                };
+
+                if (tier == TIER_ANYWHERE) {
+                    if (rarest != null) {
+                        walk(rarest, null, collector);
+                    }
+                } else {
+                    IntList prefixList = postings(prefixKey(tier, q, 0, Math.min(PREFIX_LENGTH, q.length())));
+                    if (prefixList != null) {
+                        walk(prefixList, rarest, collector);
+                    }
+                }
+            }
+
+            List<Match> matches = new ArrayList<>(Math.max(0, found.size() - offset));
+            for (int i = offset; i < found.size(); i++) {
+                matches.add(toMatch(found.get(i)));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids of every indexed product, in no particular order. */
+    public long[] ids() {
+        lock.readLock().lock();
+        try {
+            long[] live = new long[ordinalById.size];
+            int next = 0;
+            for (int ordinal = dead.nextClearBit(0); ordinal < ordinals; ordinal = dead.nextClearBit(ordinal + 1)) {
+                live[next++] = ids[ordinal];
+            }
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Gives back the slack of the growable arrays; worth calling after a bulk load. */
+    public void trimToSize() {
+        lock.writeLock().lock();
+        try {
+            ids = Arrays.copyOf(ids, Math.max(1, ordinals));
+            versions = Arrays.copyOf(versions, Math.max(1, ordinals));
+            documents = Arrays.copyOf(documents, Math.max(1, ordinals));
+            postingLists = Arrays.copyOf(postingLists, Math.max(1, grams));
+            for (int slot = 0; slot < grams; slot++) {
+                postingLists[slot].trim();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Sizes of the structures; the byte figure is a close estimate for compressed-oops heaps. */
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long postingCount = 0;
+            long bytes = 16L + ids.length * 8L + 16L + versions.length * 8L + 16L + documents.length * 4L
+                    + dead.size() / 8;
+            bytes += ordinalById.keys.length * 12L + ordinalBySku.keys.length * 12L + removed.keys.length * 12L + 96;
+            bytes += postingSlots.keys.length * 12L + 16L + postingLists.length * 4L + 32;
+            for (int slot = 0; slot < grams; slot++) {
+                IntList list = postingLists[slot];
+                postingCount += list.size;
+                // List object + its int[]
+                bytes += 16 + 16 + list.values.length * 4L;
+            }
+            for (int ordinal = 0; ordinal < ordinals; ordinal++) {
+                // String object + byte[] header + Latin-1 payload, 8-byte aligned
+                bytes += 24 + 16 + ((documents[ordinal].length() + 7) & ~7);
+            }
+            return new Stats(ordinalById.size, grams, postingCount, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits {@code list}, restricted to ordinals also in {@code filter} when one is given, in
+     * ascending order until the visitor returns false. The shorter list drives, the other is
+     * probed with a binary search that only ever moves forward.
+     */
+    private static void walk(IntList list, IntList filter, IntPredicate visitor) {
+        if (filter == null) {
+            for (int i = 0; i < list.size; i++) {
+                if (!visitor.test(list.values[i])) {
+                    return;
+                }
+            }
+            return;
+        }
+
+        IntList outer = list.size <= filter.size ? list : filter;
+        IntList inner = outer == list ? filter : list;
+        int from = 0;
+        for (int i = 0; i < outer.size && from < inner.size; i++) {
+            int ordinal = outer.values[i];
+            int at = Arrays.binarySearch(inner.values, from, inner.size, ordinal);
+            if (at < 0) {
+                from = -at - 1;
+                continue;
+            }
+            from = at + 1;
+            if (!visitor.test(ordinal)) {
+                return;
+            }
+        }
+    }
+
+    // Best tier at which the (lower-case) query occurs in the document, or -1 if it does not occur
+    private static int tier(String document, String q) {
+        int titleStart = document.indexOf(FIELD_SEPARATOR) + 1;
+        int best = -1;
+        for (int at = indexOf(document, q, 0); at >= 0; at = indexOf(document, q, at + 1)) {
+            int tier;
+            if (at == 0) {
+                return TIER_SKU_PREFIX;
+            } else if (at == titleStart) {
+                tier = TIER_TITLE_PREFIX;
+            } else if (isWordStart(document, at)) {
+                tier = TIER_WORD_PREFIX;
+            } else {
+                tier = TIER_ANYWHERE;
+            }
+            best = best < 0 ? tier : Math.min(best, tier);
+        }
+        return best;
+    }
+
+    private static boolean isWordStart(String document, int at) {
+        return Character.isLetterOrDigit(document.charAt(at))
+                && (at == 0 || !Character.isLetterOrDigit(document.charAt(at - 1)));
+    }
+
+    // Case-insensitive indexOf that lower-cases char by char, exactly like the indexed grams
+    private static int indexOf(String document, String q, int from) {
+        int last = document.length() - q.length();
+        char first = q.charAt(0);
+        for (int i = from; i <= last; i++) {
+            if (Character.toLowerCase(document.charAt(i)) != first) {
+                continue;
+            }
+            int k = 1;
+            while (k < q.length() && Character.toLowerCase(document.charAt(i + k)) == q.charAt(k)) {
+                k++;
+            }
+            if (k == q.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isExactSku(String document, String raw) {
+        return document.startsWith(raw) && document.length() > raw.length()
+                && document.charAt(raw.length()) == FIELD_SEPARATOR;
+    }
+
+    private Match toMatch(int ordinal) {
+        String document = documents[ordinal];
+        int skuEnd = document.indexOf(FIELD_SEPARATOR);
+        int titleEnd = document.indexOf(FIELD_SEPARATOR, skuEnd + 1);
+        return new Match(
+                ids[ordinal],
+                document.substring(0, skuEnd),
+                document.substring(skuEnd + 1, titleEnd < 0 ? document.length() : titleEnd)
+        );
+    }
+
+    private int append(long id, long version, String document) {
+        if (ordinals == ids.length) {
+            int capacity = ordinals + (ordinals >> 1) + 16;
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            documents = Arrays.copyOf(documents, capacity);
+        }
+        int ordinal = ordinals++;
+        ids[ordinal] = id;
+        versions[ordinal] = version;
+        documents[ordinal] = document;
+        ordinalBySku.put(skuKey(document.substring(0, document.indexOf(FIELD_SEPARATOR))), ordinal);
+
+        // Ordinals only grow, so appending keeps every posting list sorted
+        for (long key : distinctGrams(document)) {
+            int slot = postingSlots.get(key);
+            if (slot < 0) {
+                if (grams == postingLists.length) {
+                    postingLists = Arrays.copyOf(postingLists, grams + (grams >> 1) + 16);
+                }
+                slot = grams++;
+                postingLists[slot] = new IntList();
+                postingSlots.put(key, slot);
+            }
+            postingLists[slot].add(ordinal);
+        }
+        return ordinal;
+    }
+
+    private IntList postings(long key) {
+        int slot = postingSlots.get(key);
+        return slot >= 0 ? postingLists[slot] : null;
+    }
+
+    private void kill(int ordinal) {
+        dead.set(ordinal);
+        deadCount++;
+
+        String document = documents[ordinal];
+        long skuKey = skuKey(document.substring(0, document.indexOf(FIELD_SEPARATOR)));
+        if (ordinalBySku.get(skuKey) == ordinal) {
+            ordinalBySku.remove(skuKey);
+        }
+    }
+
+    // Rebuilds from the live documents once dead ordinals make up half of the index
+    private void compactIfNeeded() {
+        if (deadCount < MIN_COMPACTION || deadCount * 2 < ordinals) {
+            return;
+        }
+        long[] oldIds = ids;
+        long[] oldVersions = versions;
+        String[] oldDocuments = documents;
+        BitSet oldDead = dead;
+        int oldOrdinals = ordinals;
+
+        reset(oldOrdinals - deadCount);
+        for (int ordinal = 0; ordinal < oldOrdinals; ordinal++) {
+            if (!oldDead.get(ordinal)) {
+                ordinalById.put(oldIds[ordinal], append(oldIds[ordinal], oldVersions[ordinal], oldDocuments[ordinal]));
+            }
+        }
+    }
+
+    private void reset(int capacity) {
+        ids = new long[Math.max(16, capacity)];
+        versions = new long[Math.max(16, capacity)];
+        documents = new String[Math.max(16, capacity)];
+        ordinals = 0;
+        dead = new BitSet();
+        deadCount = 0;
+        ordinalById = new LongIntMap(capacity);
+        ordinalBySku = new LongIntMap(capacity);
+        postingSlots = new LongIntMap(1024);
+        postingLists = new IntList[1024];
+        grams = 0;
+    }
+
+    /**
+     * Trigrams inside each field, plus the one- to three-character prefixes of the SKU, the title
+     * and every word; sorted and de-duplicated.
+     */
+    private static long[] distinctGrams(String document) {
+        long[] grams = new long[document.length() * 4 + 6];
+        int count = 0;
+        int field = 0;
+        int fieldEnd = -1;
+        for (int i = 0; i < document.length(); i++) {
+            char c = document.charAt(i);
+            if (c == FIELD_SEPARATOR) {
+                field++;
+                continue;
+            }
+            if (i > fieldEnd) {
+                int separator = document.indexOf(FIELD_SEPARATOR, i);
+                fieldEnd = separator < 0 ? document.length() : separator;
+            }
+            int remaining = fieldEnd - i;
+
+            if (remaining >= 3) {
+                grams[count++] = trigramKey(
+                        Character.toLowerCase(c),
+                        Character.toLowerCase(document.charAt(i + 1)),
+                        Character.toLowerCase(document.charAt(i + 2))
+                );
+            }
+
+            boolean fieldStart = i == 0 || document.charAt(i - 1) == FIELD_SEPARATOR;
+            int tier = fieldStart && field == 0 ? TIER_SKU_PREFIX
+                    : fieldStart && field == 1 ? TIER_TITLE_PREFIX
+                    : 0;
+            for (int length = 1; length <= Math.min(PREFIX_LENGTH, remaining); length++) {
+                if (tier != 0) {
+                    grams[count++] = prefixKey(tier, document, i, length);
+                }
+                if (isWordStart(document, i)) {
+                    grams[count++] = prefixKey(TIER_WORD_PREFIX, document, i, length);
+                }
+            }
+        }
+        Arrays.sort(grams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    // Never 0, the map's empty marker: PostgreSQL text cannot hold NUL characters
+    private static long trigramKey(char c1, char c2, char c3) {
+        return ((long) c1 << 32) | ((long) c2 << 16) | c3;
+    }
+
+    // Prefix keys carry their tier and length above bit 48, out of the trigram key range
+    private static long prefixKey(int tier, String text, int start, int length) {
+        long key = (long) tier << 52 | (long) length << 48;
+        for (int k = 0; k < length; k++) {
+            key |= (long) Character.toLowerCase(text.charAt(start + k)) << (32 - 16 * k);
+        }
+        return key;
+    }
+
+    // 64-bit FNV-1a; 0 is the map's empty marker, so it is moved aside
+    private static long skuKey(String sku) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < sku.length(); i++) {
+            h ^= sku.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h != 0 ? h : 1;
+    }
+
+    private static String join(String sku, String title, String brand, String category) {
+        StringBuilder document = new StringBuilder(sku).append(FIELD_SEPARATOR).append(title);
+        if (brand != null) {
+            document.append(FIELD_SEPARATOR).append(brand);
+        }
+        if (category != null) {
+            document.append(FIELD_SEPARATOR).append(category);
+        }
+        return document.toString();
+    }
+
+    private static String lowerCase(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            values[size++] = value;
+        }
+
+        void trim() {
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Open-addressing long to int map; 0 is never a key (product ids are positive, grams and SKU
+     * hashes are kept off it), it marks an empty slot.
+     */
+    private static final class LongIntMap {
+        long[] keys;
+        int[] values;
+        int size;
+
+        LongIntMap(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+        }
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if (key == 0) {
+                throw new IllegalArgumentException("Key must not be 0");
+            }
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                keys[i] = key;
+                size++;
+            }
+            values[i] = value;
+        }
+
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (keys[i] != key) {
+                if (keys[i] == 0) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int removed = values[i];
+
+            // Shift later entries of the probe run back into the hole so lookups never stop early
+            int hole = i;
+            for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+                int home = slot(keys[j], mask);
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = 0;
+            size--;
+            return removed;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+}
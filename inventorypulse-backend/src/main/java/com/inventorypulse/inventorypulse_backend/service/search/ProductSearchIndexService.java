@@ -0,0 +1,186 @@
+package com.inventorypulse.inventorypulse_backend.service.search;
+
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.event.CatalogResyncEvent;
+import com.inventorypulse.inventorypulse_backend.event.ProductsChangedEvent;
+import com.inventorypulse.inventorypulse_backend.repository.ProductReadRepository;
+import com.inventorypulse.inventorypulse_backend.repository.ProductReadRepository.VersionedProduct;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps a {@link ProductSearchIndex} of the whole catalog in sync with the database when
+ * {@code inventorypulse.products.search.in-memory-index} is on.
+ *
+ * The index is filled from a streaming read once the application is ready; until then
+ * {@link #isReady()} is false and callers use the database. Afterwards every committed
+ * {@link ProductsChangedEvent} re-reads the affected products. Changes committed while the
+ * initial load is still streaming are queued and re-read once it is done, so a product updated
+ * mid-load is never left with the state the load happened to read. Refreshes for different
+ * commits run concurrently and may apply in any order; the row version (V8) read with each
+ * product makes the index keep the newest state regardless. When changes made on other
+ * instances may have been missed, the whole catalog is read again and products no longer in it
+ * are dropped.
+ */
+@Slf4j
+@Service
+public class ProductSearchIndexService {
+
+    private final ProductReadRepository productReadRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+    private final Set<Long> changedWhileLoading = new HashSet<>();
+    private boolean loading;
+    private volatile boolean ready;
+
+    private final Timer queries;
+
+    public ProductSearchIndexService(
+            ProductReadRepository productReadRepository,
+            PlatformTransactionManager transactionManager,
+            InventoryPulseProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.productReadRepository = productReadRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = properties.getProducts().getSearch().isInMemoryIndex();
+
+        this.queries = meterRegistry.timer("inventorypulse.search.index.queries");
+        Gauge.builder("inventorypulse.search.index.documents", index, ProductSearchIndex::size)
+                .register(meterRegistry);
+        // Walks the whole index, so only computed when the metric is actually scraped
+        Gauge.builder("inventorypulse.search.index.memory", index, i -> i.stats().estimatedBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (changedWhileLoading) {
+            loading = true;
+        }
+
+        long started = System.nanoTime();
+        readOnlyTransaction.executeWithoutResult(status -> productReadRepository.forEachVersionedProduct(this::put));
+
+        List<Long> missed;
+        synchronized (changedWhileLoading) {
+            loading = false;
+            missed = new ArrayList<>(changedWhileLoading);
+            changedWhileLoading.clear();
+        }
+        refresh(missed);
+        index.trimToSize();
+        ready = true;
+
+        ProductSearchIndex.Stats stats = index.stats();
+        log.info("Indexed {} products for in-memory search in {} ms: {} grams, {} postings, ~{} MB",
+                stats.documents(), (System.nanoTime() - started) / 1_000_000, stats.grams(),
+                stats.postings(), stats.estimatedBytes() / (1024 * 1024));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        // Stock is not indexed
+        if (!enabled || event.stockOnly()) {
+            return;
+        }
+        synchronized (changedWhileLoading) {
+            if (loading) {
+                changedWhileLoading.addAll(event.productIds());
+                return;
+            }
+        }
+        refresh(event.productIds());
+    }
+
+    // Runs on the invalidation bus's thread
+    @EventListener
+    public void onResync(CatalogResyncEvent event) {
+        if (!enabled || !ready) {
+            // The initial load in progress reads the whole catalog anyway
+            return;
+        }
+        synchronized (changedWhileLoading) {
+            loading = true;
+        }
+
+        try {
+            long[] indexed = index.ids();
+            Arrays.sort(indexed);
+            // Whatever the read does not come across has been deleted
+            BitSet seen = new BitSet(indexed.length);
+            readOnlyTransaction.executeWithoutResult(status -> productReadRepository.forEachVersionedProduct(product -> {
+                put(product);
+                int at = Arrays.binarySearch(indexed, product.product().id());
+                if (at >= 0) {
+                    seen.set(at);
+                }
+            }));
+            for (int at = seen.nextClearBit(0); at < indexed.length; at = seen.nextClearBit(at + 1)) {
+                index.remove(indexed[at]);
+            }
+        } finally {
+            List<Long> missed;
+            synchronized (changedWhileLoading) {
+                loading = false;
+                missed = new ArrayList<>(changedWhileLoading);
+                changedWhileLoading.clear();
+            }
+            refresh(missed);
+        }
+        log.info("Reloaded the in-memory search index after a resync: {} products", index.size());
+    }
+
+    public List<ProductSearchIndex.Match> search(String query, int limit, int offset) {
+        return queries.record(() -> index.search(query, limit, offset));
+    }
+
+    public ProductSearchIndex.Stats stats() {
+        return index.stats();
+    }
+
+    private void refresh(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Set<Long> deleted = new HashSet<>(productIds);
+        for (VersionedProduct product : productReadRepository.findVersionedByIds(productIds)) {
+            put(product);
+            deleted.remove(product.product().id());
+        }
+        deleted.forEach(index::remove);
+    }
+
+    private void put(VersionedProduct versioned) {
+        ProductResponse product = versioned.product();
+        index.put(product.id(), versioned.version(), product.sku(), product.title(), product.brand(), product.category());
+    }
+}
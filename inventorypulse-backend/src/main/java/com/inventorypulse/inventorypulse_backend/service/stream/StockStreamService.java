@@ -0,0 +1,420 @@
+package com.inventorypulse.inventorypulse_backend.service.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties;
+import com.inventorypulse.inventorypulse_backend.config.InventoryPulseProperties.Stream.SlowConsumerPolicy;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.event.AlertsRaisedEvent;
+import com.inventorypulse.inventorypulse_backend.event.AlertsRaisedEvent.RaisedAlert;
+import com.inventorypulse.inventorypulse_backend.event.CatalogResyncEvent;
+import com.inventorypulse.inventorypulse_backend.event.ProductsChangedEvent;
+import com.inventorypulse.inventorypulse_backend.repository.ProductReadRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Live stock and alert updates over server-sent events ({@code GET /api/stream}).
+ *
+ * Connections are asynchronous requests: an idle subscriber holds no thread. Committed product
+ * changes collect for {@code inventorypulse.stream.coalesce-window}, are read back in one query
+ * and pushed as {@code product} (or {@code product-deleted}) events; alerts arrive from the stock
+ * alert engine as {@code alert} events. Each event is serialized once and handed to the bounded
+ * buffer of every subscriber whose filter matches. A small pool of writers drains each buffer to
+ * its connection in one write, using the servlet container's non-blocking output: a connection
+ * that cannot take more bytes is left alone until the container reports it writable, so a slow
+ * or stalled client never holds a writer.
+ *
+ * A subscriber whose buffer is full either loses its oldest event and later gets a {@code resync}
+ * event (refetch what you show), or is disconnected, per {@code slow-consumer-policy}. A burst of
+ * changes larger than a buffer is not pushed product by product: every product subscriber gets
+ * one {@code resync} instead.
+ *
+ * Product changes made on other instances are streamed too, as they arrive over the invalidation
+ * bus; alerts only reach the streams of the instance that raised them.
+ */
+@Slf4j
+@Service
+public class StockStreamService {
+
+    private static final byte[] CONNECTED = ":connected\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEARTBEAT = ":heartbeat\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RESYNC = render("resync", "{}");
+
+    private final ProductReadRepository productReadRepository;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskScheduler streamScheduler;
+    private final ThreadPoolTaskExecutor streamWriterExecutor;
+    private final InventoryPulseProperties.Stream settings;
+
+    private final Set<StreamSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pendingOverflow = new AtomicBoolean();
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    private final Counter dropped;
+    private final Counter slowDisconnects;
+
+    public StockStreamService(
+            ProductReadRepository productReadRepository,
+            ObjectMapper objectMapper,
+            ThreadPoolTaskScheduler streamScheduler,
+            ThreadPoolTaskExecutor streamWriterExecutor,
+            InventoryPulseProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.productReadRepository = productReadRepository;
+        this.objectMapper = objectMapper;
+        this.streamScheduler = streamScheduler;
+        this.streamWriterExecutor = streamWriterExecutor;
+        this.settings = properties.getStream();
+
+        this.dropped = meterRegistry.counter("inventorypulse.stream.dropped");
+        this.slowDisconnects = meterRegistry.counter("inventorypulse.stream.slow-disconnects");
+        Gauge.builder("inventorypulse.stream.subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleHeartbeats() {
+        streamScheduler.scheduleWithFixedDelay(this::heartbeat, settings.getHeartbeatInterval());
+    }
+
+    // Before the web server's graceful shutdown, which would otherwise wait for every open stream
+    @EventListener(ContextClosedEvent.class)
+    public void closeAll() {
+        subscribers.forEach(this::close);
+    }
+
+    /**
+     * Starts an asynchronous stream on the request; the caller returns right away and no thread
+     * is held while the subscriber is idle.
+     */
+    public void subscribe(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Collection<Long> productIds,
+            Collection<String> categories,
+            boolean alertsOnly
+    ) throws IOException {
+        if (subscribers.size() >= settings.getMaxSubscribers()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open streams, retry later");
+        }
+
+        Set<String> categorySet = new HashSet<>();
+        if (categories != null) {
+            categories.stream().filter(c -> c != null && !c.isBlank()).map(String::trim).forEach(categorySet::add);
+        }
+        StreamFilter filter = new StreamFilter(
+                productIds == null ? Set.of() : Set.copyOf(productIds),
+                categorySet,
+                alertsOnly
+        );
+
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // Tells nginx-style proxies not to buffer the stream
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(settings.getTimeout().toMillis());
+        StreamSubscriber subscriber = new StreamSubscriber(
+                asyncContext, response.getOutputStream(), filter, settings.getBufferSize());
+
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                forget(subscriber);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                // EventSource clients reconnect by themselves
+                forget(subscriber);
+                complete(subscriber);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                forget(subscriber);
+                complete(subscriber);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+
+        subscribers.add(subscriber);
+        // Sends the response headers right away, so the client knows it is connected
+        subscriber.offer(CONNECTED);
+        // Switches the connection to non-blocking writes; the container calls onWritePossible once right away
+        subscriber.out().setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() {
+                subscriber.writable();
+                scheduleWrite(subscriber);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                forget(subscriber);
+                complete(subscriber);
+            }
+        });
+    }
+
+    // Runs on the committing thread: never blocks and never touches the database
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (pendingOverflow.get() || pending.size() + event.productIds().size() > settings.getBufferSize()) {
+            pendingOverflow.set(true);
+        } else {
+            pending.addAll(event.productIds());
+        }
+        scheduleDispatch();
+    }
+
+    // Changes made on other instances may have been missed: every product subscriber refetches
+    @EventListener
+    public void onResync(CatalogResyncEvent event) {
+        if (!subscribers.isEmpty()) {
+            pendingOverflow.set(true);
+            scheduleDispatch();
+        }
+    }
+
+    // Runs on the alert engine's thread, after the alerts have been committed
+    @EventListener
+    public void onAlertsRaised(AlertsRaisedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (RaisedAlert raised : event.alerts()) {
+            byte[] frame = frame("alert", raised.alert());
+            long productId = raised.alert().productId();
+            for (StreamSubscriber subscriber : subscribers) {
+                if (subscriber.filter().matchesAlert(productId, raised.category())) {
+                    deliver(subscriber, frame);
+                }
+            }
+        }
+    }
+
+    private void scheduleDispatch() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            streamScheduler.schedule(this::dispatch, Instant.now().plus(settings.getCoalesceWindow()));
+        } catch (TaskRejectedException ex) {
+            // Shutting down; every stream is being closed anyway
+            dispatching.set(false);
+        }
+    }
+
+    private void dispatch() {
+        try {
+            if (pendingOverflow.getAndSet(false)) {
+                pending.clear();
+                for (StreamSubscriber subscriber : subscribers) {
+                    if (!subscriber.filter().alertsOnly()) {
+                        deliver(subscriber, RESYNC);
+                    }
+                }
+            }
+
+            List<Long> ids = new ArrayList<>();
+            for (Iterator<Long> it = pending.iterator(); it.hasNext(); ) {
+                ids.add(it.next());
+                it.remove();
+            }
+            if (!ids.isEmpty() && !subscribers.isEmpty()) {
+                pushProducts(ids);
+            }
+        } catch (RuntimeException ex) {
+            // The changes just read are lost; subscribers are told to resync on the next dispatch
+            log.warn("Stream dispatch failed, subscribers will be asked to resync", ex);
+            pendingOverflow.set(true);
+        }
+
+        dispatching.set(false);
+        // Changes that arrived after the pending set was emptied but before the flag was cleared
+        if (!pending.isEmpty() || pendingOverflow.get()) {
+            scheduleDispatch();
+        }
+    }
+
+    private void pushProducts(List<Long> ids) {
+        Set<Long> deleted = new LinkedHashSet<>(ids);
+        for (ProductResponse product : productReadRepository.findByIds(ids)) {
+            deleted.remove(product.id());
+            byte[] frame = frame("product", product);
+            for (StreamSubscriber subscriber : subscribers) {
+                if (subscriber.filter().matchesProduct(product.id(), product.category())) {
+                    deliver(subscriber, frame);
+                }
+            }
+        }
+
+        // The category of a deleted product is gone, so only product filters can match it
+        for (Long id : deleted) {
+            byte[] frame = frame("product-deleted", Map.of("id", id));
+            for (StreamSubscriber subscriber : subscribers) {
+                if (subscriber.filter().matchesProduct(id, null)) {
+                    deliver(subscriber, frame);
+                }
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (StreamSubscriber subscriber : subscribers) {
+            // Nothing is lost if a full buffer refuses it: that subscriber is not idle
+            subscriber.offer(HEARTBEAT);
+            scheduleWrite(subscriber);
+        }
+    }
+
+    private void deliver(StreamSubscriber subscriber, byte[] frame) {
+        if (subscriber.isClosed()) {
+            return;
+        }
+        if (!subscriber.offer(frame)) {
+            if (settings.getSlowConsumerPolicy() == SlowConsumerPolicy.DISCONNECT) {
+                slowDisconnects.increment();
+                close(subscriber);
+                return;
+            }
+            do {
+                subscriber.dropOldest();
+                dropped.increment();
+            } while (!subscriber.offer(frame));
+        }
+        scheduleWrite(subscriber);
+    }
+
+    private void scheduleWrite(StreamSubscriber subscriber) {
+        // A connection that cannot take more bytes is written again once the container says it can
+        if (subscriber.isAwaitingWritable() || subscriber.isClosed() || !subscriber.startWriting()) {
+            return;
+        }
+        try {
+            streamWriterExecutor.execute(() -> write(subscriber));
+        } catch (TaskRejectedException ex) {
+            // Shutting down
+            subscriber.stopWriting();
+        }
+    }
+
+    // Writes what the subscriber has buffered for as long as the connection takes it without blocking
+    private void write(StreamSubscriber subscriber) {
+        ServletOutputStream out = subscriber.out();
+        try {
+            while (!subscriber.isClosed()) {
+                // Raised before asking: a callback that lands right after "not ready" then finds it
+                // set, clears it and the checks below reschedule; raised after, it would be lost
+                subscriber.awaitWritable();
+                if (!out.isReady()) {
+                    break;
+                }
+                subscriber.writable();
+                byte[] chunk = subscriber.drain(RESYNC);
+                if (chunk == null) {
+                    break;
+                }
+                out.write(chunk);
+                if (out.isReady()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // The client went away
+            forget(subscriber);
+            complete(subscriber);
+            return;
+        }
+
+        subscriber.stopWriting();
+        if (subscriber.isClosed()) {
+            if (subscriber.startWriting()) {
+                complete(subscriber);
+            }
+        } else if (!subscriber.isAwaitingWritable() && subscriber.hasWork()) {
+            // Events buffered, or the connection became writable, before the flag was cleared
+            scheduleWrite(subscriber);
+        }
+    }
+
+    // Completes the stream only while no writer is using it; otherwise the writer does on its way out
+    private void close(StreamSubscriber subscriber) {
+        forget(subscriber);
+        if (subscriber.startWriting()) {
+            complete(subscriber);
+        }
+    }
+
+    private void forget(StreamSubscriber subscriber) {
+        subscriber.markClosed();
+        subscribers.remove(subscriber);
+    }
+
+    private static void complete(StreamSubscriber subscriber) {
+        try {
+            subscriber.asyncContext().complete();
+        } catch (IllegalStateException ex) {
+            // Already completed by the container (timeout, client gone)
+        }
+    }
+
+    private byte[] frame(String name, Object payload) {
+        try {
+            return render(name, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + name + " event", ex);
+        }
+    }
+
+    // One server-sent event; JSON written by Jackson never contains a line break
+    private static byte[] render(String name, String data) {
+        return ("event:" + name + "\ndata:" + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+}
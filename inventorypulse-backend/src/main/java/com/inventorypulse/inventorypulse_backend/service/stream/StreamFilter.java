@@ -0,0 +1,22 @@
+package com.inventorypulse.inventorypulse_backend.service.stream;
+
+import java.util.Set;
+
+// What one subscriber asked for; no products and no categories means the whole catalog
+record StreamFilter(Set<Long> productIds, Set<String> categories, boolean alertsOnly) {
+
+    boolean matchesProduct(long productId, String category) {
+        return !alertsOnly && matches(productId, category);
+    }
+
+    boolean matchesAlert(long productId, String category) {
+        return matches(productId, category);
+    }
+
+    private boolean matches(long productId, String category) {
+        if (productIds.isEmpty() && categories.isEmpty()) {
+            return true;
+        }
+        return productIds.contains(productId) || (category != null && categories.contains(category));
+    }
+}
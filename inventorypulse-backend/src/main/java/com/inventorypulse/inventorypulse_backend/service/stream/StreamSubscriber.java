@@ -0,0 +1,112 @@
+package com.inventorypulse.inventorypulse_backend.service.stream;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open stream: its connection, its filter and the events waiting to be written to it.
+ *
+ * Producers only ever touch the buffer. Whoever wins {@link #startWriting()} owns the output
+ * stream until {@link #stopWriting()}; {@code awaitingWritable} is set while the connection cannot
+ * take more bytes, until the container calls back. The writer sets it before it asks the
+ * connection, and clears it again if the connection turns out to be ready.
+ */
+final class StreamSubscriber {
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final StreamFilter filter;
+    private final BlockingQueue<byte[]> buffer;
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final AtomicBoolean awaitingWritable = new AtomicBoolean();
+    private final AtomicBoolean missedEvents = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    StreamSubscriber(AsyncContext asyncContext, ServletOutputStream out, StreamFilter filter, int bufferSize) {
+        this.asyncContext = asyncContext;
+        this.out = out;
+        this.filter = filter;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+    }
+
+    AsyncContext asyncContext() {
+        return asyncContext;
+    }
+
+    ServletOutputStream out() {
+        return out;
+    }
+
+    StreamFilter filter() {
+        return filter;
+    }
+
+    // False if the buffer is full
+    boolean offer(byte[] event) {
+        return buffer.offer(event);
+    }
+
+    // Makes room for one more event by dropping the oldest; the subscriber is told to resync
+    void dropOldest() {
+        if (buffer.poll() != null) {
+            missedEvents.set(true);
+        }
+    }
+
+    /** Everything buffered as one chunk, led by {@code resync} if events were dropped; null if there is nothing. */
+    byte[] drain(byte[] resync) {
+        boolean missed = missedEvents.getAndSet(false);
+        byte[] first = buffer.poll();
+        if (first == null && !missed) {
+            return null;
+        }
+
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        if (missed) {
+            chunk.writeBytes(resync);
+        }
+        for (byte[] event = first; event != null; event = buffer.poll()) {
+            chunk.writeBytes(event);
+        }
+        return chunk.toByteArray();
+    }
+
+    boolean hasWork() {
+        return !buffer.isEmpty() || missedEvents.get();
+    }
+
+    boolean startWriting() {
+        return writing.compareAndSet(false, true);
+    }
+
+    void stopWriting() {
+        writing.set(false);
+    }
+
+    void awaitWritable() {
+        awaitingWritable.set(true);
+    }
+
+    // True if the subscriber was waiting for the container's callback
+    boolean writable() {
+        return awaitingWritable.getAndSet(false);
+    }
+
+    boolean isAwaitingWritable() {
+        return awaitingWritable.get();
+    }
+
+    // True for the caller that actually closed it
+    boolean markClosed() {
+        return closed.compareAndSet(false, true);
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+}
@@ -0,0 +1,45 @@
+SET search_path = inventorypulse_app;
+
+-- Id of the transaction that wrote each ledger row. Ids are handed out in start order, not commit
+-- order, so "all rows up to id N" can still grow after it was read; "all transactions before the
+-- oldest one still running" (pg_snapshot_xmin) cannot. Rows written before this migration keep
+-- NULL and are only ever read by a full rebuild. The default is set separately so existing rows
+-- are not rewritten.
+ALTER TABLE inventory_transactions ADD COLUMN IF NOT EXISTS txid xid8;
+ALTER TABLE inventory_transactions ALTER COLUMN txid SET DEFAULT pg_current_xact_id();
+CREATE INDEX IF NOT EXISTS idx_inventory_transactions_txid ON inventory_transactions (txid);
+
+-- Units in / out and movement count per product and per category, per hour and per day (UTC).
+-- Granularity leads the key after the owner so a chart reads one contiguous index range.
+CREATE TABLE IF NOT EXISTS product_movement_rollups (
+  product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+  granularity TEXT NOT NULL,
+  bucket TIMESTAMPTZ NOT NULL,
+  units_in BIGINT NOT NULL,
+  units_out BIGINT NOT NULL,
+  movements BIGINT NOT NULL,
+  PRIMARY KEY (product_id, granularity, bucket)
+);
+
+-- Products without a category roll up under ''; movements count towards the category the
+-- product had when they were rolled up
+CREATE TABLE IF NOT EXISTS category_movement_rollups (
+  category TEXT NOT NULL,
+  granularity TEXT NOT NULL,
+  bucket TIMESTAMPTZ NOT NULL,
+  units_in BIGINT NOT NULL,
+  units_out BIGINT NOT NULL,
+  movements BIGINT NOT NULL,
+  PRIMARY KEY (category, granularity, bucket)
+);
+
+-- Single row: every ledger row with txid below the watermark (or NULL) is in the rollups.
+-- A NULL watermark means the rollups have never been built, or a rebuild did not finish.
+CREATE TABLE IF NOT EXISTS stock_rollup_state (
+  id INT PRIMARY KEY CHECK (id = 1),
+  watermark xid8,
+  caught_up_at TIMESTAMPTZ,
+  rebuilt_at TIMESTAMPTZ
+);
+
+INSERT INTO stock_rollup_state (id) VALUES (1) ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,26 @@
+SET search_path = inventorypulse_app;
+
+-- Periodic checkpoints of every product's stock, for point-in-time ("as of") queries. Stock can
+-- change without a ledger row (product edits, CSV upserts), so the ledger alone cannot say what
+-- stock was for a product that did not move; the latest checkpoint before that time can.
+--
+-- Each run records the MVCC snapshot its rows were read under: a ledger row is included in the
+-- checkpoint exactly when pg_visible_in_snapshot(txid, visible) is true, however its created_at
+-- relates to taken_at.
+CREATE TABLE IF NOT EXISTS stock_snapshot_runs (
+  id BIGSERIAL PRIMARY KEY,
+  taken_at TIMESTAMPTZ NOT NULL,
+  visible pg_snapshot NOT NULL,
+  products INT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_snapshot_runs_taken_at ON stock_snapshot_runs (taken_at);
+
+-- No foreign key to products: deleting a product should not have to search every checkpoint.
+-- Rows of deleted products are never joined and go when their run is pruned.
+CREATE TABLE IF NOT EXISTS stock_snapshots (
+  run_id BIGINT NOT NULL REFERENCES stock_snapshot_runs(id) ON DELETE CASCADE,
+  product_id BIGINT NOT NULL,
+  stock INT NOT NULL,
+  PRIMARY KEY (run_id, product_id)
+);
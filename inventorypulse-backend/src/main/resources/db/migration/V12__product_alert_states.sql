@@ -0,0 +1,10 @@
+SET search_path = inventorypulse_app;
+
+-- Stock level each product was last evaluated at by the alert engine: OK, LOW (at or below the
+-- reorder threshold) or OUT (nothing left). Alerts are raised only when this changes, so repeated
+-- movements inside the same level never repeat an alert.
+CREATE TABLE IF NOT EXISTS product_alert_states (
+  product_id BIGINT PRIMARY KEY REFERENCES products(id) ON DELETE CASCADE,
+  level TEXT NOT NULL CHECK (level IN ('OK', 'LOW', 'OUT')),
+  changed_at TIMESTAMPTZ NOT NULL
+);
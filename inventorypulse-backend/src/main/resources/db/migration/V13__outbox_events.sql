@@ -0,0 +1,15 @@
+SET search_path = inventorypulse_app;
+
+-- Product and stock changes waiting to be relayed to downstream systems. Rows are written in the
+-- same transaction as the change itself and deleted once a sink has accepted them. No foreign key:
+-- a product's deletion is itself an event, and it must outlive the product.
+CREATE TABLE IF NOT EXISTS outbox_events (
+  id BIGSERIAL PRIMARY KEY,
+  product_id BIGINT NOT NULL,
+  type TEXT NOT NULL CHECK (type IN ('PRODUCT_CREATED', 'PRODUCT_UPDATED', 'PRODUCT_DELETED', 'STOCK_CHANGED')),
+  payload JSONB NOT NULL,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- "Is there an earlier event for this product?", asked for every candidate the relay considers
+CREATE INDEX IF NOT EXISTS idx_outbox_events_product ON outbox_events (product_id, id);
@@ -0,0 +1,68 @@
+SET search_path = inventorypulse_app;
+
+-- The inbox pages by id, newest first: alerts are inserted in id order by an evaluation that holds
+-- a global lock (StockAlertRepository), so id order is the order they were raised in.
+
+-- Unseen alerts, newest first: WHERE NOT seen [AND id < ?] ORDER BY id DESC LIMIT n, and the
+-- "mark everything before" update, only ever touch the unseen entries
+CREATE INDEX IF NOT EXISTS idx_alerts_unseen ON alerts (id DESC) WHERE NOT seen;
+
+-- One product's alerts, newest first, seen or not
+CREATE INDEX IF NOT EXISTS idx_alerts_product_id ON alerts (product_id, id DESC);
+
+-- The unread badge: one row holding the number of unseen alerts, kept up to date by statement
+-- triggers below so reading it never counts. Every statement that adds, marks or deletes alerts
+-- adjusts it once, by the difference its rows made, inside its own transaction.
+CREATE TABLE IF NOT EXISTS alert_counters (
+  id BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+  unseen BIGINT NOT NULL
+);
+
+INSERT INTO alert_counters (id, unseen)
+SELECT TRUE, count(*) FROM alerts WHERE NOT seen
+ON CONFLICT (id) DO UPDATE SET unseen = EXCLUDED.unseen;
+
+CREATE OR REPLACE FUNCTION alert_counters_on_insert() RETURNS trigger AS $$
+BEGIN
+  UPDATE alert_counters SET unseen = unseen + (SELECT count(*) FROM new_alerts WHERE NOT seen)
+  WHERE EXISTS (SELECT 1 FROM new_alerts WHERE NOT seen);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION alert_counters_on_update() RETURNS trigger AS $$
+DECLARE
+  delta BIGINT;
+BEGIN
+  SELECT (SELECT count(*) FROM new_alerts WHERE NOT seen) - (SELECT count(*) FROM old_alerts WHERE NOT seen)
+  INTO delta;
+  IF delta <> 0 THEN
+    UPDATE alert_counters SET unseen = unseen + delta;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION alert_counters_on_delete() RETURNS trigger AS $$
+BEGIN
+  UPDATE alert_counters SET unseen = unseen - (SELECT count(*) FROM old_alerts WHERE NOT seen)
+  WHERE EXISTS (SELECT 1 FROM old_alerts WHERE NOT seen);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS alerts_count_insert ON alerts;
+CREATE TRIGGER alerts_count_insert AFTER INSERT ON alerts
+  REFERENCING NEW TABLE AS new_alerts
+  FOR EACH STATEMENT EXECUTE FUNCTION alert_counters_on_insert();
+
+DROP TRIGGER IF EXISTS alerts_count_update ON alerts;
+CREATE TRIGGER alerts_count_update AFTER UPDATE ON alerts
+  REFERENCING OLD TABLE AS old_alerts NEW TABLE AS new_alerts
+  FOR EACH STATEMENT EXECUTE FUNCTION alert_counters_on_update();
+
+-- Also fires for the alerts of a deleted product (ON DELETE CASCADE)
+DROP TRIGGER IF EXISTS alerts_count_delete ON alerts;
+CREATE TRIGGER alerts_count_delete AFTER DELETE ON alerts
+  REFERENCING OLD TABLE AS old_alerts
+  FOR EACH STATEMENT EXECUTE FUNCTION alert_counters_on_delete();
@@ -0,0 +1,5 @@
+SET search_path = inventorypulse_app;
+
+-- Last time the instance running a QUEUED or RUNNING batch reported it alive. A batch that stops
+-- reporting (instance crashed or restarted) is failed, so the same file can be uploaded again.
+ALTER TABLE import_batches ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMPTZ;
@@ -0,0 +1,105 @@
+SET search_path = inventorypulse_app;
+
+-- Whole-catalog facets: one row per category and per brand (null value = products without one)
+-- with its product count, units in stock and low-stock count, kept up to date by statement
+-- triggers below so the unfiltered facets never scan products. Catalog totals are the sum of the
+-- category rows. Rows that drop to zero products stay and are skipped when read.
+CREATE TABLE IF NOT EXISTS product_facet_totals (
+  dimension TEXT NOT NULL CHECK (dimension IN ('category', 'brand')),
+  value TEXT,
+  products BIGINT NOT NULL,
+  units BIGINT NOT NULL,
+  low_stock BIGINT NOT NULL,
+  UNIQUE NULLS NOT DISTINCT (dimension, value)
+);
+
+-- Adds one statement's changes: a row per product it added (+1) or removed (-1), an update being
+-- both. Only groups whose counts actually moved are written, so edits that leave stock, category
+-- and brand alone take no lock here. Groups are written in key order, so transactions that change
+-- products in a single statement, as the application's all do, cannot deadlock on these rows.
+CREATE OR REPLACE FUNCTION product_facet_totals_add(
+  categories TEXT[], brands TEXT[], products INT[], units BIGINT[], low_stock INT[]
+) RETURNS void AS $$
+  INSERT INTO product_facet_totals AS t (dimension, value, products, units, low_stock)
+  SELECT CASE GROUPING(category, brand) WHEN 1 THEN 'category' ELSE 'brand' END,
+         CASE GROUPING(category, brand) WHEN 1 THEN category ELSE brand END,
+         sum(products), sum(units), sum(low_stock)
+  FROM unnest(categories, brands, products, units, low_stock) AS c(category, brand, products, units, low_stock)
+  GROUP BY GROUPING SETS ((category), (brand))
+  HAVING sum(products) <> 0 OR sum(units) <> 0 OR sum(low_stock) <> 0
+  ORDER BY 1, 2
+  ON CONFLICT (dimension, value) DO UPDATE
+  SET products = t.products + EXCLUDED.products,
+      units = t.units + EXCLUDED.units,
+      low_stock = t.low_stock + EXCLUDED.low_stock;
+$$ LANGUAGE sql;
+
+INSERT INTO product_facet_totals (dimension, value, products, units, low_stock)
+SELECT CASE GROUPING(category, brand) WHEN 1 THEN 'category' ELSE 'brand' END,
+       CASE GROUPING(category, brand) WHEN 1 THEN category ELSE brand END,
+       count(*), coalesce(sum(stock), 0), count(*) FILTER (WHERE stock <= reorder_threshold)
+FROM products
+GROUP BY GROUPING SETS ((category), (brand))
+ON CONFLICT (dimension, value) DO UPDATE
+SET products = EXCLUDED.products, units = EXCLUDED.units, low_stock = EXCLUDED.low_stock;
+
+CREATE OR REPLACE FUNCTION product_facet_totals_on_insert() RETURNS trigger AS $$
+BEGIN
+  PERFORM product_facet_totals_add(
+    array_agg(category), array_agg(brand), array_agg(1),
+    array_agg(stock::BIGINT), array_agg((stock <= reorder_threshold)::INT))
+  FROM new_products;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION product_facet_totals_on_update() RETURNS trigger AS $$
+BEGIN
+  PERFORM product_facet_totals_add(
+    array_agg(category), array_agg(brand), array_agg(sign),
+    array_agg(sign * stock::BIGINT), array_agg(sign * (stock <= reorder_threshold)::INT))
+  FROM (
+    SELECT 1 AS sign, category, brand, stock, reorder_threshold FROM new_products
+    UNION ALL
+    SELECT -1, category, brand, stock, reorder_threshold FROM old_products
+  ) AS changes;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION product_facet_totals_on_delete() RETURNS trigger AS $$
+BEGIN
+  PERFORM product_facet_totals_add(
+    array_agg(category), array_agg(brand), array_agg(-1),
+    array_agg(-stock::BIGINT), array_agg(-(stock <= reorder_threshold)::INT))
+  FROM old_products;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION product_facet_totals_on_truncate() RETURNS trigger AS $$
+BEGIN
+  DELETE FROM product_facet_totals;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Also fires for the rows an upsert inserts; the ones it updates go through the update trigger
+DROP TRIGGER IF EXISTS products_facet_totals_insert ON products;
+CREATE TRIGGER products_facet_totals_insert AFTER INSERT ON products
+  REFERENCING NEW TABLE AS new_products
+  FOR EACH STATEMENT EXECUTE FUNCTION product_facet_totals_on_insert();
+
+DROP TRIGGER IF EXISTS products_facet_totals_update ON products;
+CREATE TRIGGER products_facet_totals_update AFTER UPDATE ON products
+  REFERENCING OLD TABLE AS old_products NEW TABLE AS new_products
+  FOR EACH STATEMENT EXECUTE FUNCTION product_facet_totals_on_update();
+
+DROP TRIGGER IF EXISTS products_facet_totals_delete ON products;
+CREATE TRIGGER products_facet_totals_delete AFTER DELETE ON products
+  REFERENCING OLD TABLE AS old_products
+  FOR EACH STATEMENT EXECUTE FUNCTION product_facet_totals_on_delete();
+
+DROP TRIGGER IF EXISTS products_facet_totals_truncate ON products;
+CREATE TRIGGER products_facet_totals_truncate AFTER TRUNCATE ON products
+  FOR EACH STATEMENT EXECUTE FUNCTION product_facet_totals_on_truncate();
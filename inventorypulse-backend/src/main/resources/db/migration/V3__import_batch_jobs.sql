@@ -0,0 +1,14 @@
+SET search_path = inventorypulse_app;
+
+-- CSV imports run as background jobs tracked in import_batches
+ALTER TABLE import_batches
+  ADD COLUMN status TEXT NOT NULL DEFAULT 'QUEUED'
+    CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED')),
+  ADD COLUMN total_rows INT NOT NULL DEFAULT 0,
+  ADD COLUMN imported INT NOT NULL DEFAULT 0,
+  ADD COLUMN skipped INT NOT NULL DEFAULT 0,
+  ADD COLUMN rows_per_second DOUBLE PRECISION,
+  ADD COLUMN error_samples JSONB,
+  ADD COLUMN error_message TEXT,
+  ADD COLUMN started_at TIMESTAMPTZ,
+  ADD COLUMN finished_at TIMESTAMPTZ;
@@ -0,0 +1,7 @@
+SET search_path = inventorypulse_app;
+
+-- Upsert imports report updated and unchanged rows separately from inserts
+ALTER TABLE import_batches
+  ADD COLUMN mode TEXT NOT NULL DEFAULT 'INSERT' CHECK (mode IN ('INSERT', 'UPSERT')),
+  ADD COLUMN updated INT NOT NULL DEFAULT 0,
+  ADD COLUMN unchanged INT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+SET search_path = inventorypulse_app;
+
+-- Keyset pagination by title: (title, id) > (?, ?) ORDER BY title, id walks this index directly
+CREATE INDEX IF NOT EXISTS idx_products_title_id ON products (title, id);
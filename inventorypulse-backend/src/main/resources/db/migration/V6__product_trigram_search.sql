@@ -0,0 +1,11 @@
+SET search_path = inventorypulse_app;
+
+-- Product search matches and ranks against title, SKU and brand as one string. A GiST trigram
+-- index on that expression serves both the ILIKE '%q%' filter and ORDER BY ... <->> q, so the
+-- best matches come straight out of the index and a LIMIT stops the scan early; a GIN index
+-- can filter but every match would still have to be scored and sorted.
+-- siglen=256 keeps signatures precise enough for selective queries (the default 12 is not).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_trgm ON products
+  USING gist ((title || ' ' || sku || ' ' || coalesce(brand, '')) gist_trgm_ops (siglen = 256));
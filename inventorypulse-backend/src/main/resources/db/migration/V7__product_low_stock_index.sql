@@ -0,0 +1,10 @@
+SET search_path = inventorypulse_app;
+
+-- Low-stock products, most short first. stock - reorder_threshold is the negated shortfall, so
+-- ascending (stock - reorder_threshold, id) is "biggest shortfall first" and a keyset page can seek
+-- with a plain row comparison. Only low-stock rows are indexed; Postgres adds and drops entries as
+-- stock or threshold change, whichever code path writes them.
+-- Queries must repeat the stock <= reorder_threshold predicate for the planner to use this index.
+CREATE INDEX IF NOT EXISTS idx_products_low_stock
+    ON products ((stock - reorder_threshold), id)
+    WHERE stock <= reorder_threshold;
@@ -0,0 +1,21 @@
+SET search_path = inventorypulse_app;
+
+-- Per-product version for ETags. Bumped by the database on every row change, so it moves with
+-- stock movements (set-based JDBC updates), imports and entity saves alike. A constant default
+-- makes adding the column a catalog-only change, no table rewrite.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1;
+
+CREATE OR REPLACE FUNCTION products_bump_version() RETURNS trigger AS $$
+BEGIN
+    NEW.version := OLD.version + 1;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Updates that write identical values leave the version (and any cached ETag) alone
+DROP TRIGGER IF EXISTS products_bump_version ON products;
+CREATE TRIGGER products_bump_version
+    BEFORE UPDATE ON products
+    FOR EACH ROW
+    WHEN (OLD.* IS DISTINCT FROM NEW.*)
+    EXECUTE FUNCTION products_bump_version();
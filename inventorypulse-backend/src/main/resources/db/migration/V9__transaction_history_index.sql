@@ -0,0 +1,7 @@
+SET search_path = inventorypulse_app;
+
+-- Per-product history, newest first: WHERE product_id = ? [AND created_at range]
+-- [AND (created_at, id) < (?, ?)] ORDER BY created_at DESC, id DESC LIMIT n reads exactly
+-- n index entries, however deep the page or long the ledger
+CREATE INDEX IF NOT EXISTS idx_inventory_transactions_product_history
+    ON inventory_transactions (product_id, created_at DESC, id DESC);
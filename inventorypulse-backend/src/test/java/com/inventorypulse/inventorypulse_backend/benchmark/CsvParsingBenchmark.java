@@ -0,0 +1,146 @@
+package com.inventorypulse.inventorypulse_backend.benchmark;
+
+import com.inventorypulse.inventorypulse_backend.dto.product.CreateProductRequest;
+import com.inventorypulse.inventorypulse_backend.service.csv.CsvRecord;
+import com.inventorypulse.inventorypulse_backend.service.csv.CsvTokenizer;
+import com.inventorypulse.inventorypulse_backend.service.csv.ParallelCsvReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original split-based import loop with the RFC 4180 tokenizer, single-threaded and
+ * on the parallel block reader. Each operation parses a whole synthetic supplier feed into
+ * {@link CreateProductRequest}s.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Dbenchmark="CsvParsingBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParsingBenchmark {
+
+    @Param({"200000"})
+    public int rows;
+
+    private String csv;
+    private char[] chars;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder sb = new StringBuilder(rows * 120);
+        sb.append("sku,title,description,brand,category,imageUrl,stock,reorderThreshold\n");
+        for (int i = 0; i < rows; i++) {
+            sb.append("SKU-").append(i).append(',')
+                    .append("Widget ").append(i).append(',')
+                    .append("Sturdy widget for everyday use").append(',')
+                    .append("Acme").append(',')
+                    .append("Hardware").append(',')
+                    .append("https://cdn.example.com/img/").append(i).append(".png").append(',')
+                    .append(i % 500).append(',')
+                    .append(10).append('\n');
+        }
+        csv = sb.toString();
+        chars = csv.toCharArray();
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    // The loop ProductService.importFromCsv used before the tokenizer
+    @Benchmark
+    public void splitBased(Blackhole bh) throws IOException {
+        try (BufferedReader br = new BufferedReader(new StringReader(csv))) {
+            br.readLine();
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] parts = line.split(",", -1);
+                if (parts.length < 8) {
+                    continue;
+                }
+                bh.consume(new CreateProductRequest(
+                        parts[0].trim(),
+                        parts[1].trim(),
+                        parts[2].trim(),
+                        parts[3].trim(),
+                        parts[4].trim(),
+                        parts[5].trim(),
+                        parseIntSafe(parts[6]),
+                        parseIntSafe(parts[7])
+                ));
+            }
+        }
+    }
+
+    @Benchmark
+    public void tokenizerSingleThread(Blackhole bh) {
+        boolean[] header = {true};
+        CsvTokenizer.forEachRecord(chars, 0, chars.length, 1, record -> {
+            if (header[0]) {
+                header[0] = false;
+                return;
+            }
+            bh.consume(toRequest(record));
+        });
+    }
+
+    @Benchmark
+    public void tokenizerParallel(Blackhole bh) throws IOException {
+        ParallelCsvReader<CreateProductRequest> reader = new ParallelCsvReader<>(
+                pool, 1 << 20, pool.getParallelism() * 2, CsvParsingBenchmark::toRequest
+        );
+        reader.read(new StringReader(csv), true, bh::consume);
+    }
+
+    private static CreateProductRequest toRequest(CsvRecord record) {
+        if (record.size() < 8) {
+            return null;
+        }
+        return new CreateProductRequest(
+                record.get(0),
+                record.get(1),
+                record.get(2),
+                record.get(3),
+                record.get(4),
+                record.get(5),
+                record.getInt(6),
+                record.getInt(7)
+        );
+    }
+
+    private static Integer parseIntSafe(String s) {
+        try {
+            if (s == null || s.isBlank()) return null;
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
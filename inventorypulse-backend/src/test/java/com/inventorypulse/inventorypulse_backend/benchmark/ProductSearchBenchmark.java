@@ -0,0 +1,130 @@
+package com.inventorypulse.inventorypulse_backend.benchmark;
+
+import com.inventorypulse.inventorypulse_backend.InventoryPulseApplication;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product search latency on a catalog of a million products: exact SKU, a selective SKU
+ * fragment, a common title word, a common brand, a two-letter query, and the previous
+ * unpaged {@code lower(x) LIKE '%q%'} query (a sequential scan returning every match) for
+ * comparison.
+ *
+ * The catalog is generated with generate_series (SKUs prefixed {@code SB-}) unless it is already
+ * there, and is left in place so every benchmark method and later runs reuse it; remove it with
+ * {@code DELETE FROM products WHERE sku LIKE 'SB-%'}. Needs the database configured through the
+ * usual DB_* environment variables.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Dbenchmark="ProductSearchBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final int CATALOG_SIZE = 1_000_000;
+
+    private static final String SEED_SQL = """
+            INSERT INTO products (sku, title, brand, category, stock, reorder_threshold)
+            SELECT 'SB-' || lpad(i::text, 7, '0'),
+                   (ARRAY['Classic','Premium','Compact','Heavy-duty','Wireless',
+                          'Organic','Stainless','Portable','Ergonomic','Vintage'])[1 + i % 10] || ' ' ||
+                   (ARRAY['Lamp','Kettle','Backpack','Drill','Headphones',
+                          'Blender','Chair','Notebook','Jacket','Monitor'])[1 + (i / 10) % 10] || ' ' ||
+                   (ARRAY['Mini','Pro','Max','Lite','Plus','Air','One','Go','XL','S'])[1 + (i / 100) % 10] ||
+                   ' ' || i,
+                   (ARRAY['Acme','Globex','Initech','Umbrella','Hooli',
+                          'Stark','Wayne','Wonka','Tyrell','Cyberdyne'])[1 + (i / 1000) % 10],
+                   'Benchmark',
+                   i % 100,
+                   10
+            FROM generate_series(1, ?) AS i
+            """;
+
+    // The search query this project shipped before the trigram index
+    private static final String LEGACY_SQL = """
+            SELECT * FROM products
+            WHERE lower(title) LIKE lower(concat('%', ?, '%'))
+               OR lower(sku) LIKE lower(concat('%', ?, '%'))
+               OR (brand IS NOT NULL AND lower(brand) LIKE lower(concat('%', ?, '%')))
+            """;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryPulseApplication.class)
+                .properties("server.port=0")
+                .run();
+
+        productService = context.getBean(ProductService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        Integer seeded = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM products WHERE sku LIKE 'SB-%'", Integer.class);
+        if (seeded == null || seeded != CATALOG_SIZE) {
+            jdbcTemplate.update("DELETE FROM products WHERE sku LIKE 'SB-%'");
+            jdbcTemplate.update(SEED_SQL, CATALOG_SIZE);
+            jdbcTemplate.execute("ANALYZE products");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductResponse> exactSku() {
+        return productService.searchProducts("SB-0500000", null, null);
+    }
+
+    @Benchmark
+    public List<ProductResponse> skuFragment() {
+        return productService.searchProducts("042137", null, null);
+    }
+
+    @Benchmark
+    public List<ProductResponse> titleWord() {
+        return productService.searchProducts("kettle", null, null);
+    }
+
+    @Benchmark
+    public List<ProductResponse> brand() {
+        return productService.searchProducts("wonka", null, null);
+    }
+
+    @Benchmark
+    public List<ProductResponse> shortQuery() {
+        return productService.searchProducts("ke", null, null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> legacyLikeScan() {
+        return jdbcTemplate.queryForList(LEGACY_SQL, "kettle", "kettle", "kettle");
+    }
+}
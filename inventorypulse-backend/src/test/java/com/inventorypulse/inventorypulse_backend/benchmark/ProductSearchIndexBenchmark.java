@@ -0,0 +1,110 @@
+package com.inventorypulse.inventorypulse_backend.benchmark;
+
+import com.inventorypulse.inventorypulse_backend.service.search.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the in-memory product search index, for the same kinds of queries as
+ * {@link ProductSearchBenchmark} and a catalog generated the same way. Setup prints the
+ * retained heap of the built index (measured after GC) next to the index's own estimate.
+ *
+ * Needs no database.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Dbenchmark="ProductSearchIndexBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductSearchIndexBenchmark {
+
+    private static final String[] ADJECTIVES = {"Classic", "Premium", "Compact", "Heavy-duty", "Wireless",
+            "Organic", "Stainless", "Portable", "Ergonomic", "Vintage"};
+    private static final String[] NOUNS = {"Lamp", "Kettle", "Backpack", "Drill", "Headphones",
+            "Blender", "Chair", "Notebook", "Jacket", "Monitor"};
+    private static final String[] MODELS = {"Mini", "Pro", "Max", "Lite", "Plus", "Air", "One", "Go", "XL", "S"};
+    private static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Hooli",
+            "Stark", "Wayne", "Wonka", "Tyrell", "Cyberdyne"};
+
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    private ProductSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeap();
+        index = new ProductSearchIndex();
+        for (int i = 1; i <= catalogSize; i++) {
+            index.put(
+                    i,
+                    1,
+                    String.format("SB-%07d", i),
+                    ADJECTIVES[i % 10] + " " + NOUNS[(i / 10) % 10] + " " + MODELS[(i / 100) % 10] + " " + i,
+                    BRANDS[(i / 1000) % 10],
+                    "Benchmark"
+            );
+        }
+        index.trimToSize();
+        long retained = usedHeap() - before;
+
+        ProductSearchIndex.Stats stats = index.stats();
+        System.out.printf("%n%d products: %d grams, %d postings, retained heap %d MB, estimate %d MB%n",
+                stats.documents(), stats.grams(), stats.postings(),
+                retained / (1024 * 1024), stats.estimatedBytes() / (1024 * 1024));
+    }
+
+    @Benchmark
+    public List<ProductSearchIndex.Match> exactSku() {
+        return index.search("SB-0050000", 50, 0);
+    }
+
+    @Benchmark
+    public List<ProductSearchIndex.Match> skuFragment() {
+        return index.search("042137", 50, 0);
+    }
+
+    @Benchmark
+    public List<ProductSearchIndex.Match> titleWord() {
+        return index.search("kettle", 50, 0);
+    }
+
+    @Benchmark
+    public List<ProductSearchIndex.Match> brand() {
+        return index.search("wonka", 50, 0);
+    }
+
+    @Benchmark
+    public List<ProductSearchIndex.Match> shortQuery() {
+        return index.search("ke", 10, 0);
+    }
+
+    @Benchmark
+    public List<ProductSearchIndex.Match> autocompleteNarrowed() {
+        return index.search("premium kettle pro 12", 10, 0);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,111 @@
+package com.inventorypulse.inventorypulse_backend.benchmark;
+
+import com.inventorypulse.inventorypulse_backend.InventoryPulseApplication;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductPageResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductSort;
+import com.inventorypulse.inventorypulse_backend.service.InventoryTransactionService;
+import com.inventorypulse.inventorypulse_backend.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the product and transaction read endpoints at the service layer: a 50-row page by
+ * id and by title, the 1000-row legacy list, a ranked search page, a low-stock page and a
+ * 200-row transaction history. Run with {@code -prof gc} for bytes allocated per call.
+ *
+ * Runs against whatever catalog the database holds (search uses a common word); the history
+ * product and its ledger are created for the trial and removed afterwards. Needs the database
+ * configured through the usual DB_* environment variables.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Dbenchmark="ReadPathBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    private static final String HISTORY_SKU = "READ-BENCH-HISTORY";
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private InventoryTransactionService inventoryTransactionService;
+    private JdbcTemplate jdbcTemplate;
+    private Long historyProductId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryPulseApplication.class)
+                .run("--server.port=0", "--inventorypulse.products.cache.enabled=false");
+
+        productService = context.getBean(ProductService.class);
+        inventoryTransactionService = context.getBean(InventoryTransactionService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("DELETE FROM products WHERE sku = ?", HISTORY_SKU);
+        historyProductId = jdbcTemplate.queryForObject(
+                "INSERT INTO products (sku, title, stock, reorder_threshold) VALUES (?, 'Read benchmark', 1000, 0) RETURNING id",
+                Long.class, HISTORY_SKU);
+        jdbcTemplate.update("""
+                INSERT INTO inventory_transactions (product_id, delta, reason, actor, resulting_stock, created_at)
+                SELECT ?, 1, 'benchmark', 'benchmark@inventorypulse.local', i, now() - i * interval '1 minute'
+                FROM generate_series(1, 1000) AS i
+                """, historyProductId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", historyProductId);
+        context.close();
+    }
+
+    @Benchmark
+    public ProductPageResponse pageById() {
+        return productService.getProductPage(null, 50, ProductSort.ID);
+    }
+
+    @Benchmark
+    public ProductPageResponse pageByTitle() {
+        return productService.getProductPage(null, 50, ProductSort.TITLE);
+    }
+
+    @Benchmark
+    public ProductPageResponse legacyList() {
+        return productService.getAllProducts();
+    }
+
+    @Benchmark
+    public List<ProductResponse> search() {
+        return productService.searchProducts("widget 12", 50, 0);
+    }
+
+    @Benchmark
+    public ProductPageResponse lowStockPage() {
+        return productService.getLowStockPage(null, 50);
+    }
+
+    @Benchmark
+    public List<InventoryTransactionResponse> history() {
+        return inventoryTransactionService.getTransactionPage(historyProductId, null, null, null, 200).items();
+    }
+}
@@ -0,0 +1,90 @@
+package com.inventorypulse.inventorypulse_backend.benchmark;
+
+import com.inventorypulse.inventorypulse_backend.InventoryPulseApplication;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionResponse;
+import com.inventorypulse.inventorypulse_backend.model.Product;
+import com.inventorypulse.inventorypulse_backend.repository.ProductRepository;
+import com.inventorypulse.inventorypulse_backend.service.InventoryTransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many threads posting single stock movements to the same hot product, through the direct
+ * conditional UPDATE path and through the group-commit coalescer. Throughput shows how many
+ * movements per second the product row sustains; sample time shows per-call latency percentiles,
+ * including the coalescing window.
+ *
+ * Needs the database configured through the usual DB_* environment variables.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Dbenchmark="StockMovementBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(32)
+@Fork(1)
+public class StockMovementBenchmark {
+
+    @Param({"false", "true"})
+    public boolean coalescing;
+
+    private ConfigurableApplicationContext context;
+    private InventoryTransactionService inventoryTransactionService;
+    private ProductRepository productRepository;
+    private Long productId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryPulseApplication.class)
+                .properties(
+                        "server.port=0",
+                        "inventorypulse.inventory.coalescing.enabled=" + coalescing,
+                        "spring.datasource.hikari.maximum-pool-size=32"
+                )
+                .run();
+
+        inventoryTransactionService = context.getBean(InventoryTransactionService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        productId = productRepository.save(Product.builder()
+                .sku("BENCH-" + UUID.randomUUID())
+                .title("Hot SKU benchmark product")
+                .stock(0)
+                .reorderThreshold(0)
+                .build()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        productRepository.deleteById(productId);
+        context.close();
+    }
+
+    @Benchmark
+    public InventoryTransactionResponse hotProductMovement() {
+        return inventoryTransactionService.createTransaction(
+                productId,
+                new InventoryTransactionRequest(1, "benchmark", null),
+                "benchmark@inventorypulse.local"
+        );
+    }
+}
@@ -0,0 +1,82 @@
+package com.inventorypulse.inventorypulse_backend.controller;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.service.InventoryTransactionService;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Polled reads answer If-None-Match with 304 until a write touches what they return.
+ * Runs against the configured database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    @Autowired
+    private InventoryTransactionService inventoryTransactionService;
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void stockMovementChangesProductHistoryAndCatalogTags() throws Exception {
+        Long id = testProducts.save("ETAG", 1);
+        String product = "/api/products/" + id;
+        String history = product + "/transactions";
+
+        String productTag = etag(product);
+        String historyTag = etag(history);
+        String catalogTag = etag("/api/products/low-stock");
+
+        mockMvc.perform(get(product).header(HttpHeaders.IF_NONE_MATCH, productTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get(history).header(HttpHeaders.IF_NONE_MATCH, historyTag))
+                .andExpect(status().isNotModified());
+
+        inventoryTransactionService.createTransaction(
+                id, new InventoryTransactionRequest(5, "etag test", null), "test@inventorypulse.local");
+
+        mockMvc.perform(get(product).header(HttpHeaders.IF_NONE_MATCH, productTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(productTag)));
+        mockMvc.perform(get(history).header(HttpHeaders.IF_NONE_MATCH, historyTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/low-stock").header(HttpHeaders.IF_NONE_MATCH, catalogTag))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String path) throws Exception {
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        return etag;
+    }
+}
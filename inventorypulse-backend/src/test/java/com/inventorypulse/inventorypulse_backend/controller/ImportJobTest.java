@@ -0,0 +1,173 @@
+package com.inventorypulse.inventorypulse_backend.controller;
+
+import com.inventorypulse.inventorypulse_backend.model.ImportBatch;
+import com.inventorypulse.inventorypulse_backend.repository.ImportBatchRepository;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Uploads are queued with 202 and run in the background while their job reports progress. The
+ * same file is refused while an earlier upload of it stands, and accepted again once that one
+ * failed. Batches nobody keeps alive are failed by the sweep and stay failed. The heartbeat is
+ * sped up so the sweep runs within the test. Runs against the configured database.
+ */
+@SpringBootTest(properties = {
+        "inventorypulse.imports.heartbeat-interval=200ms",
+        "inventorypulse.imports.stale-after=3s"
+})
+@AutoConfigureMockMvc
+@WithMockUser(roles = "MANAGER")
+class ImportJobTest {
+
+    private static final String HEADER = "sku,title,description,brand,category,imageUrl,stock,reorderThreshold\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    @Autowired
+    private ImportBatchRepository importBatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> skus = new ArrayList<>();
+    private final List<Long> batchIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        skus.stream().filter(sku -> jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM products WHERE sku = ?", Integer.class, sku) > 0).forEach(testProducts::track);
+        testProducts.deleteAll();
+        batchIds.forEach(importBatchRepository::deleteById);
+    }
+
+    @Test
+    void jobRunsInTheBackgroundAndReportsItsOutcome() throws Exception {
+        String csv = csv(2) + "IMPORT-short,Too few columns\n";
+
+        String location = upload(csv)
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, startsWith("/api/products/import/jobs/")))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.LOCATION);
+        String job = awaitFinished(location);
+
+        assertThat(JsonPath.<String>read(job, "$.status")).isEqualTo("COMPLETED");
+        assertThat(JsonPath.<Integer>read(job, "$.totalRows")).isEqualTo(3);
+        assertThat(JsonPath.<Integer>read(job, "$.imported")).isEqualTo(2);
+        assertThat(JsonPath.<Integer>read(job, "$.skipped")).isEqualTo(1);
+        assertThat(JsonPath.<List<String>>read(job, "$.errorSamples"))
+                .containsExactly("line 4: expected 8 columns but found 2");
+        mockMvc.perform(get("/api/products/import/jobs/0")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void sameFileIsRefusedUntilItsBatchFailed() throws Exception {
+        String csv = csv(2);
+        String location = submit(csv);
+        Long jobId = JsonPath.<Number>read(awaitFinished(location), "$.id").longValue();
+
+        upload(csv).andExpect(status().isConflict());
+
+        jdbcTemplate.update("UPDATE import_batches SET status = 'FAILED' WHERE id = ?", jobId);
+        String retried = awaitFinished(submit(csv));
+
+        // The failed batch is reused for the retry; its products exist by now
+        assertThat(JsonPath.<Number>read(retried, "$.id").longValue()).isEqualTo(jobId);
+        assertThat(JsonPath.<String>read(retried, "$.status")).isEqualTo("COMPLETED");
+        assertThat(JsonPath.<Integer>read(retried, "$.imported")).isZero();
+        assertThat(JsonPath.<Integer>read(retried, "$.skipped")).isEqualTo(2);
+    }
+
+    @Test
+    void staleBatchIsFailedAndStaysFailed() {
+        Long batchId = jdbcTemplate.queryForObject("""
+                INSERT INTO import_batches (file_name, file_hash, status, heartbeat_at)
+                VALUES ('lost.csv', ?, 'RUNNING', now() - interval '1 hour')
+                RETURNING id
+                """, Long.class, UUID.randomUUID().toString());
+        batchIds.add(batchId);
+
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+                importBatchRepository.findById(batchId).orElseThrow().getStatus() == ImportBatch.Status.FAILED);
+        assertThat(importBatchRepository.findById(batchId).orElseThrow().getErrorMessage())
+                .startsWith("Import was interrupted");
+
+        // What the lost job would write if it were still going: refused, so the batch stays failed
+        Instant now = Instant.now();
+        assertThat(importBatchRepository.updateRunning(batchId, ImportBatch.Status.COMPLETED,
+                5, 5, 0, 0, 0, 1.0, List.of(), null, now, now)).isZero();
+        assertThat(importBatchRepository.start(batchId, now)).isZero();
+        assertThat(importBatchRepository.findById(batchId).orElseThrow().getStatus()).isEqualTo(ImportBatch.Status.FAILED);
+    }
+
+    // A file with unique SKUs, so its hash is new
+    private String csv(int rows) {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < rows; i++) {
+            String sku = TestProducts.sku("JOB");
+            skus.add(sku);
+            csv.append(sku).append(",Job test product,,,,,3,1\n");
+        }
+        return csv.toString();
+    }
+
+    private ResultActions upload(String csv) throws Exception {
+        return mockMvc.perform(multipart("/api/products/import/jobs")
+                .file(new MockMultipartFile("file", "products.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private String submit(String csv) throws Exception {
+        return upload(csv)
+                .andExpect(status().isAccepted())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.LOCATION);
+    }
+
+    // Polls the job until it completed or failed, and returns it
+    private String awaitFinished(String location) throws Exception {
+        batchIds.add(Long.valueOf(location.substring(location.lastIndexOf('/') + 1)));
+        String[] job = new String[1];
+        // The mock user only exists on the test thread
+        await().atMost(Duration.ofSeconds(30)).pollInSameThread().until(() -> {
+            job[0] = mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            return List.of("COMPLETED", "FAILED").contains(JsonPath.<String>read(job[0], "$.status"));
+        });
+        return job[0];
+    }
+}
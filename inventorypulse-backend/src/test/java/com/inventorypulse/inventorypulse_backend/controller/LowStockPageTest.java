@@ -0,0 +1,108 @@
+package com.inventorypulse.inventorypulse_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductPageResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.service.paging.LowStockCursor;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Low-stock pages run from the biggest shortfall down, ties in id order, and hand out every row
+ * once. A stock movement that lifts a product above its threshold takes it off the list. The
+ * test products' shortfalls are far above anything else in the catalog, so paging starts right
+ * before them. Runs against the configured database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "MANAGER")
+class LowStockPageTest {
+
+    private static final int SHORTFALL = 1_000_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void createProducts() {
+        // Shortfalls 3, 2, 2, 2 and 1 above SHORTFALL, saved in an order that is not the page order
+        for (int extra : List.of(2, 1, 2, 3, 2)) {
+            ids.add(testProducts.save(TestProducts.product("LOW").stock(5).reorderThreshold(5 + SHORTFALL + extra)).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void pagesRunByShortfallWithTiesInIdOrder() throws Exception {
+        assertThat(lowStockIds()).containsExactly(ids.get(3), ids.get(0), ids.get(2), ids.get(4), ids.get(1));
+    }
+
+    @Test
+    void productLeavesOnceAMovementLiftsItAboveItsThreshold() throws Exception {
+        mockMvc.perform(post("/api/products/" + ids.get(2) + "/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new InventoryTransactionRequest(SHORTFALL + 3, "Restock", null))))
+                .andExpect(status().isOk());
+
+        assertThat(lowStockIds()).containsExactly(ids.get(3), ids.get(0), ids.get(4), ids.get(1));
+    }
+
+    // Walks the pages two at a time from just before the test products until they are behind
+    private List<Long> lowStockIds() throws Exception {
+        String cursor = new LowStockCursor(SHORTFALL + 4, 0).encode();
+        List<Long> seen = new ArrayList<>();
+        boolean pastOurs = false;
+        while (cursor != null && !pastOurs) {
+            ProductPageResponse page = page("/api/products/low-stock/page?limit=2&cursor=" + cursor);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+            for (ProductResponse item : page.items()) {
+                if (item.reorderThreshold() - item.stock() > SHORTFALL) {
+                    seen.add(item.id());
+                } else {
+                    pastOurs = true;
+                }
+            }
+            cursor = page.nextCursor();
+        }
+        return seen;
+    }
+
+    private ProductPageResponse page(String path) throws Exception {
+        String body = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(body, ProductPageResponse.class);
+    }
+}
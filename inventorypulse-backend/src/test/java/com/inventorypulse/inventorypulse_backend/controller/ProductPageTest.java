@@ -0,0 +1,148 @@
+package com.inventorypulse.inventorypulse_backend.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductPageResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductSort;
+import com.inventorypulse.inventorypulse_backend.service.paging.ProductCursor;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset pages sorted by title hand out every row exactly once even where titles repeat, and the
+ * last page has no cursor. The legacy list stops at its row cap and says where to go on. Runs
+ * against the configured database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ProductPageTest {
+
+    private static final int LEGACY_LIST_LIMIT = 1000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String fillerSkuPrefix;
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+        if (fillerSkuPrefix != null) {
+            jdbcTemplate.update("DELETE FROM products WHERE sku LIKE ?", fillerSkuPrefix + "%");
+        }
+    }
+
+    @Test
+    void titlePagesVisitDuplicateTitlesOnce() throws Exception {
+        String prefix = "PAGE-" + UUID.randomUUID();
+        List<ProductResponse> expected = new ArrayList<>();
+        for (String suffix : List.of("B", "A", "C", "A", "B", "A", "C")) {
+            Long id = testProducts.save(TestProducts.product("PAGE").title(prefix + " " + suffix)).getId();
+            expected.add(new ProductResponse(id, null, prefix + " " + suffix, null, null, null, null, 0, 0));
+        }
+        expected.sort(Comparator.comparing(ProductResponse::title).thenComparing(ProductResponse::id));
+
+        // Start right before the test's titles rather than walking the whole catalog
+        String cursor = ProductCursor.after(ProductSort.TITLE,
+                new ProductResponse(0L, null, prefix, null, null, null, null, 0, 0)).encode();
+        List<Long> seen = new ArrayList<>();
+        boolean pastPrefix = false;
+        while (cursor != null && !pastPrefix) {
+            ProductPageResponse page = page("/api/products/page?sort=title&limit=2&cursor=" + cursor);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+            for (ProductResponse item : page.items()) {
+                if (item.title().startsWith(prefix)) {
+                    seen.add(item.id());
+                } else {
+                    pastPrefix = true;
+                }
+            }
+            cursor = page.nextCursor();
+        }
+
+        assertThat(seen).containsExactlyElementsOf(expected.stream().map(ProductResponse::id).toList());
+    }
+
+    @Test
+    void lastPageHasNoCursor() throws Exception {
+        testProducts.save("PAGE", 0);
+        List<ProductResponse> lastTwo = jdbcTemplate.query(
+                "SELECT id, title FROM products ORDER BY title DESC, id DESC LIMIT 2",
+                (rs, rowNum) -> new ProductResponse(rs.getLong("id"), null, rs.getString("title"), null, null, null, null, 0, 0));
+
+        ProductPageResponse last = page("/api/products/page?sort=title&limit=1&cursor="
+                + ProductCursor.after(ProductSort.TITLE, lastTwo.get(1)).encode());
+        assertThat(last.items()).extracting(ProductResponse::id).containsExactly(lastTwo.get(0).id());
+        assertThat(last.nextCursor()).isNull();
+
+        ProductPageResponse beyond = page("/api/products/page?sort=title&limit=1&cursor="
+                + ProductCursor.after(ProductSort.TITLE, lastTwo.get(0)).encode());
+        assertThat(beyond.items()).isEmpty();
+        assertThat(beyond.nextCursor()).isNull();
+    }
+
+    @Test
+    void legacyListStopsAtItsCapWithANextCursor() throws Exception {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM products", Integer.class);
+        if (count <= LEGACY_LIST_LIMIT) {
+            fillerSkuPrefix = "LEGACY-" + UUID.randomUUID() + "-";
+            jdbcTemplate.update("""
+                    INSERT INTO products (sku, title, stock, reorder_threshold)
+                    SELECT ? || n, 'Legacy list filler', 0, 0 FROM generate_series(1, ?) AS n
+                    """, fillerSkuPrefix, LEGACY_LIST_LIMIT + 1 - count);
+        }
+
+        MockHttpServletResponse response = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        List<ProductResponse> items = objectMapper.readValue(response.getContentAsString(), new TypeReference<>() { });
+        String nextCursor = response.getHeader("X-Next-Cursor");
+
+        assertThat(items).hasSize(LEGACY_LIST_LIMIT);
+        assertThat(nextCursor).isNotNull();
+        // The cursor continues in id order right after the last listed product
+        Long lastId = items.get(items.size() - 1).id();
+        ProductPageResponse next = page("/api/products/page?limit=1&cursor=" + nextCursor);
+        Long expectedNext = jdbcTemplate.queryForObject(
+                "SELECT min(id) FROM products WHERE id > ?", Long.class, lastId);
+        assertThat(next.items()).extracting(ProductResponse::id).containsExactly(expectedNext);
+    }
+
+    private ProductPageResponse page(String path) throws Exception {
+        String body = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(body, ProductPageResponse.class);
+    }
+}
@@ -0,0 +1,243 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkInventoryTransactionEntry;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkInventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkInventoryTransactionResponse;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkInventoryTransactionResult;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkTransactionMode;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.inventorypulse.inventorypulse_backend.service.BulkInventoryTransactionService.APPLIED;
+import static com.inventorypulse.inventorypulse_backend.service.BulkInventoryTransactionService.NOT_APPLIED;
+import static com.inventorypulse.inventorypulse_backend.service.BulkInventoryTransactionService.REJECTED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * All-or-nothing batches write nothing when any entry fails, best-effort ones apply the rest and
+ * report each rejection, and entries for one product see each other's stock. Retried batches are
+ * answered with their original transactions instead of being applied again, also when the retry
+ * races the original; a reference reused for a different movement is rejected. Runs against the
+ * configured database.
+ */
+@SpringBootTest
+class BulkInventoryTransactionServiceTest {
+
+    private static final String ACTOR = "test@inventorypulse.local";
+
+    @Autowired
+    private BulkInventoryTransactionService bulkInventoryTransactionService;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void allOrNothingRollsBackEveryEntryWhenOneFails() {
+        Long first = testProducts.save("BULK", 5);
+        Long second = testProducts.save("BULK", 5);
+
+        BulkInventoryTransactionResponse response = apply(new BulkInventoryTransactionRequest(BulkTransactionMode.ALL_OR_NOTHING, List.of(
+                entry(first, -2, null),
+                entry(second, -10, null),
+                entry(first, 1, null)
+        )));
+
+        assertThat(response.applied()).isFalse();
+        assertThat(response.appliedCount()).isZero();
+        assertThat(response.rejectedCount()).isEqualTo(1);
+        assertThat(response.results()).extracting(BulkInventoryTransactionResult::status)
+                .containsExactly(NOT_APPLIED, REJECTED, NOT_APPLIED);
+        assertThat(response.results().get(1).message()).isEqualTo("Stock cannot be negative (current: 5, delta: -10)");
+        assertThat(response.results()).extracting(BulkInventoryTransactionResult::transaction).containsOnlyNulls();
+        assertThat(testProducts.stockOf(first)).isEqualTo(5);
+        assertThat(testProducts.stockOf(second)).isEqualTo(5);
+        assertThat(ledgerSize(first) + ledgerSize(second)).isZero();
+    }
+
+    @Test
+    void bestEffortAppliesValidEntriesAndRejectsTheRest() {
+        Long first = testProducts.save("BULK", 5);
+        Long second = testProducts.save("BULK", 5);
+
+        BulkInventoryTransactionResponse response = apply(new BulkInventoryTransactionRequest(BulkTransactionMode.BEST_EFFORT, List.of(
+                entry(first, -2, null),
+                entry(second, -10, null),
+                new BulkInventoryTransactionEntry(null, "no-such-sku-" + UUID.randomUUID(), 1, "bulk test", null),
+                entry(second, 0, null),
+                entry(second, 3, null)
+        )));
+
+        assertThat(response.applied()).isTrue();
+        assertThat(response.appliedCount()).isEqualTo(2);
+        assertThat(response.rejectedCount()).isEqualTo(3);
+        assertThat(response.results()).extracting(BulkInventoryTransactionResult::status)
+                .containsExactly(APPLIED, REJECTED, REJECTED, REJECTED, APPLIED);
+        assertThat(response.results()).extracting(BulkInventoryTransactionResult::index).containsExactly(0, 1, 2, 3, 4);
+        assertThat(response.results().get(2).message()).startsWith("Product with SKU").endsWith("not found");
+        assertThat(response.results().get(3).message()).isEqualTo("delta must be non-zero");
+        assertThat(testProducts.stockOf(first)).isEqualTo(3);
+        assertThat(testProducts.stockOf(second)).isEqualTo(8);
+        assertThat(ledgerSize(first) + ledgerSize(second)).isEqualTo(2);
+    }
+
+    @Test
+    void entriesForOneProductSeeARunningStock() {
+        Long productId = testProducts.save("BULK", 10);
+        String sku = TestProducts.sku("BULK");
+        Long bySku = testProducts.save(TestProducts.product("BULK").sku(sku).stock(1)).getId();
+
+        BulkInventoryTransactionResponse response = apply(new BulkInventoryTransactionRequest(BulkTransactionMode.BEST_EFFORT, List.of(
+                entry(productId, -3, null),
+                new BulkInventoryTransactionEntry(null, sku, 4, "bulk test", null),
+                entry(productId, 5, null),
+                // 12 by now: more than the product started with, still not enough for this one
+                entry(productId, -13, null),
+                entry(productId, -11, null),
+                new BulkInventoryTransactionEntry(null, sku, -5, "bulk test", null)
+        )));
+
+        assertThat(response.results()).extracting(BulkInventoryTransactionResult::status)
+                .containsExactly(APPLIED, APPLIED, APPLIED, REJECTED, APPLIED, APPLIED);
+        assertThat(response.results().get(3).message()).isEqualTo("Stock cannot be negative (current: 12, delta: -13)");
+        assertThat(response.results()).extracting(result -> result.transaction() != null ? result.transaction().resultingStock() : null)
+                .containsExactly(7, 5, 12, null, 1, 0);
+        assertThat(testProducts.stockOf(productId)).isEqualTo(1);
+        assertThat(testProducts.stockOf(bySku)).isZero();
+    }
+
+    @Test
+    void rejectedReferencesAreReportedPerEntry() {
+        Long productId = testProducts.save("BULK", 10);
+        String used = reference();
+        Long originalId = apply(new BulkInventoryTransactionRequest(BulkTransactionMode.BEST_EFFORT, List.of(entry(productId, 1, used))))
+                .results().get(0).transaction().id();
+        String repeated = reference();
+
+        BulkInventoryTransactionResponse response = apply(new BulkInventoryTransactionRequest(BulkTransactionMode.BEST_EFFORT, List.of(
+                entry(productId, 2, used),
+                entry(productId, 1, repeated),
+                entry(productId, 1, repeated),
+                entry(productId, 1, reference())
+        )));
+
+        assertThat(response.results()).extracting(BulkInventoryTransactionResult::status)
+                .containsExactly(REJECTED, APPLIED, REJECTED, APPLIED);
+        assertThat(response.results()).extracting(BulkInventoryTransactionResult::message).containsExactly(
+                "External reference '" + used + "' was already used for transaction " + originalId,
+                null,
+                "External reference '" + repeated + "' is repeated in this batch",
+                null
+        );
+        assertThat(response.results().get(1).transaction().externalReference()).isEqualTo(repeated);
+        assertThat(testProducts.stockOf(productId)).isEqualTo(13);
+    }
+
+    @Test
+    void retriedBatchGetsItsOriginalResultsBack() {
+        Long productId = testProducts.save("BULK", 10);
+        BulkInventoryTransactionRequest request = new BulkInventoryTransactionRequest(BulkTransactionMode.ALL_OR_NOTHING, List.of(
+                entry(productId, -2, reference()),
+                entry(productId, 5, reference())
+        ));
+
+        BulkInventoryTransactionResponse first = apply(request);
+        BulkInventoryTransactionResponse retry = apply(request);
+
+        assertThat(first.applied()).isTrue();
+        assertThat(retry).isEqualTo(first);
+        assertThat(testProducts.stockOf(productId)).isEqualTo(13);
+        assertThat(ledgerSize(productId)).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentRetriesApplyTheBatchOnce() throws Exception {
+        Long productId = testProducts.save("BULK", 10);
+        BulkInventoryTransactionRequest request = new BulkInventoryTransactionRequest(BulkTransactionMode.BEST_EFFORT, List.of(
+                entry(productId, 1, reference()),
+                entry(productId, 1, reference()),
+                entry(productId, 1, reference())
+        ));
+
+        // Whichever commits second hits the unique reference index and must answer from the first
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<BulkInventoryTransactionResponse>> attempts = List.of(
+                CompletableFuture.supplyAsync(() -> awaitThenApply(start, request)),
+                CompletableFuture.supplyAsync(() -> awaitThenApply(start, request))
+        );
+        start.countDown();
+
+        BulkInventoryTransactionResponse one = attempts.get(0).get(30, TimeUnit.SECONDS);
+        BulkInventoryTransactionResponse other = attempts.get(1).get(30, TimeUnit.SECONDS);
+        assertThat(one.appliedCount()).isEqualTo(3);
+        assertThat(other).isEqualTo(one);
+        assertThat(testProducts.stockOf(productId)).isEqualTo(13);
+        assertThat(ledgerSize(productId)).isEqualTo(3);
+    }
+
+    @Test
+    void referenceReusedForAnotherMovementIsRejected() {
+        Long productId = testProducts.save("BULK", 10);
+        String reference = reference();
+        BulkInventoryTransactionResponse original = apply(new BulkInventoryTransactionRequest(
+                BulkTransactionMode.ALL_OR_NOTHING, List.of(entry(productId, -2, reference))));
+        Long originalId = original.results().get(0).transaction().id();
+
+        BulkInventoryTransactionResponse reused = apply(new BulkInventoryTransactionRequest(BulkTransactionMode.ALL_OR_NOTHING, List.of(
+                entry(productId, -3, reference),
+                entry(productId, 1, reference())
+        )));
+
+        assertThat(reused.applied()).isFalse();
+        assertThat(reused.results()).extracting(BulkInventoryTransactionResult::status).containsExactly(REJECTED, NOT_APPLIED);
+        assertThat(reused.results().get(0).message())
+                .isEqualTo("External reference '" + reference + "' was already used for transaction " + originalId);
+        assertThat(testProducts.stockOf(productId)).isEqualTo(8);
+        assertThat(ledgerSize(productId)).isEqualTo(1);
+    }
+
+    private BulkInventoryTransactionResponse apply(BulkInventoryTransactionRequest request) {
+        return bulkInventoryTransactionService.applyBatch(request, ACTOR);
+    }
+
+    private BulkInventoryTransactionResponse awaitThenApply(CountDownLatch start, BulkInventoryTransactionRequest request) {
+        try {
+            start.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+        return apply(request);
+    }
+
+    private static BulkInventoryTransactionEntry entry(Long productId, int delta, String externalReference) {
+        return new BulkInventoryTransactionEntry(productId, null, delta, "bulk test", externalReference);
+    }
+
+    private static String reference() {
+        return "bulk-test-" + UUID.randomUUID();
+    }
+
+    private long ledgerSize(Long productId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM inventory_transactions WHERE product_id = ?", Long.class, productId);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers a single product from many threads at once. With the old load/modify/save flow
+ * these tests lose updates and can drive stock negative; with the conditional UPDATE they must not.
+ * Runs against the configured database.
+ */
+@SpringBootTest
+class InventoryTransactionConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int MOVEMENTS_PER_THREAD = 50;
+
+    @Autowired
+    private InventoryTransactionService inventoryTransactionService;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void concurrentDeltasAreNeverLost() throws Exception {
+        Long productId = testProducts.save("CONC", 1_000);
+
+        // Every thread adds 3 and removes 1 alternately: the net change is known exactly
+        List<Integer> applied = runConcurrently(productId, i -> i % 2 == 0 ? 3 : -1);
+        int expectedNet = applied.stream().mapToInt(Integer::intValue).sum();
+
+        assertEquals(THREADS * MOVEMENTS_PER_THREAD, applied.size());
+        assertEquals(1_000 + expectedNet, testProducts.stockOf(productId));
+        assertEquals(THREADS * MOVEMENTS_PER_THREAD, ledgerSize(productId));
+    }
+
+    @Test
+    void concurrentWithdrawalsNeverDriveStockNegative() throws Exception {
+        int initialStock = 100;
+        Long productId = testProducts.save("CONC", initialStock);
+
+        // 800 withdrawals of 1 compete for 100 units: exactly 100 may succeed
+        List<Integer> applied = runConcurrently(productId, i -> -1);
+
+        assertEquals(initialStock, applied.size());
+        assertEquals(0, testProducts.stockOf(productId));
+        assertEquals(initialStock, ledgerSize(productId));
+    }
+
+    private List<Integer> runConcurrently(Long productId, IntUnaryOperator deltaForMovement)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    List<Integer> deltas = new ArrayList<>();
+                    start.await();
+                    for (int i = 0; i < MOVEMENTS_PER_THREAD; i++) {
+                        int delta = deltaForMovement.applyAsInt(i);
+                        try {
+                            inventoryTransactionService.createTransaction(
+                                    productId,
+                                    new InventoryTransactionRequest(delta, "concurrency test", null),
+                                    "test@inventorypulse.local"
+                            );
+                            deltas.add(delta);
+                        } catch (ResponseStatusException ex) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return deltas;
+                }));
+            }
+
+            start.countDown();
+
+            List<Integer> applied = new ArrayList<>();
+            for (Future<List<Integer>> future : futures) {
+                applied.addAll(future.get(2, TimeUnit.MINUTES));
+            }
+            assertEquals(THREADS * MOVEMENTS_PER_THREAD, applied.size() + rejected.get());
+            return applied;
+        } finally {
+            pool.shutdownNow();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        }
+    }
+
+    private long ledgerSize(Long productId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM inventory_transactions WHERE product_id = ?", Long.class, productId);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,127 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventorypulse.inventorypulse_backend.dto.product.ExportFormat;
+import com.inventorypulse.inventorypulse_backend.dto.product.ImportMode;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductImportResult;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.model.Product;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A CSV export imports back unchanged, whatever its text fields hold: surrounding spaces, quotes,
+ * commas, CRLF and newlines, or nothing at all. NDJSON exports hold one product per line, also
+ * gzipped. The products are the newest in the catalog, so they come last in id order. Runs
+ * against the configured database.
+ */
+@SpringBootTest
+class ProductExportServiceTest {
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void createProducts() {
+        products.add(testProducts.save(TestProducts.product("EXPORT")
+                .title("  Padded title ")
+                .description("Says \"hello\", then \"bye\"")
+                .brand(" Acme, Inc.")
+                .category("Tools")
+                .imageUrl("https://example.com/a.png?size=1,2")
+                .stock(12)
+                .reorderThreshold(3)));
+        products.add(testProducts.save(TestProducts.product("EXPORT")
+                .title("Multi-line")
+                .description("first line\r\nsecond line\nthird \"quoted\" line\n")
+                .stock(0)
+                .reorderThreshold(1)));
+        // Every optional field left null
+        products.add(testProducts.save(TestProducts.product("EXPORT")
+                .title("Bare")));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void csvExportImportsBackUnchanged() throws IOException {
+        String csv = export(ExportFormat.CSV, false);
+        String header = csv.substring(0, csv.indexOf('\n') + 1);
+        String ours = csv.substring(csv.indexOf("\n" + products.get(0).getSku() + ",") + 1);
+
+        ProductImportResult result = productImportService.importFromCsv(new StringReader(header + ours), ImportMode.UPSERT);
+
+        assertThat(result).isEqualTo(new ProductImportResult(3, 0, 0, 0, 3));
+    }
+
+    @Test
+    void ndjsonExportHasOneProductPerLine() throws IOException {
+        assertOneProductPerLine(export(ExportFormat.NDJSON, false));
+    }
+
+    @Test
+    void gzippedNdjsonExportHasOneProductPerLine() throws IOException {
+        assertOneProductPerLine(export(ExportFormat.NDJSON, true));
+    }
+
+    private void assertOneProductPerLine(String ndjson) throws IOException {
+        assertThat(ndjson).endsWith("\n");
+        String[] lines = ndjson.split("\n");
+        for (String line : lines) {
+            assertThat(objectMapper.readTree(line).isObject()).as(line).isTrue();
+        }
+
+        List<ProductResponse> last = new ArrayList<>();
+        for (int i = lines.length - products.size(); i < lines.length; i++) {
+            last.add(objectMapper.readValue(lines[i], ProductResponse.class));
+        }
+        assertThat(last).extracting(ProductResponse::sku).containsExactlyElementsOf(products.stream().map(Product::getSku).toList());
+        assertThat(last).extracting(ProductResponse::title).containsExactlyElementsOf(products.stream().map(Product::getTitle).toList());
+        assertThat(last).extracting(ProductResponse::description)
+                .containsExactlyElementsOf(products.stream().map(Product::getDescription).toList());
+        JsonNode bare = objectMapper.readTree(lines[lines.length - 1]);
+        assertThat(bare.get("brand").isNull()).isTrue();
+    }
+
+    private String export(ExportFormat format, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productExportService.export(format, gzip, out);
+        byte[] bytes = out.toByteArray();
+        if (gzip) {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                bytes = in.readAllBytes();
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,188 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.inventorypulse.inventorypulse_backend.dto.product.ImportMode;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductImportResult;
+import com.inventorypulse.inventorypulse_backend.model.Product;
+import com.inventorypulse.inventorypulse_backend.repository.ProductRepository;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Malformed rows are skipped and reported with their line, also when a quoted field spans the
+ * point where the reader splits the upload (blocks are shrunk to the smallest size so small files
+ * are split). Upsert imports count each row once: new SKUs as imported, changed products as
+ * updated and rows matching what is stored as unchanged, which are not written at all; a blank
+ * stock never overwrites an existing product's stock, also one inserted while the import ran.
+ * Runs against the configured database.
+ */
+@SpringBootTest(properties = "inventorypulse.imports.parse-block-size=1024")
+class ProductImportServiceTest {
+
+    private static final String HEADER = "sku,title,description,brand,category,imageUrl,stock,reorderThreshold\n";
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void malformedRowsAreSkippedWithTheirLine() {
+        String first = TestProducts.sku("IMPORT");
+        String second = TestProducts.sku("IMPORT");
+        List<String> rejections = new ArrayList<>();
+
+        ProductImportResult result = productImportService.importFromCsv(new StringReader(HEADER
+                + first + ",Good product,,,,,5,1\n"
+                + "IMPORT-short,Too few columns,\n"
+                + TestProducts.sku("IMPORT") + ",Bad threshold,,,,,5,many\n"
+                + ",No sku,,,,,5,1\n"
+                + second + ",Good product,,,,,5,1\n"
+        ), ImportMode.INSERT, rejectionsInto(rejections));
+        testProducts.track(first);
+        testProducts.track(second);
+
+        assertThat(result).isEqualTo(new ProductImportResult(5, 2, 3));
+        assertThat(rejections).containsExactly(
+                "3: expected 8 columns but found 3",
+                "4: reorderThreshold must be an integer",
+                "5: sku is required"
+        );
+    }
+
+    @Test
+    void upsertCountsNewChangedAndUnchangedRows() {
+        Product changed = testProducts.save(TestProducts.product("IMPORT").stock(4).reorderThreshold(2));
+        Product same = testProducts.save(TestProducts.product("IMPORT").stock(7).reorderThreshold(3));
+        String fresh = TestProducts.sku("IMPORT");
+        String sameVersion = rowVersion(same.getId());
+
+        ProductImportResult result = productImportService.importFromCsv(new StringReader(HEADER
+                + fresh + ",New product,,,,,5,1\n"
+                + changed.getSku() + ",Renamed product,,,,,,2\n"
+                + same.getSku() + "," + same.getTitle() + ",,,,,7,3\n"
+        ), ImportMode.UPSERT);
+        Long freshId = testProducts.track(fresh);
+
+        assertThat(result).isEqualTo(new ProductImportResult(3, 1, 0, 1, 1));
+        assertThat(testProducts.stockOf(freshId)).isEqualTo(5);
+        Product renamed = productRepository.findById(changed.getId()).orElseThrow();
+        assertThat(renamed.getTitle()).isEqualTo("Renamed product");
+        // A blank stock column leaves an existing product's stock alone
+        assertThat(renamed.getStock()).isEqualTo(4);
+        assertThat(rowVersion(same.getId())).isEqualTo(sameVersion);
+    }
+
+    @Test
+    void blankStockKeepsTheStockOfASkuInsertedConcurrently() throws Exception {
+        String sku = TestProducts.sku("IMPORT");
+
+        try (Connection other = dataSource.getConnection()) {
+            other.setAutoCommit(false);
+            try (PreparedStatement insert = other.prepareStatement(
+                    "INSERT INTO products (sku, title, stock, reorder_threshold) VALUES (?, 'Inserted meanwhile', 7, 1)")) {
+                insert.setString(1, sku);
+                insert.executeUpdate();
+            }
+
+            // The import does not see the uncommitted row, so it takes the SKU for a new one and its
+            // upsert waits on the conflict until the other transaction commits
+            CompletableFuture<ProductImportResult> importing = CompletableFuture.supplyAsync(() ->
+                    productImportService.importFromCsv(new StringReader(HEADER + sku + ",Imported product,,,,,,2\n"), ImportMode.UPSERT));
+            await().atMost(Duration.ofSeconds(10)).until(() -> upsertsWaitingOnALock() > 0);
+            other.commit();
+
+            ProductImportResult result = importing.get(30, TimeUnit.SECONDS);
+            Long productId = testProducts.track(sku);
+
+            assertThat(result).isEqualTo(new ProductImportResult(1, 0, 0, 1, 0));
+            Product product = productRepository.findById(productId).orElseThrow();
+            assertThat(product.getTitle()).isEqualTo("Imported product");
+            assertThat(product.getStock()).isEqualTo(7);
+        }
+    }
+
+    @Test
+    void quotedNewlineAcrossABlockBoundaryStaysInItsField() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        List<String> skus = new ArrayList<>();
+        while (csv.length() < 900) {
+            String sku = TestProducts.sku("IMPORT");
+            skus.add(sku);
+            csv.append(sku).append(",Filler product,,,,,1,0\n");
+        }
+
+        // The embedded newline falls just before the first block's end and the closing quote after it
+        String quotedSku = TestProducts.sku("IMPORT");
+        String rowStart = quotedSku + ",Quoted product,\"";
+        String description = "a".repeat(1020 - csv.length() - rowStart.length()) + "\n" + "b".repeat(40);
+        int newlineAt = csv.length() + rowStart.length() + description.indexOf('\n');
+        csv.append(rowStart).append(description).append("\",,,,3,1\n");
+        assertThat(newlineAt).isLessThan(1024);
+        assertThat(csv.length()).isGreaterThan(1024);
+        csv.append("IMPORT-short,After the quoted row\n");
+
+        List<String> rejections = new ArrayList<>();
+        ProductImportResult result = productImportService.importFromCsv(
+                new StringReader(csv.toString()), ImportMode.INSERT, rejectionsInto(rejections));
+        skus.forEach(testProducts::track);
+        Long quotedId = testProducts.track(quotedSku);
+
+        assertThat(result).isEqualTo(new ProductImportResult(skus.size() + 2, skus.size() + 1, 1));
+        assertThat(productRepository.findById(quotedId).orElseThrow().getDescription()).isEqualTo(description);
+        // Header, the fillers, then the quoted row's two physical lines
+        assertThat(rejections).containsExactly((skus.size() + 4) + ": expected 8 columns but found 2");
+    }
+
+    private static ImportProgressListener rejectionsInto(List<String> rejections) {
+        return new ImportProgressListener() {
+            @Override
+            public void onRejectedRow(long lineNumber, String reason) {
+                rejections.add(lineNumber + ": " + reason);
+            }
+        };
+    }
+
+    private int upsertsWaitingOnALock() {
+        Integer waiting = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock' AND query LIKE '%ON CONFLICT (sku) DO UPDATE%'",
+                Integer.class);
+        return waiting != null ? waiting : 0;
+    }
+
+    // The writing transaction's id: unchanged unless the row was rewritten
+    private String rowVersion(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT xmin::text FROM products WHERE id = ?", String.class, productId);
+    }
+}
@@ -0,0 +1,100 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Database search: % and _ in a query match only themselves, an exact SKU is answered on its own,
+ * whole words rank before partial ones, and offset and limit stay within their bounds. Runs against the
+ * configured database with the in-memory index off.
+ */
+@SpringBootTest
+class ProductSearchTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    // A token no other product carries, so each search matches only what the test creates
+    private final String token = "search" + UUID.randomUUID().toString().replace("-", "");
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void wildcardsInTheQueryMatchLiterally() {
+        Long percent = titled(token + " 100% cotton");
+        titled(token + " 100 cotton");
+        Long underscore = titled(token + " a_b");
+        titled(token + " axb");
+
+        assertThat(ids(token + " 100%", 10, 0)).containsExactly(percent);
+        assertThat(ids(token + " a_b", 10, 0)).containsExactly(underscore);
+    }
+
+    @Test
+    void exactSkuIsAnsweredOnItsOwn() {
+        String sku = TestProducts.sku("SEARCH");
+        Long exact = testProducts.save(TestProducts.product("SEARCH").sku(sku)).getId();
+        // Would match the substring search too
+        titled("Replaces " + sku);
+
+        assertThat(ids(sku, 10, 0)).containsExactly(exact);
+        assertThat(ids(sku, 10, 1)).isEmpty();
+    }
+
+    @Test
+    void wholeWordMatchesRankBeforePartialOnes() {
+        Long inside = titled("z" + token + "ab gadget");
+        Long prefix = titled(token + "ab gadget");
+        Long whole = titled(token + " gadget");
+        Long suffix = titled("z" + token + " gadget");
+
+        // Each word boundary the query does not share with the title adds to its distance
+        assertThat(ids(token, 10, 0)).containsExactly(whole, prefix, suffix, inside);
+        assertThat(ids(token, 2, 1)).containsExactly(prefix, suffix);
+    }
+
+    @Test
+    void offsetAndLimitAreBounded() {
+        titled(token + " bounded");
+
+        assertThat(ids(token, 500, 1000)).isEmpty();
+        assertBadRequest(() -> productService.searchProducts(token, 10, -1), "offset must be between 0 and 1000");
+        assertBadRequest(() -> productService.searchProducts(token, 10, 1001), "offset must be between 0 and 1000");
+        assertBadRequest(() -> productService.searchProducts(token, 0, 0), "limit must be between 1 and 500");
+        assertBadRequest(() -> productService.searchProducts(token, 501, 0), "limit must be between 1 and 500");
+    }
+
+    private Long titled(String title) {
+        return testProducts.save(TestProducts.product("SEARCH").title(title)).getId();
+    }
+
+    private List<Long> ids(String query, int limit, int offset) {
+        return productService.searchProducts(query, limit, offset).stream().map(ProductResponse::id).toList();
+    }
+
+    private static void assertBadRequest(Runnable search, String reason) {
+        assertThatThrownBy(search::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex -> {
+                    assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                    assertThat(ex.getReason()).isEqualTo(reason);
+                });
+    }
+}
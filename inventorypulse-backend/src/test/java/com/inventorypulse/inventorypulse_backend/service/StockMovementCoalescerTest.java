@@ -0,0 +1,148 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionResponse;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With coalescing on, concurrent movements on one product are written in shared batches, yet the
+ * stock ends at the sum of what was applied and every caller gets back the stock as of its own
+ * place in the ledger. The window is widened so batches really fill up. Runs against the
+ * configured database.
+ */
+@SpringBootTest(properties = {
+        "inventorypulse.inventory.coalescing.enabled=true",
+        "inventorypulse.inventory.coalescing.window=20ms"
+})
+class StockMovementCoalescerTest {
+
+    private static final int THREADS = 16;
+    private static final int MOVEMENTS_PER_THREAD = 25;
+
+    @Autowired
+    private InventoryTransactionService inventoryTransactionService;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void callersSeeTheirOwnPlaceInTheLedger() throws Exception {
+        Long productId = testProducts.save("COALESCE", 1_000);
+
+        List<InventoryTransactionResponse> responses = runConcurrently(productId, i -> i % 3 == 0 ? -2 : 3);
+
+        assertThat(responses).hasSize(THREADS * MOVEMENTS_PER_THREAD);
+        int net = responses.stream().mapToInt(InventoryTransactionResponse::delta).sum();
+        assertThat(testProducts.stockOf(productId)).isEqualTo(1_000 + net);
+        assertResultingStockFollowsTheLedger(productId, 1_000, responses);
+        // One commit timestamp per batch: fewer than one per movement means movements were coalesced
+        assertThat(batches(productId)).isLessThan(responses.size());
+    }
+
+    @Test
+    void withdrawalsBeyondTheStockAreRejectedOnTheirOwn() throws Exception {
+        Long productId = testProducts.save("COALESCE", 100);
+
+        // 400 withdrawals of 1 compete for 100 units: exactly 100 may succeed, whatever batch they share
+        List<InventoryTransactionResponse> responses = runConcurrently(productId, i -> -1);
+
+        assertThat(responses).hasSize(100);
+        assertThat(testProducts.stockOf(productId)).isZero();
+        assertResultingStockFollowsTheLedger(productId, 100, responses);
+    }
+
+    // Replays the ledger in id order and checks each caller's resultingStock against its own row
+    private void assertResultingStockFollowsTheLedger(
+            Long productId,
+            int initialStock,
+            List<InventoryTransactionResponse> responses
+    ) {
+        Map<Long, Integer> stockAfter = new HashMap<>();
+        int[] running = { initialStock };
+        jdbcTemplate.query(
+                "SELECT id, delta, resulting_stock FROM inventory_transactions WHERE product_id = ? ORDER BY id",
+                rs -> {
+                    running[0] += rs.getInt("delta");
+                    assertThat(rs.getInt("resulting_stock")).isEqualTo(running[0]);
+                    stockAfter.put(rs.getLong("id"), running[0]);
+                },
+                productId);
+
+        assertThat(stockAfter).hasSameSizeAs(responses);
+        for (InventoryTransactionResponse response : responses) {
+            assertThat(response.resultingStock()).as("transaction %d", response.id()).isEqualTo(stockAfter.get(response.id()));
+        }
+    }
+
+    private List<InventoryTransactionResponse> runConcurrently(Long productId, IntUnaryOperator deltaForMovement)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<InventoryTransactionResponse>>> futures = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    List<InventoryTransactionResponse> applied = new ArrayList<>();
+                    start.await();
+                    for (int i = 0; i < MOVEMENTS_PER_THREAD; i++) {
+                        try {
+                            applied.add(inventoryTransactionService.createTransaction(
+                                    productId,
+                                    new InventoryTransactionRequest(deltaForMovement.applyAsInt(i), "coalescer test", null),
+                                    "test@inventorypulse.local"
+                            ));
+                        } catch (ResponseStatusException ex) {
+                            // Not enough stock left for this one
+                        }
+                    }
+                    return applied;
+                }));
+            }
+
+            start.countDown();
+
+            List<InventoryTransactionResponse> responses = new ArrayList<>();
+            for (Future<List<InventoryTransactionResponse>> future : futures) {
+                responses.addAll(future.get(2, TimeUnit.MINUTES));
+            }
+            return responses;
+        } finally {
+            pool.shutdownNow();
+            assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    private long batches(Long productId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(DISTINCT created_at) FROM inventory_transactions WHERE product_id = ?", Long.class, productId);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,101 @@
+package com.inventorypulse.inventorypulse_backend.service;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionResponse;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.TransactionPageResponse;
+import com.inventorypulse.inventorypulse_backend.model.Product;
+import com.inventorypulse.inventorypulse_backend.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walking a product's history page by page visits every row exactly once, newest first, with and
+ * without a time window. Runs against the configured database.
+ */
+@SpringBootTest
+class TransactionHistoryPagingTest {
+
+    @Autowired
+    private InventoryTransactionService inventoryTransactionService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long productId;
+
+    @BeforeEach
+    void createLedger() {
+        productId = productRepository.save(Product.builder()
+                .sku("HISTORY-" + UUID.randomUUID())
+                .title("History paging test product")
+                .stock(0)
+                .reorderThreshold(0)
+                .build()).getId();
+
+        // 25 rows at 1.5 s steps from 2024-01-01T00:00:00.000001Z, each step shared by two rows
+        // (ties are broken by id), so timestamps also carry microseconds
+        jdbcTemplate.update("""
+                INSERT INTO inventory_transactions (product_id, delta, reason, actor, resulting_stock, created_at)
+                SELECT ?, 1, 'paging test', 'test@inventorypulse.local', i,
+                       timestamptz '2024-01-01 00:00:00.000001+00' + (i / 2) * interval '1.5 seconds'
+                FROM generate_series(1, 25) AS i
+                """, productId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteById(productId);
+    }
+
+    @Test
+    void pagesCoverTheWholeHistoryNewestFirst() {
+        List<InventoryTransactionResponse> all = walk(null, null, 10);
+
+        assertThat(all).hasSize(25);
+        assertThat(all).extracting(InventoryTransactionResponse::resultingStock)
+                .containsExactlyElementsOf(descending(25, 1));
+    }
+
+    @Test
+    void pagesStayInsideTheTimeWindow() {
+        // [00:00:03, 00:00:12) holds steps 2..7, i.e. rows 4..15
+        List<InventoryTransactionResponse> window = walk("2024-01-01T00:00:03Z", "2024-01-01T00:00:12Z", 4);
+
+        assertThat(window).extracting(InventoryTransactionResponse::resultingStock)
+                .containsExactlyElementsOf(descending(15, 4));
+        assertThat(inventoryTransactionService.getTransactionPage(productId, null, "2024-01-02", null, 10).items())
+                .isEmpty();
+    }
+
+    private List<InventoryTransactionResponse> walk(String from, String to, int limit) {
+        List<InventoryTransactionResponse> rows = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPageResponse page = inventoryTransactionService.getTransactionPage(productId, cursor, from, to, limit);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(limit);
+            rows.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return rows;
+    }
+
+    private static List<Integer> descending(int from, int to) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = from; i >= to; i--) {
+            values.add(i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,145 @@
+package com.inventorypulse.inventorypulse_backend.service.alerts;
+
+import com.inventorypulse.inventorypulse_backend.dto.alert.AlertPageResponse;
+import com.inventorypulse.inventorypulse_backend.dto.alert.AlertResponse;
+import com.inventorypulse.inventorypulse_backend.dto.alert.MarkAlertsSeenRequest;
+import com.inventorypulse.inventorypulse_backend.model.Product;
+import com.inventorypulse.inventorypulse_backend.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Inbox pages follow their cursors newest first, each kind of bulk acknowledgement marks exactly
+ * what it selects, and the maintained unseen count always agrees with the alerts themselves.
+ * Alerts are inserted directly; runs against the configured database.
+ */
+@SpringBootTest
+class AlertInboxServiceTest {
+
+    @Autowired
+    private AlertInboxService alertInboxService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long productId;
+
+    @BeforeEach
+    void createProduct() {
+        // Saved through the repository, so the alert engine never hears of it
+        productId = productRepository.save(Product.builder()
+                .sku("INBOX-" + UUID.randomUUID())
+                .title("Inbox test product")
+                .stock(10)
+                .reorderThreshold(5)
+                .build()).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (productRepository.existsById(productId)) {
+            productRepository.deleteById(productId);
+        }
+        assertCountMatchesAlerts();
+    }
+
+    @Test
+    void pagesNewestFirst() {
+        List<Long> ids = raise(5);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            AlertPageResponse page = alertInboxService.getAlertPage(cursor, 2, false, productId);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+            page.items().forEach(alert -> seen.add(alert.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        Collections.reverse(ids);
+        assertThat(seen).containsExactlyElementsOf(ids);
+        assertThatThrownBy(() -> alertInboxService.getAlertPage("not-a-cursor", 2, false, productId))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void marksListedAlertsAndProducts() {
+        List<Long> ids = raise(4);
+
+        assertThat(alertInboxService.markSeen(new MarkAlertsSeenRequest(List.of(ids.get(0), ids.get(2)), null, null)).marked())
+                .isEqualTo(2);
+        // Already seen: nothing to do the second time
+        assertThat(alertInboxService.markSeen(new MarkAlertsSeenRequest(List.of(ids.get(0)), null, null)).marked())
+                .isZero();
+        assertThat(unseenIds()).containsExactly(ids.get(3), ids.get(1));
+        assertCountMatchesAlerts();
+
+        assertThat(alertInboxService.markSeen(new MarkAlertsSeenRequest(null, productId, null)).marked()).isEqualTo(2);
+        assertThat(unseenIds()).isEmpty();
+        assertCountMatchesAlerts();
+
+        assertThatThrownBy(() -> alertInboxService.markSeen(new MarkAlertsSeenRequest(List.of(ids.get(0)), productId, null)))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void marksEverythingBeforeACursor() {
+        List<Long> ids = raise(3);
+
+        AlertPageResponse first = alertInboxService.getAlertPage(null, 1, true, productId);
+        assertThat(first.items()).extracting(AlertResponse::id).containsExactly(ids.get(2));
+
+        alertInboxService.markSeen(new MarkAlertsSeenRequest(null, null, first.nextCursor()));
+        assertThat(unseenIds()).containsExactly(ids.get(2));
+        assertCountMatchesAlerts();
+    }
+
+    @Test
+    void deletingAProductTakesItsAlertsOffTheCount() {
+        raise(3);
+        assertCountMatchesAlerts();
+
+        productRepository.deleteById(productId);
+        assertCountMatchesAlerts();
+    }
+
+    private List<Long> raise(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(jdbcTemplate.queryForObject(
+                    "INSERT INTO alerts (product_id, type, message) VALUES (?, 'LOW_STOCK', ?) RETURNING id",
+                    Long.class, productId, "inbox test " + i));
+        }
+        return ids;
+    }
+
+    private List<Long> unseenIds() {
+        return alertInboxService.getAlertPage(null, 100, true, productId).items().stream()
+                .map(AlertResponse::id)
+                .toList();
+    }
+
+    // Both read in one statement, so alerts raised meanwhile by the engine cannot skew the comparison
+    private void assertCountMatchesAlerts() {
+        Boolean matches = jdbcTemplate.queryForObject(
+                "SELECT (SELECT unseen FROM alert_counters) = (SELECT count(*) FROM alerts WHERE NOT seen)",
+                Boolean.class);
+        assertThat(matches).isTrue();
+    }
+}
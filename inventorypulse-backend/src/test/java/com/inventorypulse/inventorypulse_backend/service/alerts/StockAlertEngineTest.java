@@ -0,0 +1,100 @@
+package com.inventorypulse.inventorypulse_backend.service.alerts;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.product.UpdateProductRequest;
+import com.inventorypulse.inventorypulse_backend.model.Alert;
+import com.inventorypulse.inventorypulse_backend.model.Product;
+import com.inventorypulse.inventorypulse_backend.repository.AlertRepository;
+import com.inventorypulse.inventorypulse_backend.repository.ProductRepository;
+import com.inventorypulse.inventorypulse_backend.service.InventoryTransactionService;
+import com.inventorypulse.inventorypulse_backend.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Threshold crossings from movements and product edits raise one alert each, in the background,
+ * and movements that stay within a level raise none. Runs against the configured database.
+ */
+@SpringBootTest
+class StockAlertEngineTest {
+
+    private static final String ACTOR = "test@inventorypulse.local";
+
+    @Autowired
+    private InventoryTransactionService inventoryTransactionService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    private String sku;
+    private Long productId;
+
+    @BeforeEach
+    void createProduct() {
+        sku = "ALERT-" + UUID.randomUUID();
+        productId = productRepository.save(Product.builder()
+                .sku(sku)
+                .title("Alert test product")
+                .stock(10)
+                .reorderThreshold(5)
+                .build()).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteById(productId);
+    }
+
+    @Test
+    void raisesOneAlertPerCrossing() {
+        move(-3);                           // 7: still above the threshold
+        move(-3);                           // 4: low
+        awaitAlerts("LOW_STOCK");
+
+        move(-1);                           // 3: still low, no repeat
+        move(-3);                           // 0: out
+        awaitAlerts("LOW_STOCK", "OUT_OF_STOCK");
+
+        // Edits write no ledger row but are evaluated all the same
+        productService.updateProduct(productId, new UpdateProductRequest(sku, "Alert test product", null, null, null, null, 50, 5));
+        awaitAlerts("LOW_STOCK", "OUT_OF_STOCK", "RECOVERED");
+
+        move(5);
+        move(-20);                          // 35: still fine
+        await().pollDelay(Duration.ofMillis(300)).atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(alertTypes()).hasSize(3));
+    }
+
+    private void move(int delta) {
+        inventoryTransactionService.createTransaction(productId, new InventoryTransactionRequest(delta, "alert test", null), ACTOR);
+    }
+
+    private void awaitAlerts(String... types) {
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(alertTypes()).containsExactly(types));
+    }
+
+    private List<String> alertTypes() {
+        return alertRepository.findByProductIdAndSeenFalseOrderByIdDesc(productId).stream()
+                .sorted(Comparator.comparing(Alert::getId))
+                .map(Alert::getType)
+                .toList();
+    }
+}
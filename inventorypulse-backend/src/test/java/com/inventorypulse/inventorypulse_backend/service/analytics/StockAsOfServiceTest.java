@@ -0,0 +1,150 @@
+package com.inventorypulse.inventorypulse_backend.service.analytics;
+
+import com.inventorypulse.inventorypulse_backend.dto.analytics.StockAsOf;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.StockAsOfRequest;
+import com.inventorypulse.inventorypulse_backend.dto.analytics.StockAsOfSource;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.product.UpdateProductRequest;
+import com.inventorypulse.inventorypulse_backend.model.Product;
+import com.inventorypulse.inventorypulse_backend.repository.ProductRepository;
+import com.inventorypulse.inventorypulse_backend.service.InventoryTransactionService;
+import com.inventorypulse.inventorypulse_backend.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stock as of a point in time follows movements, edits that write no ledger row (once a snapshot
+ * has seen them), and movements that commit while a snapshot is being taken. Runs against the
+ * configured database; every snapshot copies the whole catalog.
+ */
+@SpringBootTest
+class StockAsOfServiceTest {
+
+    private static final String ACTOR = "test@inventorypulse.local";
+
+    @Autowired
+    private StockAsOfService stockAsOfService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryTransactionService inventoryTransactionService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<Long> snapshotIds = new ArrayList<>();
+    private String sku;
+    private Long productId;
+
+    @BeforeEach
+    void createProduct() {
+        sku = "AS-OF-" + UUID.randomUUID();
+        productId = productRepository.save(Product.builder()
+                .sku(sku)
+                .title("As-of test product")
+                .stock(5)
+                .reorderThreshold(0)
+                .build()).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteById(productId);
+        snapshotIds.forEach(id -> jdbcTemplate.update("DELETE FROM stock_snapshot_runs WHERE id = ?", id));
+    }
+
+    @Test
+    void combinesMovementsAndSnapshots() throws InterruptedException {
+        Instant beforeAnything = tick();
+        snapshot();
+        Instant afterFirstSnapshot = tick();
+        inventoryTransactionService.createTransaction(productId, new InventoryTransactionRequest(3, "as-of test", null), ACTOR);
+        Instant afterMovement = tick();
+        // An edit writes no ledger row; only the next snapshot sees it
+        productService.updateProduct(productId, new UpdateProductRequest(sku, "As-of test product", null, null, null, null, 20, 0));
+        Instant afterEdit = tick();
+        snapshot();
+        Instant afterSecondSnapshot = tick();
+        inventoryTransactionService.createTransaction(productId, new InventoryTransactionRequest(-2, "as-of test", null), ACTOR);
+        Instant now = tick();
+
+        assertAsOf(beforeAnything, StockAsOfSource.UNKNOWN, null);
+        assertAsOf(afterFirstSnapshot, StockAsOfSource.SNAPSHOT, 5);
+        assertAsOf(afterMovement, StockAsOfSource.MOVEMENT, 8);
+        assertAsOf(afterEdit, StockAsOfSource.MOVEMENT, 8);
+        assertAsOf(afterSecondSnapshot, StockAsOfSource.SNAPSHOT, 20);
+        assertAsOf(now, StockAsOfSource.MOVEMENT, 18);
+    }
+
+    @Test
+    void movementCommittedAfterSnapshotStartedIsNotLost() throws Exception {
+        try (Connection writer = dataSource.getConnection()) {
+            // Dated (transaction start) before the snapshot, committed after it
+            writer.setAutoCommit(false);
+            try (PreparedStatement ps = writer.prepareStatement(
+                    "UPDATE products SET stock = stock + 7 WHERE id = ?")) {
+                ps.setLong(1, productId);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = writer.prepareStatement("""
+                    INSERT INTO inventory_transactions (product_id, delta, reason, actor, resulting_stock)
+                    VALUES (?, 7, 'as-of test', ?, 12)
+                    """)) {
+                ps.setLong(1, productId);
+                ps.setString(2, ACTOR);
+                ps.executeUpdate();
+            }
+            Thread.sleep(5);
+
+            snapshot();
+            writer.commit();
+        }
+
+        // The snapshot still says 5, but it did not see the movement, so the movement wins
+        assertAsOf(tick(), StockAsOfSource.MOVEMENT, 12);
+    }
+
+    private void snapshot() {
+        snapshotIds.add(stockAsOfService.takeSnapshot().id());
+    }
+
+    private void assertAsOf(Instant at, StockAsOfSource source, Integer stock) {
+        List<StockAsOf> rows = stockAsOfService.getStockAsOf(new StockAsOfRequest(at, List.of(sku, "NO-SUCH-SKU")));
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.productId()).isEqualTo(productId);
+            assertThat(row.source()).as("source as of %s", at).isEqualTo(source);
+            assertThat(row.stock()).as("stock as of %s", at).isEqualTo(stock);
+        });
+    }
+
+    // Separates the steps in time, so "as of" each captured instant is unambiguous
+    private static Instant tick() throws InterruptedException {
+        Thread.sleep(5);
+        Instant now = Instant.now();
+        Thread.sleep(5);
+        return now;
+    }
+}
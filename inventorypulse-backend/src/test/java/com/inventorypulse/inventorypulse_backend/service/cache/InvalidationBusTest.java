@@ -0,0 +1,122 @@
+package com.inventorypulse.inventorypulse_backend.service.cache;
+
+import com.inventorypulse.inventorypulse_backend.InventoryPulseApplication;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.UpdateProductRequest;
+import com.inventorypulse.inventorypulse_backend.service.InventoryTransactionService;
+import com.inventorypulse.inventorypulse_backend.service.ProductService;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Two instances against one database: writes on this one reach the other's product cache and
+ * catalog ETag, and the other resyncs after its listening connection is killed. The second
+ * instance is a full application started next to the test's own.
+ */
+@SpringBootTest
+class InvalidationBusTest {
+
+    private static final String ACTOR = "test@inventorypulse.local";
+
+    private static ConfigurableApplicationContext otherInstance;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryTransactionService inventoryTransactionService;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ProductCache otherCache;
+    private CatalogVersion otherCatalogVersion;
+
+    @BeforeAll
+    static void startOtherInstance() {
+        otherInstance = new SpringApplicationBuilder(InventoryPulseApplication.class)
+                .properties("server.port=0")
+                .run();
+    }
+
+    @AfterAll
+    static void stopOtherInstance() {
+        if (otherInstance != null) {
+            otherInstance.close();
+        }
+    }
+
+    @BeforeEach
+    void awaitListening() {
+        otherCache = otherInstance.getBean(ProductCache.class);
+        otherCatalogVersion = otherInstance.getBean(CatalogVersion.class);
+        MeterRegistry otherMeters = otherInstance.getBean(MeterRegistry.class);
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+                otherMeters.get("inventorypulse.invalidation.connected").gauge().value() == 1);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void writesHereReachTheOtherInstance() {
+        Long id = testProducts.create("INVALIDATE", 10, 3);
+        assertThat(otherCache.get(id)).map(ProductResponse::stock).contains(10);
+        String etag = otherCatalogVersion.etag();
+
+        inventoryTransactionService.createTransaction(id, new InventoryTransactionRequest(-3, "invalidation test", null), ACTOR);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(otherCache.get(id)).map(ProductResponse::stock).contains(7));
+        assertThat(otherCatalogVersion.etag()).isNotEqualTo(etag);
+
+        ProductResponse current = otherCache.get(id).orElseThrow();
+        productService.updateProduct(id, new UpdateProductRequest(
+                current.sku(), "Renamed elsewhere", null, null, null, null, 7, 3));
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(otherCache.get(id)).map(ProductResponse::title).contains("Renamed elsewhere"));
+
+        productService.deleteProduct(id);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(otherCache.get(id)).isEmpty());
+    }
+
+    @Test
+    void resyncsAfterTheConnectionDrops() {
+        Long id = testProducts.create("INVALIDATE", 10, 3);
+        assertThat(otherCache.get(id)).map(ProductResponse::stock).contains(10);
+
+        // Written behind the application's back: no instance announces it
+        jdbcTemplate.update("UPDATE products SET stock = 99 WHERE id = ?", id);
+        assertThat(otherCache.get(id)).map(ProductResponse::stock).contains(10);
+
+        String listener = "inventorypulse-invalidation-" + otherInstance.getBean(InvalidationBus.class).instanceId();
+        List<Boolean> terminated = jdbcTemplate.queryForList(
+                "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                Boolean.class, listener);
+        assertThat(terminated).containsExactly(true);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(otherCache.get(id)).map(ProductResponse::stock).contains(99));
+    }
+}
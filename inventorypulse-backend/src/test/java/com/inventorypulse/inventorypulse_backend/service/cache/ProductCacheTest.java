@@ -0,0 +1,103 @@
+package com.inventorypulse.inventorypulse_backend.service.cache;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkInventoryTransactionEntry;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkInventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.BulkTransactionMode;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.product.UpdateProductRequest;
+import com.inventorypulse.inventorypulse_backend.service.BulkInventoryTransactionService;
+import com.inventorypulse.inventorypulse_backend.service.InventoryTransactionService;
+import com.inventorypulse.inventorypulse_backend.service.ProductService;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Once a write has returned, reads through the product cache must show it, even while other
+ * threads keep missing and reloading the same product. Runs against the configured database.
+ */
+@SpringBootTest
+class ProductCacheTest {
+
+    private static final String ACTOR = "test@inventorypulse.local";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryTransactionService inventoryTransactionService;
+
+    @Autowired
+    private BulkInventoryTransactionService bulkInventoryTransactionService;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void stockMovementsAreVisibleAsSoonAsTheyReturn() throws Exception {
+        Long id = testProducts.save("CACHE", 0);
+        assertThat(productService.getProductById(id).stock()).isZero();
+
+        // Readers keep the entry hot and keep reloading it between invalidations
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            readers.submit(() -> {
+                while (running.get()) {
+                    productService.getProductById(id);
+                }
+            });
+        }
+
+        try {
+            for (int i = 1; i <= 200; i++) {
+                int resulting = inventoryTransactionService.createTransaction(
+                        id, new InventoryTransactionRequest(1, "cache test", null), ACTOR
+                ).resultingStock();
+                assertThat(productService.getProductById(id).stock()).isEqualTo(resulting);
+            }
+
+            bulkInventoryTransactionService.applyBatch(new BulkInventoryTransactionRequest(
+                    BulkTransactionMode.ALL_OR_NOTHING,
+                    List.of(new BulkInventoryTransactionEntry(id, null, -50, "cache test", null))
+            ), ACTOR);
+            assertThat(productService.getProductById(id).stock()).isEqualTo(150);
+        } finally {
+            running.set(false);
+            readers.shutdown();
+            assertThat(readers.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void editsAndDeletesAreVisibleAsSoonAsTheyReturn() {
+        Long id = testProducts.save("CACHE", 5);
+        String sku = productService.getProductById(id).sku();
+
+        productService.updateProduct(id, new UpdateProductRequest(sku, "Renamed", null, null, null, null, 9, 2));
+        assertThat(productService.getProductById(id).title()).isEqualTo("Renamed");
+        assertThat(productService.getProductById(id).stock()).isEqualTo(9);
+
+        productService.deleteProduct(id);
+        assertThatThrownBy(() -> productService.getProductById(id))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("not found");
+    }
+}
@@ -0,0 +1,99 @@
+package com.inventorypulse.inventorypulse_backend.service.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvTokenizerTest {
+
+    @Test
+    void handlesQuotedCommasNewlinesAndEscapedQuotes() {
+        String csv = "SKU-1, Widget ,\"Big, \"\"red\"\"\nwidget\",Acme\r\n"
+                + "\n"
+                + "SKU-2,Gadget,,\"\",  42 \n";
+
+        List<List<String>> records = tokenize(csv);
+
+        assertThat(records).containsExactly(
+                List.of("1", "SKU-1", "Widget", "Big, \"red\"\nwidget", "Acme"),
+                List.of("3", ""),
+                List.of("4", "SKU-2", "Gadget", "", "", "42")
+        );
+    }
+
+    @Test
+    void keepsLastRecordWithoutTrailingNewline() {
+        assertThat(tokenize("a,b\nc,\"d")).containsExactly(
+                List.of("1", "a", "b"),
+                List.of("2", "c", "d")
+        );
+    }
+
+    @Test
+    void parsesIntsWithoutAllocatingStrings() {
+        List<Integer> ints = new ArrayList<>();
+        char[] chars = " 17 ,-3,x,,2147483648\n".toCharArray();
+        CsvTokenizer.forEachRecord(chars, 0, chars.length, 1, record -> {
+            for (int i = 0; i < record.size(); i++) {
+                ints.add(record.getInt(i));
+            }
+        });
+
+        assertThat(ints).containsExactly(17, -3, null, null, null);
+    }
+
+    @Test
+    void recordBoundaryIgnoresNewlinesInsideQuotes() {
+        char[] chars = "a,\"b\nc\"\nd,\"e\nf".toCharArray();
+
+        assertThat(CsvTokenizer.findLastRecordEnd(chars, 0, chars.length))
+                .isEqualTo(new CsvTokenizer.Boundary(8, 2));
+    }
+
+    @Test
+    void parallelReaderMatchesSingleThreadedTokenizerAcrossBlocks() throws IOException {
+        StringBuilder sb = new StringBuilder("sku,description\n");
+        for (int i = 0; i < 5_000; i++) {
+            sb.append("SKU-").append(i).append(",\"line one, ").append(i).append("\nline \"\"two\"\"\"\n");
+        }
+        String csv = sb.toString();
+
+        List<String> expected = new ArrayList<>();
+        char[] chars = csv.toCharArray();
+        CsvTokenizer.forEachRecord(chars, 0, chars.length, 1,
+                record -> expected.add(record.lineNumber() + ":" + record.get(0) + ":" + record.get(1)));
+        expected.remove(0);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<String> actual = new ArrayList<>();
+            new ParallelCsvReader<>(pool, 1024, 3,
+                    record -> record.lineNumber() + ":" + record.get(0) + ":" + record.get(1))
+                    .read(new StringReader(csv), true, actual::add);
+
+            assertThat(actual).hasSize(5_000).isEqualTo(expected);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<List<String>> tokenize(String csv) {
+        List<List<String>> records = new ArrayList<>();
+        char[] chars = csv.toCharArray();
+        CsvTokenizer.forEachRecord(chars, 0, chars.length, 1, record -> {
+            List<String> fields = new ArrayList<>();
+            fields.add(String.valueOf(record.lineNumber()));
+            for (int i = 0; i < record.size(); i++) {
+                fields.add(record.get(i));
+            }
+            records.add(fields);
+        });
+        return records;
+    }
+}
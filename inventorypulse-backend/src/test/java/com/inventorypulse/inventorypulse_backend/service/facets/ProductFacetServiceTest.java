@@ -0,0 +1,118 @@
+package com.inventorypulse.inventorypulse_backend.service.facets;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.product.FacetCount;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductFacetsResponse;
+import com.inventorypulse.inventorypulse_backend.repository.ProductReadRepository;
+import com.inventorypulse.inventorypulse_backend.service.InventoryTransactionService;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Facet counts cover exactly the products a search matches, stay cached through stock movements,
+ * and follow them once the TTL has passed. Whole-catalog counts follow every change at once and
+ * always equal a full aggregation. Runs against the configured database.
+ */
+@SpringBootTest
+class ProductFacetServiceTest {
+
+    @Autowired
+    private ProductFacetService productFacetService;
+
+    @Autowired
+    private InventoryTransactionService inventoryTransactionService;
+
+    @Autowired
+    private ProductReadRepository productReadRepository;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void countsMatchingProductsPerCategoryAndBrand() {
+        // A token no other product carries, so the search matches only what this test creates
+        String token = "facet" + UUID.randomUUID().toString().replace("-", "");
+        Long lowStock = createProduct(token, "Tools", "Acme", 1, 5);
+        createProduct(token, "Tools", null, 10, 2);
+        createProduct(token, "Garden", "Acme", 4, 0);
+
+        ProductFacetService.Snapshot cached = productFacetService.getFacets(token.toUpperCase());
+        ProductFacetsResponse facets = cached.facets();
+        assertThat(facets.products()).isEqualTo(3);
+        assertThat(facets.unitsInStock()).isEqualTo(15);
+        assertThat(facets.lowStock()).isEqualTo(1);
+        assertThat(facets.categories()).containsExactly(
+                new FacetCount("Tools", 2, 11, 1),
+                new FacetCount("Garden", 1, 4, 0)
+        );
+        assertThat(facets.brands()).containsExactly(
+                new FacetCount("Acme", 2, 5, 1),
+                new FacetCount(null, 1, 10, 0)
+        );
+        assertThat(productFacetService.getFacets(" " + token + " ")).isSameAs(cached);
+
+        inventoryTransactionService.createTransaction(
+                lowStock, new InventoryTransactionRequest(9, "facet test", null), "test@inventorypulse.local");
+        assertThat(productFacetService.getFacets(token)).isSameAs(cached);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            ProductFacetService.Snapshot refreshed = productFacetService.getFacets(token);
+            assertThat(refreshed.etag()).isNotEqualTo(cached.etag());
+            assertThat(refreshed.facets().unitsInStock()).isEqualTo(24);
+            assertThat(refreshed.facets().lowStock()).isZero();
+            assertThat(refreshed.facets().categories()).contains(new FacetCount("Tools", 2, 20, 0));
+        });
+    }
+
+    @Test
+    void wholeCatalogCountsFollowEveryChangeAtOnce() {
+        String token = "facet" + UUID.randomUUID().toString().replace("-", "");
+        String category = "Category " + token;
+        String brand = "Brand " + token;
+        Long lowStock = createProduct(token, category, brand, 1, 5);
+        createProduct(token, category, null, 10, 2);
+
+        ProductFacetsResponse before = productFacetService.getFacets("").facets();
+        assertThat(before).isEqualTo(productReadRepository.aggregateFacets(null));
+        assertThat(before.categories()).contains(new FacetCount(category, 2, 11, 1));
+        assertThat(before.brands()).contains(new FacetCount(brand, 1, 1, 1));
+
+        inventoryTransactionService.createTransaction(
+                lowStock, new InventoryTransactionRequest(9, "facet test", null), "test@inventorypulse.local");
+        ProductFacetsResponse moved = productFacetService.getFacets(null).facets();
+        assertThat(moved.unitsInStock()).isEqualTo(before.unitsInStock() + 9);
+        assertThat(moved.lowStock()).isEqualTo(before.lowStock() - 1);
+        assertThat(moved.categories()).contains(new FacetCount(category, 2, 20, 0));
+        assertThat(moved.brands()).contains(new FacetCount(brand, 1, 10, 0));
+
+        testProducts.deleteAll();
+        ProductFacetsResponse deleted = productFacetService.getFacets(" ").facets();
+        assertThat(deleted.products()).isEqualTo(before.products() - 2);
+        assertThat(deleted.categories()).extracting(FacetCount::value).doesNotContain(category);
+        assertThat(deleted.brands()).extracting(FacetCount::value).doesNotContain(brand);
+        assertThat(deleted).isEqualTo(productReadRepository.aggregateFacets(null));
+    }
+
+    private Long createProduct(String token, String category, String brand, int stock, int reorderThreshold) {
+        return testProducts.save(TestProducts.product("FACET")
+                .title("Facet test " + token)
+                .category(category)
+                .brand(brand)
+                .stock(stock)
+                .reorderThreshold(reorderThreshold)).getId();
+    }
+}
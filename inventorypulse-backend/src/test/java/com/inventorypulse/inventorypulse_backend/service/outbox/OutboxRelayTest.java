@@ -0,0 +1,196 @@
+package com.inventorypulse.inventorypulse_backend.service.outbox;
+
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.dto.outbox.OutboxEvent;
+import com.inventorypulse.inventorypulse_backend.dto.outbox.OutboxEventType;
+import com.inventorypulse.inventorypulse_backend.dto.product.UpdateProductRequest;
+import com.inventorypulse.inventorypulse_backend.repository.OutboxRepository;
+import com.inventorypulse.inventorypulse_backend.service.InventoryTransactionService;
+import com.inventorypulse.inventorypulse_backend.service.ProductService;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Product and stock changes reach the sink once committed, in order per product, survive a
+ * failing sink, and concurrent claims never share a product. Background relaying is off in tests
+ * (src/test/resources/config), so the test drives the relay itself. Runs against the configured
+ * database.
+ */
+@SpringBootTest
+class OutboxRelayTest {
+
+    private static final String ACTOR = "test@inventorypulse.local";
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private RecordingOutboxSink sink;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryTransactionService inventoryTransactionService;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void drainOutbox() {
+        // Whatever earlier tests left behind
+        outboxRelay.relayPending();
+        sink.received.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void deliversEveryChangeInOrder() {
+        Long productId = testProducts.create("OUTBOX", 10, 3);
+        move(productId, -4);
+        move(productId, 2);
+        productService.updateProduct(productId, new UpdateProductRequest(
+                skuOf(productId), "Renamed outbox product", null, null, null, null, 30, 3));
+        productService.deleteProduct(productId);
+
+        outboxRelay.relayPending();
+
+        List<OutboxEvent> events = eventsFor(productId);
+        assertThat(events).extracting(OutboxEvent::type).containsExactly(
+                OutboxEventType.PRODUCT_CREATED,
+                OutboxEventType.STOCK_CHANGED,
+                OutboxEventType.STOCK_CHANGED,
+                OutboxEventType.PRODUCT_UPDATED,
+                OutboxEventType.PRODUCT_DELETED);
+        assertThat(events).extracting(OutboxEvent::id).isSorted();
+        assertThat(events.get(1).payload()).contains("\"delta\": -4", "\"resultingStock\": 6");
+        assertThat(events.get(2).payload()).contains("\"resultingStock\": 8");
+        assertThat(events.get(3).payload()).contains("\"title\": \"Renamed outbox product\"", "\"stock\": 30");
+        assertThat(pendingFor(productId)).isZero();
+    }
+
+    @Test
+    void keepsEventsUntilTheSinkAcceptsThem() {
+        sink.failures.set(1);
+        Long productId = testProducts.create("OUTBOX", 10, 3);
+
+        assertThat(outboxRelay.relayPending()).isZero();
+        assertThat(pendingFor(productId)).isEqualTo(1);
+
+        outboxRelay.relayPending();
+        assertThat(eventsFor(productId)).extracting(OutboxEvent::type).containsExactly(OutboxEventType.PRODUCT_CREATED);
+        assertThat(pendingFor(productId)).isZero();
+    }
+
+    @Test
+    void concurrentClaimsNeverSplitAProduct() throws Exception {
+        Long first = testProducts.create("OUTBOX", 10, 3);
+        Long second = testProducts.create("OUTBOX", 10, 3);
+        move(first, 1);
+        move(first, 1);
+
+        // Holds a claim on the first product's oldest event only
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<OutboxEvent>> holder = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    List<OutboxEvent> events = outboxRepository.claim(1, 100);
+                    claimed.countDown();
+                    await(release);
+                    status.setRollbackOnly();
+                    return events;
+                }));
+        assertThat(claimed.await(10, TimeUnit.SECONDS)).isTrue();
+
+        List<OutboxEvent> concurrent = transactionTemplate.execute(status -> outboxRepository.claim(100, 100));
+        release.countDown();
+
+        assertThat(holder.get(10, TimeUnit.SECONDS)).extracting(OutboxEvent::productId).containsExactly(first);
+        assertThat(concurrent).extracting(OutboxEvent::productId).containsOnly(second);
+
+        outboxRelay.relayPending();
+        assertThat(eventsFor(first)).extracting(OutboxEvent::type).containsExactly(
+                OutboxEventType.PRODUCT_CREATED, OutboxEventType.STOCK_CHANGED, OutboxEventType.STOCK_CHANGED);
+    }
+
+    private void move(Long productId, int delta) {
+        inventoryTransactionService.createTransaction(productId, new InventoryTransactionRequest(delta, "outbox test", null), ACTOR);
+    }
+
+    private String skuOf(Long productId) {
+        return productService.getProductById(productId).sku();
+    }
+
+    private List<OutboxEvent> eventsFor(Long productId) {
+        return sink.received.stream().filter(event -> event.productId() == productId).toList();
+    }
+
+    private int pendingFor(Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbox_events WHERE product_id = ?", Integer.class, productId);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Records what it is given, after failing as many times as asked to
+    static class RecordingOutboxSink implements OutboxSink {
+
+        final List<OutboxEvent> received = new CopyOnWriteArrayList<>();
+        final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public void publish(List<OutboxEvent> events) {
+            if (failures.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                throw new IllegalStateException("sink unavailable");
+            }
+            received.addAll(events);
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingSinkConfig {
+
+        @Bean
+        @Primary
+        RecordingOutboxSink recordingOutboxSink() {
+            return new RecordingOutboxSink();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.inventorypulse.inventorypulse_backend.service.paging;
+
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductSort;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LowStockCursorTest {
+
+    private static final ProductResponse LAST = new ProductResponse(
+            42L, "SKU-42", "Widget", null, null, null, null, 2, 9
+    );
+
+    @Test
+    void roundTripsShortfallAndId() {
+        String encoded = LowStockCursor.after(LAST).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+        assertThat(LowStockCursor.decode(encoded)).isEqualTo(new LowStockCursor(7, 42L));
+    }
+
+    @Test
+    void rejectsProductListingCursor() {
+        String productCursor = ProductCursor.after(ProductSort.ID, LAST).encode();
+
+        assertThatThrownBy(() -> LowStockCursor.decode(productCursor))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+}
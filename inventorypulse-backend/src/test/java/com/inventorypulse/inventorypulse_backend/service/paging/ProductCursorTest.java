@@ -0,0 +1,37 @@
+package com.inventorypulse.inventorypulse_backend.service.paging;
+
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductResponse;
+import com.inventorypulse.inventorypulse_backend.dto.product.ProductSort;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductCursorTest {
+
+    private static final ProductResponse LAST = new ProductResponse(
+            42L, "SKU-42", "Widget, \"large\" / ünïcode", null, null, null, null, 5, 1
+    );
+
+    @Test
+    void roundTripsTitleCursor() {
+        String encoded = ProductCursor.after(ProductSort.TITLE, LAST).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+        assertThat(ProductCursor.decode(encoded, ProductSort.TITLE))
+                .isEqualTo(new ProductCursor(ProductSort.TITLE, 42L, LAST.title()));
+    }
+
+    @Test
+    void rejectsCursorForAnotherSortOrGarbage() {
+        String idCursor = ProductCursor.after(ProductSort.ID, LAST).encode();
+
+        assertThatThrownBy(() -> ProductCursor.decode(idCursor, ProductSort.TITLE))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("sort=id");
+        assertThatThrownBy(() -> ProductCursor.decode("not a cursor!", ProductSort.ID))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+}
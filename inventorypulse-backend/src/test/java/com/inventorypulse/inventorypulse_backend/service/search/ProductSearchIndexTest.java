@@ -0,0 +1,119 @@
+package com.inventorypulse.inventorypulse_backend.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    @Test
+    void ranksPrefixMatchesBeforeMatchesInsideWords() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, 1, "TEA-100", "Teapot stand", "Acme", "Kitchen");
+        index.put(2, 1, "KET-200", "Electric kettle", "Acme", "Kitchen");
+        index.put(3, 1, "KET-300", "Kettle", "Globex", null);
+        index.put(4, 1, "LMP-400", "Desk lamp", "Steeltea", "Office");
+
+        assertThat(ids(index.search("kettle", 10, 0))).containsExactly(3L, 2L);
+        assertThat(ids(index.search("TEA", 10, 0))).containsExactly(1L, 4L);
+        assertThat(ids(index.search("ket", 10, 0))).containsExactly(2L, 3L);
+        assertThat(ids(index.search("ke", 10, 0))).containsExactly(2L, 3L);
+        assertThat(ids(index.search("kettle", 1, 1))).containsExactly(2L);
+        assertThat(index.search("plumbing", 10, 0)).isEmpty();
+    }
+
+    @Test
+    void exactSkuMatchesOnlyThatProduct() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, 1, "ABC-1", "Widget", null, null);
+        index.put(2, 1, "ABC-10", "Widget large", null, null);
+
+        assertThat(index.search("ABC-1", 10, 0))
+                .containsExactly(new ProductSearchIndex.Match(1, "ABC-1", "Widget"));
+        assertThat(ids(index.search("abc-1", 10, 0))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void followsUpdatesAndDeletesThroughCompaction() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id = 1; id <= 5_000; id++) {
+            index.put(id, 1, "SKU-" + id, "Old title " + id, null, null);
+        }
+        for (long id = 1; id <= 5_000; id++) {
+            if (id % 2 == 0) {
+                index.put(id, 2, "SKU-" + id, "Renamed gadget " + id, null, null);
+            } else {
+                index.remove(id);
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(2_500);
+        assertThat(index.search("old title", 10, 0)).isEmpty();
+        assertThat(index.search("renamed gadget", 5_000, 0)).hasSize(2_500);
+        assertThat(index.search("SKU-4242", 10, 0))
+                .containsExactly(new ProductSearchIndex.Match(4242, "SKU-4242", "Renamed gadget 4242"));
+        assertThat(index.search("SKU-4243", 10, 0)).isEmpty();
+    }
+
+    @Test
+    void keepsTheNewestVersionWhenUpdatesArriveOutOfOrder() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, 3, "SKU-1", "Newest title", null, null);
+        index.put(1, 2, "SKU-1", "Older title", null, null);
+        index.put(1, 3, "SKU-1", "Same version again", null, null);
+
+        assertThat(index.search("SKU-1", 10, 0)).containsExactly(new ProductSearchIndex.Match(1, "SKU-1", "Newest title"));
+
+        index.remove(1);
+        // Read before the delete, applied after it
+        index.put(1, 4, "SKU-1", "Newest title", null, null);
+
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void racingUpdatesLeaveTheNewestVersion() throws Exception {
+        ProductSearchIndex index = new ProductSearchIndex();
+        int versions = 2_000;
+        // Two refreshes applying the same reads of one product, each in its own order
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Void> refresh = () -> {
+            List<Integer> order = IntStream.rangeClosed(1, versions).boxed().collect(Collectors.toList());
+            Collections.shuffle(order);
+            start.await();
+            for (int version : order) {
+                index.put(1, version, "SKU-1", "Title v" + version, null, null);
+            }
+            return null;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Void>> refreshes = List.of(executor.submit(refresh), executor.submit(refresh));
+            start.countDown();
+            for (Future<Void> done : refreshes) {
+                done.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(index.search("SKU-1", 10, 0))
+                .containsExactly(new ProductSearchIndex.Match(1, "SKU-1", "Title v" + versions));
+    }
+
+    private static List<Long> ids(List<ProductSearchIndex.Match> matches) {
+        return matches.stream().map(ProductSearchIndex.Match::id).toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.inventorypulse.inventorypulse_backend.service.stream;
+
+import com.inventorypulse.inventorypulse_backend.auth.JwtTokenProvider;
+import com.inventorypulse.inventorypulse_backend.dto.inventory.InventoryTransactionRequest;
+import com.inventorypulse.inventorypulse_backend.service.InventoryTransactionService;
+import com.inventorypulse.inventorypulse_backend.service.ProductService;
+import com.inventorypulse.inventorypulse_backend.support.TestProducts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Stock movements, alerts and deletes reach the streams whose filters match them, over a real
+ * connection. Runs against the configured database, on a random port.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StockStreamServiceTest {
+
+    private static final String ACTOR = "test@inventorypulse.local";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryTransactionService inventoryTransactionService;
+
+    @Autowired
+    private TestProducts testProducts;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<Stream<String>> openStreams = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        openStreams.forEach(Stream::close);
+        testProducts.deleteAll();
+    }
+
+    @Test
+    void pushesMatchingChangesAndAlerts() {
+        String category = "stream-test-" + UUID.randomUUID();
+        Long watched = createProduct(category);
+        Long other = createProduct(null);
+
+        List<String> productStream = subscribe("productId=" + watched);
+        List<String> alertStream = subscribe("category=" + category + "&alertsOnly=true");
+
+        inventoryTransactionService.createTransaction(other, new InventoryTransactionRequest(1, "stream test", null), ACTOR);
+        // 10 -> 2, at or below the reorder threshold of 3
+        inventoryTransactionService.createTransaction(watched, new InventoryTransactionRequest(-8, "stream test", null), ACTOR);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(productStream).anySatisfy(event -> assertThat(event)
+                    .startsWith("product ").contains("\"id\":" + watched).contains("\"stock\":2"));
+            assertThat(productStream).anySatisfy(event -> assertThat(event)
+                    .startsWith("alert ").contains("\"productId\":" + watched).contains("LOW_STOCK"));
+            assertThat(alertStream).anySatisfy(event -> assertThat(event)
+                    .startsWith("alert ").contains("\"productId\":" + watched).contains("LOW_STOCK"));
+        });
+
+        productService.deleteProduct(watched);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(productStream)
+                .contains("product-deleted {\"id\":" + watched + "}"));
+        assertThat(alertStream).allSatisfy(event -> assertThat(event).startsWith("alert "));
+        assertThat(productStream).noneSatisfy(event -> assertThat(event).contains("\"id\":" + other));
+    }
+
+    // Opens a stream and collects its events as "name data", once it is connected
+    private List<String> subscribe(String query) {
+        String token = jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken("admin@example.com", null));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stream?" + query))
+                .header("Authorization", "Bearer " + token)
+                .build();
+
+        List<String> events = new CopyOnWriteArrayList<>();
+        List<String> comments = new CopyOnWriteArrayList<>();
+        HttpResponse<Stream<String>> response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofLines()).join();
+        assertThat(response.statusCode()).isEqualTo(200);
+        openStreams.add(response.body());
+
+        Thread reader = new Thread(() -> {
+            String[] name = new String[1];
+            try {
+                response.body().forEach(line -> {
+                    if (line.startsWith(":")) {
+                        comments.add(line);
+                    } else if (line.startsWith("event:")) {
+                        name[0] = line.substring("event:".length());
+                    } else if (line.startsWith("data:")) {
+                        events.add(name[0] + " " + line.substring("data:".length()));
+                    }
+                });
+            } catch (RuntimeException ex) {
+                // Closed by cleanUp
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> comments.contains(":connected"));
+        return events;
+    }
+
+    private Long createProduct(String category) {
+        return testProducts.save(TestProducts.product("STREAM")
+                .category(category)
+                .stock(10)
+                .reorderThreshold(3)).getId();
+    }
+}
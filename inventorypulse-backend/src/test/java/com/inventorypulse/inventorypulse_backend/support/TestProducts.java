@@ -0,0 +1,79 @@
+package com.inventorypulse.inventorypulse_backend.support;
+
+import com.inventorypulse.inventorypulse_backend.dto.product.CreateProductRequest;
+import com.inventorypulse.inventorypulse_backend.model.Product;
+import com.inventorypulse.inventorypulse_backend.repository.ProductRepository;
+import com.inventorypulse.inventorypulse_backend.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The products one test creates, and their removal afterwards. Each test instance gets its own
+ * (prototype scope) and calls {@link #deleteAll()} from its {@code @AfterEach}.
+ *
+ * {@link #save} writes straight through the repository, so nothing that follows a change made
+ * through the API happens; {@link #create} goes through {@link ProductService} like the API does.
+ * Deleting a product takes the rows that reference it with it (ON DELETE CASCADE).
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+@RequiredArgsConstructor
+public class TestProducts {
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+
+    private final List<Long> createdProductIds = new ArrayList<>();
+
+    /** A product with a unique sku starting with {@code skuPrefix}, no stock and no reorder threshold. */
+    public static Product.ProductBuilder product(String skuPrefix) {
+        return Product.builder()
+                .sku(sku(skuPrefix))
+                .title(skuPrefix + " test product");
+    }
+
+    public static String sku(String skuPrefix) {
+        return skuPrefix + "-" + UUID.randomUUID();
+    }
+
+    public Product save(Product.ProductBuilder product) {
+        Product saved = productRepository.save(product.build());
+        createdProductIds.add(saved.getId());
+        return saved;
+    }
+
+    // The common case: only the stock matters
+    public Long save(String skuPrefix, int stock) {
+        return save(product(skuPrefix).stock(stock)).getId();
+    }
+
+    public Long create(String skuPrefix, int stock, int reorderThreshold) {
+        Long id = productService.createProduct(new CreateProductRequest(
+                sku(skuPrefix), skuPrefix + " test product", null, null, null, null, stock, reorderThreshold)).id();
+        createdProductIds.add(id);
+        return id;
+    }
+
+    // For products the code under test created, e.g. an import: looks the sku up and deletes it afterwards
+    public Long track(String sku) {
+        Long id = productRepository.findBySku(sku).orElseThrow().getId();
+        createdProductIds.add(id);
+        return id;
+    }
+
+    public int stockOf(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStock();
+    }
+
+    // Skips products the test already deleted itself
+    public void deleteAll() {
+        createdProductIds.stream().filter(productRepository::existsById).forEach(productRepository::deleteById);
+        createdProductIds.clear();
+    }
+}